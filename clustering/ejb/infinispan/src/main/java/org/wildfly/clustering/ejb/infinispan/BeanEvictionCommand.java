@@ -21,21 +21,23 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import java.util.Collection;
+
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 
 /**
- * Command that evicts a bean.
+ * Command that evicts one or more beans.
  * @author Paul Ferraro
  */
 public class BeanEvictionCommand<I> implements Command<Void, BeanEvictionContext<I>> {
-    private static final long serialVersionUID = -6593293772761100784L;
+    private static final long serialVersionUID = -1476325024213683716L;
 
-    private final I id;
+    private final Collection<I> ids;
 
-    public BeanEvictionCommand(I id) {
-        this.id = id;
+    public BeanEvictionCommand(Collection<I> ids) {
+        this.ids = ids;
     }
 
     @Override
@@ -43,8 +45,10 @@ public class BeanEvictionCommand<I> implements Command<Void, BeanEvictionContext
         Batch batch = context.getBatcher().createBatch();
         boolean success = false;
         try {
-            InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", this.id);
-            context.getEvictor().evict(this.id);
+            for (I id: this.ids) {
+                InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", id);
+                context.getEvictor().evict(id);
+            }
             success = true;
         } finally {
             if (success) {
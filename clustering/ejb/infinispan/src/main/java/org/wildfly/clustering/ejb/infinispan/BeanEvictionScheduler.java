@@ -21,9 +21,15 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
@@ -35,6 +41,9 @@ import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 
 /**
  * Schedules a bean for eviction.
+ * Scheduled beans are queued, without locking, in the order in which they were scheduled.
+ * Cancelled beans are only marked as such, and are discarded once they reach the head of the queue, or when the queue is purged.
+ * Beans evicted while a previous eviction command is being broadcast are evicted by a single subsequent command.
  *
  * @author Paul Ferraro
  *
@@ -44,7 +53,16 @@ import org.wildfly.clustering.infinispan.spi.distribution.Locality;
  */
 public class BeanEvictionScheduler<I> implements Scheduler<I>, BeanEvictionContext<I> {
 
-    private final Set<I> evictionQueue = new LinkedHashSet<>();
+    private final ConcurrentMap<I, Entry<I>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<I>> evictionQueue = new ConcurrentLinkedQueue<>();
+    // Number of scheduled beans
+    private final AtomicInteger size = new AtomicInteger();
+    // Number of cancelled entries remaining in the eviction queue
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    // Beans removed from the eviction queue, but not yet broadcast
+    private final Queue<I> evictedBeans = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean broadcasting = new AtomicBoolean();
     private final Batcher<TransactionBatch> batcher;
     private final Evictor<I> evictor;
     private final CommandDispatcher<BeanEvictionContext<I>> dispatcher;
@@ -69,47 +87,133 @@ public class BeanEvictionScheduler<I> implements Scheduler<I>, BeanEvictionConte
 
     @Override
     public void cancel(I id) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.remove(id);
+        Entry<I> entry = this.entries.remove(id);
+        if ((entry != null) && entry.cancel()) {
+            this.size.decrementAndGet();
+            this.cancelled.incrementAndGet();
         }
     }
 
     @Override
     public void cancel(Locality locality) {
-        synchronized (this.evictionQueue) {
-            Iterator<I> beans = this.evictionQueue.iterator();
-            while (beans.hasNext()) {
-                I id = beans.next();
-                if (!locality.isLocal(id)) {
-                    beans.remove();
-                }
+        for (I id: this.entries.keySet()) {
+            if (!locality.isLocal(id)) {
+                this.cancel(id);
             }
         }
     }
 
     @Override
     public void schedule(I id) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.add(id);
-            // Trigger eviction of oldest bean if necessary
-            if (this.evictionQueue.size() > this.config.getConfiguration().getMaxSize()) {
-                Iterator<I> beans = this.evictionQueue.iterator();
-                I bean = beans.next();
-                try {
-                    this.dispatcher.submitOnCluster(new BeanEvictionCommand<>(bean));
-                    beans.remove();
-                } catch (Exception e) {
+        this.enqueue(id);
+        int maxSize = this.config.getConfiguration().getMaxSize();
+        // Evict oldest beans if necessary
+        while (this.size.get() > maxSize) {
+            Entry<I> entry = this.evictionQueue.poll();
+            if (entry == null) break;
+            if (entry.evict()) {
+                this.size.decrementAndGet();
+                this.entries.remove(entry.getId(), entry);
+                this.evictedBeans.add(entry.getId());
+            } else if (entry.discard()) {
+                this.cancelled.decrementAndGet();
+            }
+        }
+        // Remove cancelled entries from the eviction queue, if they outnumber the scheduled beans
+        if ((this.cancelled.get() > Math.max(maxSize, this.size.get())) && this.purging.compareAndSet(false, true)) {
+            try {
+                Iterator<Entry<I>> entries = this.evictionQueue.iterator();
+                while (entries.hasNext()) {
+                    if (entries.next().discard()) {
+                        entries.remove();
+                        this.cancelled.decrementAndGet();
+                    }
+                }
+            } finally {
+                this.purging.set(false);
+            }
+        }
+        this.broadcast();
+    }
+
+    private void enqueue(I id) {
+        Entry<I> entry = new Entry<>(id);
+        Entry<I> existing = this.entries.put(id, entry);
+        this.evictionQueue.add(entry);
+        if ((existing != null) && existing.cancel()) {
+            this.cancelled.incrementAndGet();
+        } else {
+            this.size.incrementAndGet();
+        }
+    }
+
+    private void broadcast() {
+        // Only one thread broadcasts at a time, any other evicted beans are included in the next broadcast
+        while (!this.evictedBeans.isEmpty() && this.broadcasting.compareAndSet(false, true)) {
+            List<I> beans = new ArrayList<>();
+            try {
+                I bean = this.evictedBeans.poll();
+                while (bean != null) {
+                    beans.add(bean);
+                    bean = this.evictedBeans.poll();
+                }
+                if (!beans.isEmpty()) {
+                    this.dispatcher.submitOnCluster(new BeanEvictionCommand<>(beans));
+                }
+            } catch (Exception e) {
+                for (I bean: beans) {
                     InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, bean);
+                    // Reschedule bean, unless it was already rescheduled, so that its eviction is retried later
+                    if (!this.entries.containsKey(bean)) {
+                        this.enqueue(bean);
+                    }
                 }
+                return;
+            } finally {
+                this.broadcasting.set(false);
             }
         }
     }
 
     @Override
     public void close() {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.clear();
-        }
+        this.entries.clear();
+        this.evictionQueue.clear();
+        this.evictedBeans.clear();
+        this.size.set(0);
+        this.cancelled.set(0);
         this.dispatcher.close();
     }
+
+    private static class Entry<I> {
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EVICTED = 2;
+        private static final int DISCARDED = 3;
+
+        private final I id;
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+        Entry(I id) {
+            this.id = id;
+        }
+
+        I getId() {
+            return this.id;
+        }
+
+        // Each of the following state transitions succeeds for a single caller only
+
+        boolean cancel() {
+            return this.state.compareAndSet(SCHEDULED, CANCELLED);
+        }
+
+        boolean evict() {
+            return this.state.compareAndSet(SCHEDULED, EVICTED);
+        }
+
+        boolean discard() {
+            return this.state.compareAndSet(CANCELLED, DISCARDED);
+        }
+    }
 }
@@ -43,4 +43,11 @@ public interface BeanGroupFactory<G, I, T> extends Creator<G, BeanGroupEntry<I,
      * @return a bean group
      */
     BeanGroup<G, I, T> createGroup(G id, BeanGroupEntry<I, T> entry);
+
+    /**
+     * Evicts the specified bean of the specified group.
+     * @param id a group identifier
+     * @param beanId a bean identifier
+     */
+    void evict(G id, I beanId);
 }
@@ -39,9 +39,12 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
 import org.wildfly.clustering.ejb.infinispan.bean.InfinispanBeanFactory;
+import org.wildfly.clustering.ejb.infinispan.group.BeanGroupMemberKey;
+import org.wildfly.clustering.ejb.infinispan.group.FineBeanGroupFactory;
 import org.wildfly.clustering.ejb.infinispan.group.InfinispanBeanGroupFactory;
 import org.wildfly.clustering.group.NodeFactory;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
+import org.wildfly.clustering.marshalling.MarshalledValue;
 import org.wildfly.clustering.marshalling.MarshalledValueFactory;
 import org.wildfly.clustering.marshalling.MarshallingContext;
 import org.wildfly.clustering.marshalling.SimpleMarshalledValueFactory;
@@ -71,7 +74,8 @@ public class InfinispanBeanManagerFactory<G, I, T> implements BeanManagerFactory
         MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context);
         Cache<G, BeanGroupEntry<I, T>> groupCache = this.configuration.getCache();
         org.infinispan.configuration.cache.Configuration config = groupCache.getCacheConfiguration();
-        BeanGroupFactory<G, I, T> groupFactory = new InfinispanBeanGroupFactory<>(groupCache, factory, context);
+        Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> groupMemberCache = this.configuration.getCache();
+        BeanGroupFactory<G, I, T> groupFactory = this.configuration.isFineGrained() ? new FineBeanGroupFactory<>(groupCache, groupMemberCache, factory, context) : new InfinispanBeanGroupFactory<>(groupCache, factory, context);
         Configuration<G, G, BeanGroupEntry<I, T>, BeanGroupFactory<G, I, T>> groupConfiguration = new SimpleConfiguration<>(groupCache, groupFactory, groupIdentifierFactory);
         Cache<BeanKey<I>, BeanEntry<G>> beanCache = this.configuration.getCache();
         final String beanName = this.configuration.getBeanContext().getBeanName();
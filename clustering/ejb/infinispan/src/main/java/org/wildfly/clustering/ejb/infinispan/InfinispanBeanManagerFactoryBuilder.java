@@ -139,6 +139,11 @@ public class InfinispanBeanManagerFactoryBuilder<G, I, T> implements Builder<Bea
         return this.configuration;
     }
 
+    @Override
+    public boolean isFineGrained() {
+        return this.configuration.isFineGrained();
+    }
+
     @Override
     public NodeFactory<Address> getNodeFactory() {
         return this.nodeFactory.getValue();
@@ -46,6 +46,7 @@ public interface InfinispanBeanManagerFactoryConfiguration {
     ScheduledExecutorService getScheduler();
     Executor getExecutor();
     BeanPassivationConfiguration getPassivationConfiguration();
+    boolean isFineGrained();
     NodeFactory<Address> getNodeFactory();
     Registry<String, ?> getRegistry();
     CommandDispatcherFactory getCommandDispatcherFactory();
@@ -116,7 +116,7 @@ public class InfinispanBeanFactory<G, I, T> implements BeanFactory<G, I, T> {
                 InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, id);
             }
             // The actual bean instance is stored in the group, so this is the important entry to evict.
-            this.groupFactory.evict(entry.getGroupId());
+            this.groupFactory.evict(entry.getGroupId(), id);
         }
     }
 }
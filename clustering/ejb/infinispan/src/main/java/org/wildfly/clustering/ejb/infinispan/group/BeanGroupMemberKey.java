@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+/**
+ * The cache key of a bean within a fine-grained bean group.
+ * Shares the hash code of its group identifier, so that the beans of a group are always co-located with the group's cache entry.
+ *
+ * @param <G> the group identifier type
+ * @param <I> the bean identifier type
+ */
+public class BeanGroupMemberKey<G, I> {
+
+    private final G groupId;
+    private final I beanId;
+
+    public BeanGroupMemberKey(G groupId, I beanId) {
+        this.groupId = groupId;
+        this.beanId = beanId;
+    }
+
+    public G getGroupId() {
+        return this.groupId;
+    }
+
+    public I getBeanId() {
+        return this.beanId;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.groupId.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof BeanGroupMemberKey)) return false;
+        BeanGroupMemberKey<?, ?> key = (BeanGroupMemberKey<?, ?>) object;
+        return this.groupId.equals(key.groupId) && this.beanId.equals(key.beanId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s", this.groupId, this.beanId);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.Mutator;
+import org.wildfly.clustering.ee.infinispan.Remover;
+import org.wildfly.clustering.ejb.PassivationListener;
+import org.wildfly.clustering.ejb.infinispan.BeanGroup;
+import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshalledValueFactory;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+
+/**
+ * A {@link BeanGroup} implementation that stores each of its beans in a separate cache entry.
+ * Closing the group only replicates those beans that were accessed since the group was last closed.
+ *
+ * @param <G> the group identifier type
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class FineBeanGroup<G, I, T> implements BeanGroup<G, I, T> {
+
+    private final G id;
+    private final FineBeanGroupEntry<I, T> entry;
+    private final Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> cache;
+    private final MarshalledValueFactory<MarshallingContext> factory;
+    private final MarshallingContext context;
+    private final Mutator mutator;
+    private final Remover<G> remover;
+
+    public FineBeanGroup(G id, FineBeanGroupEntry<I, T> entry, Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> cache, MarshalledValueFactory<MarshallingContext> factory, MarshallingContext context, Mutator mutator, Remover<G> remover) {
+        this.id = id;
+        this.entry = entry;
+        this.cache = cache;
+        this.factory = factory;
+        this.context = context;
+        this.mutator = mutator;
+        this.remover = remover;
+    }
+
+    @Override
+    public G getId() {
+        return this.id;
+    }
+
+    private BeanGroupMemberKey<G, I> createKey(I id) {
+        return new BeanGroupMemberKey<>(this.id, id);
+    }
+
+    private T bean(I id) {
+        MarshalledValue<T, MarshallingContext> value = this.cache.get(this.createKey(id));
+        try {
+            return (value != null) ? value.get(this.context) : null;
+        } catch (IOException | ClassNotFoundException e) {
+            throw InfinispanEjbLogger.ROOT_LOGGER.deserializationFailure(e, this.createKey(id));
+        }
+    }
+
+    @Override
+    public Set<I> getBeans() {
+        return this.entry.getBeans();
+    }
+
+    @Override
+    public T getBean(I id, PassivationListener<T> listener) {
+        T bean = this.bean(id);
+        if (bean != null) {
+            this.entry.accessBean(id);
+            int usage = this.entry.incrementUsage(id);
+            if ((usage == 0) && (listener != null)) {
+                listener.postActivate(bean);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public T removeBean(I id) {
+        T bean = this.bean(id);
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(this.createKey(id));
+        this.entry.removeBean(id);
+        return bean;
+    }
+
+    @Override
+    public void addBean(I id, T bean) {
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(this.createKey(id), this.factory.createMarshalledValue(bean));
+        this.entry.addBean(id);
+        this.entry.incrementUsage(id);
+    }
+
+    @Override
+    public boolean releaseBean(I id, PassivationListener<T> listener) {
+        int usage = this.entry.decrementUsage(id);
+        boolean released = usage == 0;
+        if (released) {
+            this.prePassivate(id, listener);
+        }
+        return released;
+    }
+
+    @Override
+    public boolean isCloseable() {
+        return this.entry.totalUsage() == 0;
+    }
+
+    @Override
+    public void close() {
+        if (!this.entry.getBeans().isEmpty()) {
+            for (I id: this.entry.resetAccessedBeans()) {
+                BeanGroupMemberKey<G, I> key = this.createKey(id);
+                MarshalledValue<T, MarshallingContext> value = this.cache.get(key);
+                if (value != null) {
+                    this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).replace(key, value);
+                }
+            }
+            if (this.entry.resetMutated()) {
+                this.mutator.mutate();
+            }
+        } else {
+            this.remover.remove(this.id);
+        }
+    }
+
+    @Override
+    public void prePassivate(I id, PassivationListener<T> listener) {
+        if (listener != null) {
+            T bean = this.bean(id);
+            if (bean != null) {
+                listener.prePassivate(bean);
+            }
+        }
+    }
+
+    @Override
+    public void postActivate(I id, PassivationListener<T> listener) {
+        if (listener != null) {
+            T bean = this.bean(id);
+            if (bean != null) {
+                listener.postActivate(bean);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof BeanGroup)) return false;
+        @SuppressWarnings("unchecked")
+        BeanGroup<G, I, T> group = (BeanGroup<G, I, T>) object;
+        return this.id.equals(group.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.id.toString();
+    }
+}
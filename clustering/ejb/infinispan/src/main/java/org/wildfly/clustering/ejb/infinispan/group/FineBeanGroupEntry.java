@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The cache entry of a fine-grained bean group, i.e. an index of the beans of the group.
+ * The beans themselves are stored in separate cache entries.
+ *
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class FineBeanGroupEntry<I, T> extends AbstractBeanGroupEntry<I, T> {
+
+    private final Set<I> beans = Collections.newSetFromMap(new ConcurrentHashMap<I, Boolean>());
+    // The following are local only, and are never replicated
+    private final Set<I> accessedBeans = Collections.newSetFromMap(new ConcurrentHashMap<I, Boolean>());
+    private final AtomicBoolean mutated = new AtomicBoolean();
+
+    public FineBeanGroupEntry(Collection<I> beans) {
+        this.beans.addAll(beans);
+    }
+
+    /**
+     * Returns the identifiers of the beans of this group.
+     * @return a set of bean identifiers
+     */
+    public Set<I> getBeans() {
+        return Collections.unmodifiableSet(this.beans);
+    }
+
+    void addBean(I id) {
+        if (this.beans.add(id)) {
+            this.mutated.set(true);
+        }
+    }
+
+    void removeBean(I id) {
+        this.accessedBeans.remove(id);
+        if (this.beans.remove(id)) {
+            this.mutated.set(true);
+        }
+    }
+
+    /**
+     * Records that the specified bean was accessed, and thus needs to be replicated when its group is closed.
+     * @param id a bean identifier
+     */
+    void accessBean(I id) {
+        this.accessedBeans.add(id);
+    }
+
+    /**
+     * Returns, and then forgets, the beans accessed since the previous invocation of this method.
+     * @return a collection of bean identifiers
+     */
+    Collection<I> resetAccessedBeans() {
+        List<I> beans = new ArrayList<>(this.accessedBeans.size());
+        Iterator<I> accessedBeans = this.accessedBeans.iterator();
+        while (accessedBeans.hasNext()) {
+            beans.add(accessedBeans.next());
+            accessedBeans.remove();
+        }
+        return beans;
+    }
+
+    /**
+     * Indicates whether the beans of this group changed since the previous invocation of this method.
+     * @return true, if the bean index needs to be replicated, false otherwise.
+     */
+    boolean resetMutated() {
+        return this.mutated.compareAndSet(true, false);
+    }
+}
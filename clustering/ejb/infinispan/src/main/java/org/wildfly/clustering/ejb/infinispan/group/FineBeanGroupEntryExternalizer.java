@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.Externalizer;
+import org.jboss.ejb.client.SessionID;
+import org.wildfly.clustering.ejb.infinispan.SessionIDExternalizer;
+import org.wildfly.clustering.infinispan.spi.io.AbstractSimpleExternalizer;
+
+public class FineBeanGroupEntryExternalizer<T> extends AbstractSimpleExternalizer<FineBeanGroupEntry<SessionID, T>> {
+    private static final long serialVersionUID = -3592360421623706432L;
+
+    private final Externalizer<SessionID> externalizer = new SessionIDExternalizer();
+
+    public FineBeanGroupEntryExternalizer() {
+        this(FineBeanGroupEntry.class);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private FineBeanGroupEntryExternalizer(Class targetClass) {
+        super(targetClass);
+    }
+
+    @Override
+    public void writeObject(ObjectOutput output, FineBeanGroupEntry<SessionID, T> entry) throws IOException {
+        Set<SessionID> beans = entry.getBeans();
+        output.writeInt(beans.size());
+        for (SessionID id: beans) {
+            this.externalizer.writeObject(output, id);
+        }
+    }
+
+    @Override
+    public FineBeanGroupEntry<SessionID, T> readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        int size = input.readInt();
+        List<SessionID> beans = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            beans.add(this.externalizer.readObject(input));
+        }
+        return new FineBeanGroupEntry<>(beans);
+    }
+}
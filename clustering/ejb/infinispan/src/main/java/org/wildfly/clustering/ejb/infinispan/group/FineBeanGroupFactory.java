@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.util.Collections;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.CacheEntryMutator;
+import org.wildfly.clustering.ee.infinispan.Mutator;
+import org.wildfly.clustering.ejb.infinispan.BeanGroup;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupFactory;
+import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshalledValueFactory;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+
+/**
+ * Encapsulates the cache mapping strategy of a fine-grained bean group.
+ * The group entry holds only the identifiers of its beans, each of which is stored in a separate cache entry.
+ *
+ * @param <G> the group identifier type
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class FineBeanGroupFactory<G, I, T> implements BeanGroupFactory<G, I, T> {
+
+    private final Cache<G, BeanGroupEntry<I, T>> groupCache;
+    private final Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> beanCache;
+    private final MarshalledValueFactory<MarshallingContext> factory;
+    private final MarshallingContext context;
+
+    public FineBeanGroupFactory(Cache<G, BeanGroupEntry<I, T>> groupCache, Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> beanCache, MarshalledValueFactory<MarshallingContext> factory, MarshallingContext context) {
+        this.groupCache = groupCache;
+        this.beanCache = beanCache;
+        this.factory = factory;
+        this.context = context;
+    }
+
+    @Override
+    public BeanGroupEntry<I, T> createValue(G id, Void context) {
+        BeanGroupEntry<I, T> entry = new FineBeanGroupEntry<>(Collections.<I>emptySet());
+        BeanGroupEntry<I, T> existing = this.groupCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).putIfAbsent(id, entry);
+        return (existing != null) ? existing : entry;
+    }
+
+    @Override
+    public BeanGroupEntry<I, T> findValue(G id) {
+        return this.groupCache.get(id);
+    }
+
+    @Override
+    public void evict(G id) {
+        FineBeanGroupEntry<I, T> entry = this.findLocalValue(id);
+        if (entry != null) {
+            for (I beanId: entry.getBeans()) {
+                this.evictBean(id, beanId);
+            }
+        }
+        this.evictGroup(id);
+    }
+
+    @Override
+    public void evict(G id, I beanId) {
+        this.evictBean(id, beanId);
+        // Evict the group entry once none of its beans remain in memory
+        FineBeanGroupEntry<I, T> entry = this.findLocalValue(id);
+        if (entry != null) {
+            Cache<BeanGroupMemberKey<G, I>, MarshalledValue<T, MarshallingContext>> cache = this.beanCache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+            for (I member: entry.getBeans()) {
+                if (cache.containsKey(new BeanGroupMemberKey<>(id, member))) return;
+            }
+            this.evictGroup(id);
+        }
+    }
+
+    private FineBeanGroupEntry<I, T> findLocalValue(G id) {
+        return (FineBeanGroupEntry<I, T>) this.groupCache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).get(id);
+    }
+
+    private void evictBean(G id, I beanId) {
+        try {
+            this.beanCache.evict(new BeanGroupMemberKey<>(id, beanId));
+        } catch (Throwable e) {
+            InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, beanId);
+        }
+    }
+
+    private void evictGroup(G id) {
+        try {
+            this.groupCache.evict(id);
+        } catch (Throwable e) {
+            InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBeanGroup(e, id);
+        }
+    }
+
+    @Override
+    public void remove(G id) {
+        // Beans are removed from the cache individually, via BeanGroup.removeBean(...)
+        this.groupCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(id);
+    }
+
+    @Override
+    public BeanGroup<G, I, T> createGroup(G id, BeanGroupEntry<I, T> entry) {
+        Mutator mutator = new CacheEntryMutator<>(this.groupCache, id, entry);
+        return new FineBeanGroup<>(id, (FineBeanGroupEntry<I, T>) entry, this.beanCache, this.factory, this.context, mutator, this);
+    }
+}
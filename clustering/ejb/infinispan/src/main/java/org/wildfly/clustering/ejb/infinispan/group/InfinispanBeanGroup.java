@@ -29,7 +29,6 @@ import org.wildfly.clustering.ee.infinispan.Mutator;
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.ejb.PassivationListener;
 import org.wildfly.clustering.ejb.infinispan.BeanGroup;
-import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 import org.wildfly.clustering.marshalling.MarshallingContext;
 
@@ -45,12 +44,12 @@ import org.wildfly.clustering.marshalling.MarshallingContext;
 public class InfinispanBeanGroup<G, I, T> implements BeanGroup<G, I, T> {
 
     private final G id;
-    private final BeanGroupEntry<I, T> entry;
+    private final InfinispanBeanGroupEntry<I, T> entry;
     private final MarshallingContext context;
     private final Mutator mutator;
     private final Remover<G> remover;
 
-    public InfinispanBeanGroup(G id, BeanGroupEntry<I, T> entry, MarshallingContext context, Mutator mutator, Remover<G> remover) {
+    public InfinispanBeanGroup(G id, InfinispanBeanGroupEntry<I, T> entry, MarshallingContext context, Mutator mutator, Remover<G> remover) {
         this.id = id;
         this.entry = entry;
         this.context = context;
@@ -22,11 +22,7 @@
 package org.wildfly.clustering.ejb.infinispan.group;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
-import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
 import org.wildfly.clustering.marshalling.MarshalledValue;
 import org.wildfly.clustering.marshalling.MarshallingContext;
 
@@ -38,45 +34,19 @@ import org.wildfly.clustering.marshalling.MarshallingContext;
  * @param <I> the bean identifier type
  * @param <T> the bean type
  */
-public class InfinispanBeanGroupEntry<I, T> implements BeanGroupEntry<I, T> {
+public class InfinispanBeanGroupEntry<I, T> extends AbstractBeanGroupEntry<I, T> {
 
     private final MarshalledValue<Map<I, T>, MarshallingContext> beans;
-    private final ConcurrentMap<I, AtomicInteger> usage = new ConcurrentHashMap<>();
 
     public InfinispanBeanGroupEntry(MarshalledValue<Map<I, T>, MarshallingContext> beans) {
         this.beans = beans;
     }
 
-    @Override
+    /**
+     * Returns the beans in this group indexed via identifier.
+     * @return a marshalled value
+     */
     public MarshalledValue<Map<I, T>, MarshallingContext> getBeans() {
         return this.beans;
     }
-
-    @Override
-    public int incrementUsage(I id) {
-        AtomicInteger count = this.usage.get(id);
-        if (count == null) {
-            count = new AtomicInteger();
-            AtomicInteger old = this.usage.putIfAbsent(id, count);
-            if (old != null) {
-                count = old;
-            }
-        }
-        return count.getAndIncrement();
-    }
-
-    @Override
-    public int decrementUsage(I id) {
-        AtomicInteger count = this.usage.get(id);
-        return (count != null) ? count.decrementAndGet() : 0;
-    }
-
-    @Override
-    public int totalUsage() {
-        int total = 0;
-        for (AtomicInteger count: this.usage.values()) {
-            total += count.get();
-        }
-        return total;
-    }
 }
@@ -78,6 +78,12 @@ public class InfinispanBeanGroupFactory<G, I, T> implements BeanGroupFactory<G,
         }
     }
 
+    @Override
+    public void evict(G id, I beanId) {
+        // All beans of a group are stored within the same cache entry
+        this.evict(id);
+    }
+
     @Override
     public void remove(G id) {
         this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(id);
@@ -86,6 +92,6 @@ public class InfinispanBeanGroupFactory<G, I, T> implements BeanGroupFactory<G,
     @Override
     public BeanGroup<G, I, T> createGroup(final G id, final BeanGroupEntry<I, T> entry) {
         Mutator mutator = new CacheEntryMutator<>(this.cache, id, entry);
-        return new InfinispanBeanGroup<>(id, entry, this.context, mutator, this);
+        return new InfinispanBeanGroup<>(id, (InfinispanBeanGroupEntry<I, T>) entry, this.context, mutator, this);
     }
 }
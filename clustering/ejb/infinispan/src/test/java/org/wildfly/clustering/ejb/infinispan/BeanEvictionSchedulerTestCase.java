@@ -24,6 +24,8 @@ package org.wildfly.clustering.ejb.infinispan;
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.wildfly.clustering.dispatcher.Command;
@@ -80,4 +82,64 @@ public class BeanEvictionSchedulerTestCase {
 
         verify(dispatcher).close();
     }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test
+    public void cancel() throws Exception {
+        String name = "bean";
+        String canceledBeanId = "canceled";
+        String evictedBeanId = "evicted";
+        String activeBeanId = "active";
+        CommandDispatcherFactory dispatcherFactory = mock(CommandDispatcherFactory.class);
+        CommandDispatcher<BeanEvictionContext<String>> dispatcher = mock(CommandDispatcher.class);
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        PassivationConfiguration<Bean<Object, String, Object>> config = mock(PassivationConfiguration.class);
+        BeanPassivationConfiguration passivationConfig = mock(BeanPassivationConfiguration.class);
+        ArgumentCaptor<Command> capturedCommand = ArgumentCaptor.forClass(Command.class);
+
+        when(dispatcherFactory.createCommandDispatcher(same(name), any(BeanEvictionContext.class))).thenReturn(dispatcher);
+        when(config.getConfiguration()).thenReturn(passivationConfig);
+        when(passivationConfig.getMaxSize()).thenReturn(1);
+        when(batcher.createBatch()).thenReturn(batch);
+
+        try (BeanEvictionScheduler<String> scheduler = new BeanEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config)) {
+            scheduler.schedule(canceledBeanId);
+            scheduler.cancel(canceledBeanId);
+            scheduler.schedule(evictedBeanId);
+
+            verifyZeroInteractions(dispatcher);
+
+            scheduler.schedule(activeBeanId);
+
+            verify(dispatcher).submitOnCluster(capturedCommand.capture());
+
+            capturedCommand.getValue().execute(scheduler);
+
+            verify(evictor).evict(evictedBeanId);
+            verify(evictor, never()).evict(canceledBeanId);
+            verify(evictor, never()).evict(activeBeanId);
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test
+    public void batch() throws Exception {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        BeanEvictionContext<String> context = mock(BeanEvictionContext.class);
+
+        when(context.getBatcher()).thenReturn(batcher);
+        when(context.getEvictor()).thenReturn(evictor);
+        when(batcher.createBatch()).thenReturn(batch);
+
+        new BeanEvictionCommand<>(Arrays.asList("first", "second")).execute(context);
+
+        verify(evictor).evict("first");
+        verify(evictor).evict("second");
+        verify(batcher, times(1)).createBatch();
+        verify(batch).close();
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ee.infinispan.Mutator;
+import org.wildfly.clustering.ee.infinispan.Remover;
+import org.wildfly.clustering.ejb.PassivationListener;
+import org.wildfly.clustering.ejb.infinispan.BeanGroup;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshalledValueFactory;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+
+@SuppressWarnings("unchecked")
+public class FineBeanGroupTestCase {
+    private Integer id = 1;
+    private FineBeanGroupEntry<String, Object> entry = new FineBeanGroupEntry<>(Collections.<String>emptySet());
+    private Cache<BeanGroupMemberKey<Integer, String>, MarshalledValue<Object, MarshallingContext>> cache = mock(Cache.class);
+    private AdvancedCache<BeanGroupMemberKey<Integer, String>, MarshalledValue<Object, MarshallingContext>> advancedCache = mock(AdvancedCache.class);
+    private MarshalledValueFactory<MarshallingContext> factory = mock(MarshalledValueFactory.class);
+    private MarshallingContext context = mock(MarshallingContext.class);
+    private Mutator mutator = mock(Mutator.class);
+    private Remover<Integer> remover = mock(Remover.class);
+
+    private BeanGroup<Integer, String, Object> group = new FineBeanGroup<>(this.id, this.entry, this.cache, this.factory, this.context, this.mutator, this.remover);
+
+    @Before
+    public void init() {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+    }
+
+    @Test
+    public void getId() {
+        Assert.assertSame(this.id, this.group.getId());
+    }
+
+    @Test
+    public void addBean() {
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        String id = "id";
+        Object bean = new Object();
+
+        when(this.factory.createMarshalledValue(bean)).thenReturn(value);
+
+        this.group.addBean(id, bean);
+
+        verify(this.advancedCache).put(new BeanGroupMemberKey<>(this.id, id), value);
+        Assert.assertEquals(Collections.singleton(id), this.group.getBeans());
+        Assert.assertFalse(this.group.isCloseable());
+
+        Assert.assertTrue(this.group.releaseBean(id, null));
+        Assert.assertTrue(this.group.isCloseable());
+    }
+
+    @Test
+    public void getBean() throws ClassNotFoundException, IOException {
+        PassivationListener<Object> listener = mock(PassivationListener.class);
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        String id = "id";
+        Object bean = new Object();
+
+        when(this.cache.get(new BeanGroupMemberKey<>(this.id, id))).thenReturn(value);
+        when(value.get(this.context)).thenReturn(bean);
+
+        Object result = this.group.getBean(id, listener);
+
+        Assert.assertSame(bean, result);
+
+        verify(listener).postActivate(bean);
+
+        result = this.group.getBean(id, listener);
+
+        Assert.assertSame(bean, result);
+
+        verifyNoMoreInteractions(listener);
+
+        Assert.assertNull(this.group.getBean("missing", listener));
+    }
+
+    @Test
+    public void releaseBean() throws ClassNotFoundException, IOException {
+        PassivationListener<Object> listener = mock(PassivationListener.class);
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        String id = "id";
+        Object bean = new Object();
+
+        when(this.cache.get(new BeanGroupMemberKey<>(this.id, id))).thenReturn(value);
+        when(value.get(this.context)).thenReturn(bean);
+
+        this.group.getBean(id, null);
+        this.group.getBean(id, null);
+
+        Assert.assertFalse(this.group.releaseBean(id, listener));
+
+        verifyZeroInteractions(listener);
+
+        Assert.assertTrue(this.group.releaseBean(id, listener));
+
+        verify(listener).prePassivate(bean);
+    }
+
+    @Test
+    public void removeBean() throws ClassNotFoundException, IOException {
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        String id = "id";
+        Object bean = new Object();
+
+        this.group.addBean(id, bean);
+
+        when(this.cache.get(new BeanGroupMemberKey<>(this.id, id))).thenReturn(value);
+        when(value.get(this.context)).thenReturn(bean);
+
+        Object result = this.group.removeBean(id);
+
+        Assert.assertSame(bean, result);
+        verify(this.advancedCache).remove(new BeanGroupMemberKey<>(this.id, id));
+        Assert.assertTrue(this.group.getBeans().isEmpty());
+    }
+
+    @Test
+    public void close() throws ClassNotFoundException, IOException {
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> otherValue = mock(MarshalledValue.class);
+        BeanGroupMemberKey<Integer, String> key = new BeanGroupMemberKey<>(this.id, "id");
+        BeanGroupMemberKey<Integer, String> otherKey = new BeanGroupMemberKey<>(this.id, "other");
+        Object bean = new Object();
+
+        when(this.factory.createMarshalledValue(any())).thenReturn(value, otherValue);
+
+        this.group.addBean("id", bean);
+        this.group.addBean("other", new Object());
+        this.group.releaseBean("id", null);
+        this.group.releaseBean("other", null);
+
+        this.group.close();
+
+        // New beans were already written, only the bean index needs to replicate
+        verify(this.mutator).mutate();
+        verify(this.advancedCache, never()).replace(any(BeanGroupMemberKey.class), any(MarshalledValue.class));
+        verify(this.remover, never()).remove(this.id);
+
+        reset(this.mutator);
+
+        when(this.cache.get(key)).thenReturn(value);
+        when(this.cache.get(otherKey)).thenReturn(otherValue);
+        when(value.get(this.context)).thenReturn(bean);
+
+        this.group.getBean("id", null);
+        this.group.releaseBean("id", null);
+
+        this.group.close();
+
+        // Only the accessed bean replicates
+        verify(this.advancedCache).replace(key, value);
+        verify(this.advancedCache, never()).replace(otherKey, otherValue);
+        verify(this.mutator, never()).mutate();
+
+        this.group.close();
+
+        verify(this.advancedCache, times(1)).replace(key, value);
+
+        this.group.removeBean("id");
+        this.group.removeBean("other");
+
+        this.group.close();
+
+        verify(this.remover).remove(this.id);
+    }
+}
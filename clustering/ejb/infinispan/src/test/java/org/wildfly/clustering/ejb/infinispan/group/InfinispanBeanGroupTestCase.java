@@ -33,13 +33,12 @@ import org.wildfly.clustering.ee.infinispan.Mutator;
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.ejb.PassivationListener;
 import org.wildfly.clustering.ejb.infinispan.BeanGroup;
-import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
 import org.wildfly.clustering.marshalling.MarshalledValue;
 import org.wildfly.clustering.marshalling.MarshallingContext;
 
 public class InfinispanBeanGroupTestCase {
     private Integer id;
-    private BeanGroupEntry<String, Object> entry = mock(BeanGroupEntry.class);
+    private InfinispanBeanGroupEntry<String, Object> entry = mock(InfinispanBeanGroupEntry.class);
     private MarshallingContext context = mock(MarshallingContext.class);
     private Mutator mutator = mock(Mutator.class);
     private Remover<Integer> remover = mock(Remover.class);
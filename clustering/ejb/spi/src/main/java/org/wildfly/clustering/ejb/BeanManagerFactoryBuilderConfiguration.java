@@ -30,4 +30,10 @@ public interface BeanManagerFactoryBuilderConfiguration extends BeanPassivationC
 
     String getContainerName();
     String getCacheName();
+
+    /**
+     * Indicates whether the beans of a bean group are stored as separate cache entries.
+     * @return true, if bean groups are fine-grained, false otherwise
+     */
+    boolean isFineGrained();
 }
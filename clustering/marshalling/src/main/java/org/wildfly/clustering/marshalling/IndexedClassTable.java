@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link SimpleClassTable} that extends a set of well-known classes with a set of application classes, e.g. as found in the annotation index of a deployment.
+ * Application classes are ordered by name, so that tables created from the same classes on different nodes assign the same index to each class.
+ * Nodes whose tables differ cannot read each other's class indexes, so each table also defines a marshalling version derived from the names of its classes.
+ */
+public class IndexedClassTable extends SimpleClassTable {
+
+    private final int version;
+
+    public IndexedClassTable(Class<?>[] knownClasses, Collection<Class<?>> applicationClasses) {
+        this(combine(knownClasses, applicationClasses));
+    }
+
+    private IndexedClassTable(Class<?>[] classes) {
+        super(classes);
+        int hash = 1;
+        for (Class<?> targetClass : classes) {
+            hash = 31 * hash + targetClass.getName().hashCode();
+        }
+        // Indexed versions are negative, so they never collide with the positive versions of non-indexed configurations
+        this.version = hash | Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the marshalling version identifying the classes of this table.
+     * @return a negative marshalling version
+     */
+    public int getMarshallingVersion() {
+        return this.version;
+    }
+
+    private static Class<?>[] combine(Class<?>[] knownClasses, Collection<Class<?>> applicationClasses) {
+        List<Class<?>> known = Arrays.asList(knownClasses);
+        Map<String, Class<?>> sorted = new TreeMap<>();
+        for (Class<?> applicationClass : applicationClasses) {
+            if (!known.contains(applicationClass)) {
+                sorted.put(applicationClass.getName(), applicationClass);
+            }
+        }
+        List<Class<?>> classes = new ArrayList<>(knownClasses.length + sorted.size());
+        classes.addAll(known);
+        classes.addAll(sorted.values());
+        return classes.toArray(new Class<?>[classes.size()]);
+    }
+}
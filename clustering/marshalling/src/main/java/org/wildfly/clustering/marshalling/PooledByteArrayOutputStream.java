@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Byte array output stream whose buffer is reused by successive marshalling operations on the same thread.
+ * A stream is removed from its thread while in use, so that a value marshalled from within another marshalling operation uses a separate stream.
+ */
+final class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 512;
+    // Streams that grew beyond this size are discarded, so that an occasional large value does not pin its buffer to a thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<PooledByteArrayOutputStream> POOL = new ThreadLocal<>();
+
+    static PooledByteArrayOutputStream acquire() {
+        PooledByteArrayOutputStream output = POOL.get();
+        if (output == null) {
+            return new PooledByteArrayOutputStream();
+        }
+        POOL.set(null);
+        return output;
+    }
+
+    private PooledByteArrayOutputStream() {
+        super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Writes the specified value as 4 bytes, high byte first, per {@link java.io.DataOutput#writeInt(int)}.
+     * @param value an integer value
+     */
+    void writeInt(int value) {
+        this.write(value >>> 24);
+        this.write(value >>> 16);
+        this.write(value >>> 8);
+        this.write(value);
+    }
+
+    /**
+     * Returns this stream to the pool of the current thread.
+     */
+    void release() {
+        if (this.buf.length <= MAX_RETAINED_CAPACITY) {
+            this.reset();
+            POOL.set(this);
+        }
+    }
+}
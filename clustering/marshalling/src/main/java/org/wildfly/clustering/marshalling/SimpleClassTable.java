@@ -31,6 +31,7 @@ import org.jboss.marshalling.Unmarshaller;
 
 /**
  * Simple {@link ClassTable} implementation based on an array of recognized classes.
+ * Class indexes are written as unsigned variable-length integers, 7 bits per byte, so tables of up to 128 classes write a single byte per class.
  * @author Paul Ferraro
  */
 public class SimpleClassTable implements ClassTable {
@@ -41,7 +42,7 @@ public class SimpleClassTable implements ClassTable {
     public SimpleClassTable(Class<?>... classes) {
         this.classes = classes;
         for (int i = 0; i < classes.length; i++) {
-            this.writers.put(classes[i], new ByteWriter((byte) i));
+            this.writers.put(classes[i], new ByteWriter(encode(i)));
         }
     }
 
@@ -52,7 +53,30 @@ public class SimpleClassTable implements ClassTable {
 
     @Override
     public Class<?> readClass(Unmarshaller unmarshaller) throws IOException {
-        return this.classes[unmarshaller.readUnsignedByte()];
+        int index = 0;
+        int shift = 0;
+        int value = unmarshaller.readUnsignedByte();
+        while ((value & 0x80) != 0) {
+            index |= (value & 0x7F) << shift;
+            shift += 7;
+            value = unmarshaller.readUnsignedByte();
+        }
+        return this.classes[index | (value << shift)];
+    }
+
+    private static byte[] encode(int index) {
+        int size = 1;
+        for (int value = index >>> 7; value != 0; value >>>= 7) {
+            size += 1;
+        }
+        byte[] bytes = new byte[size];
+        int value = index;
+        for (int i = 0; i < size - 1; ++i) {
+            bytes[i] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size - 1] = (byte) value;
+        return bytes;
     }
 
     private static final class ByteWriter implements ClassTable.Writer {
@@ -23,7 +23,6 @@
 package org.wildfly.clustering.marshalling;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -32,8 +31,6 @@ import java.util.Arrays;
 
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
-import org.jboss.marshalling.SimpleDataInput;
-import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -68,18 +65,19 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         if (bytes != null) return bytes;
         if (this.object == null) return null;
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PooledByteArrayOutputStream output = PooledByteArrayOutputStream.acquire();
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
-            data.writeInt(version);
+        try {
+            output.writeInt(version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(data);
+                marshaller.start(Marshalling.createByteOutput(output));
                 marshaller.writeObject(this.object);
                 marshaller.finish();
                 return output.toByteArray();
             }
         } finally {
             setThreadContextClassLoader(loader);
+            output.release();
         }
     }
 
@@ -91,17 +89,16 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     public synchronized T get(MarshallingContext context) throws IOException, ClassNotFoundException {
         if (this.object == null) {
             this.context = context;
-            if (this.bytes != null) {
-                ByteArrayInputStream input = new ByteArrayInputStream(this.bytes);
+            byte[] bytes = this.bytes;
+            if (bytes != null) {
+                int version = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+                ByteArrayInputStream input = new ByteArrayInputStream(bytes, 4, bytes.length - 4);
                 ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-                try (SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input))) {
-                    int version = data.readInt();
-                    try (Unmarshaller unmarshaller = context.createUnmarshaller(version)) {
-                        unmarshaller.start(data);
-                        this.object = (T) unmarshaller.readObject();
-                        unmarshaller.finish();
-                        this.bytes = null; // Free up memory
-                    }
+                try (Unmarshaller unmarshaller = context.createUnmarshaller(version)) {
+                    unmarshaller.start(Marshalling.createByteInput(input));
+                    this.object = (T) unmarshaller.readObject();
+                    unmarshaller.finish();
+                    this.bytes = null; // Free up memory
                 } finally {
                     setThreadContextClassLoader(loader);
                 }
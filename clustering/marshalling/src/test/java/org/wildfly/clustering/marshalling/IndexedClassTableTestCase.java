@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link IndexedClassTable}.
+ */
+public class IndexedClassTableTestCase {
+
+    private static final Class<?>[] KNOWN_CLASSES = new Class<?>[] { Serializable.class, Externalizable.class };
+
+    @Test
+    public void version() {
+        IndexedClassTable table = new IndexedClassTable(KNOWN_CLASSES, Arrays.<Class<?>>asList(Address.class, Customer.class));
+        IndexedClassTable reordered = new IndexedClassTable(KNOWN_CLASSES, Arrays.<Class<?>>asList(Customer.class, Address.class, Serializable.class));
+        IndexedClassTable different = new IndexedClassTable(KNOWN_CLASSES, Arrays.<Class<?>>asList(Customer.class));
+
+        assertTrue(table.getMarshallingVersion() < 0);
+        assertEquals(table.getMarshallingVersion(), reordered.getMarshallingVersion());
+        assertFalse(table.getMarshallingVersion() == different.getMarshallingVersion());
+    }
+
+    @Test
+    public void marshal() throws IOException, ClassNotFoundException {
+        Customer customer = new Customer("customer", new Address("street", "city"));
+
+        MarshallingContext defaultContext = createContext(new SimpleClassTable(KNOWN_CLASSES), 1);
+        IndexedClassTable table = new IndexedClassTable(KNOWN_CLASSES, Arrays.<Class<?>>asList(Address.class, Customer.class));
+        MarshallingContext indexedContext = createContext(table, table.getMarshallingVersion());
+
+        byte[] defaultBytes = new SimpleMarshalledValue<>(customer, defaultContext).getBytes();
+        byte[] indexedBytes = new SimpleMarshalledValue<>(customer, indexedContext).getBytes();
+
+        assertTrue(indexedBytes.length < defaultBytes.length);
+
+        assertEquals(customer, replicate(new SimpleMarshalledValue<>(customer, indexedContext)).get(indexedContext));
+    }
+
+    @Test
+    public void largeTable() throws IOException, ClassNotFoundException {
+        // Pad the known classes, so that application classes require multi-byte indexes
+        Class<?>[] known = new Class<?>[200];
+        Arrays.fill(known, Serializable.class);
+        IndexedClassTable table = new IndexedClassTable(known, Arrays.<Class<?>>asList(Address.class, Customer.class));
+        MarshallingContext context = createContext(table, table.getMarshallingVersion());
+
+        Customer customer = new Customer("customer", new Address("street", "city"));
+        assertEquals(customer, replicate(new SimpleMarshalledValue<>(customer, context)).get(context));
+    }
+
+    @Test
+    public void nested() throws IOException, ClassNotFoundException {
+        IndexedClassTable table = new IndexedClassTable(KNOWN_CLASSES, Arrays.<Class<?>>asList(Address.class, Customer.class, Holder.class));
+        MarshallingContext context = createContext(table, table.getMarshallingVersion());
+
+        // The inner value is marshalled while the outer value is being marshalled on the same thread
+        Customer customer = new Customer("customer", new Address("street", "city"));
+        Holder holder = new Holder(new SimpleMarshalledValue<>(customer, context));
+        Holder result = replicate(new SimpleMarshalledValue<>(holder, context)).get(context);
+
+        assertEquals(customer, result.value.get(context));
+    }
+
+    private static MarshallingContext createContext(SimpleClassTable table, final int version) {
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassTable(table);
+        VersionedMarshallingConfiguration versionedConfiguration = new VersionedMarshallingConfiguration() {
+            @Override
+            public int getCurrentMarshallingVersion() {
+                return version;
+            }
+
+            @Override
+            public MarshallingConfiguration getMarshallingConfiguration(int requestedVersion) {
+                assertEquals(version, requestedVersion);
+                return configuration;
+            }
+        };
+        return new SimpleMarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), versionedConfiguration, Thread.currentThread().getContextClassLoader());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> SimpleMarshalledValue<V> replicate(SimpleMarshalledValue<V> value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(output)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            return (SimpleMarshalledValue<V>) in.readObject();
+        }
+    }
+
+    static class Address implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String street;
+        final String city;
+
+        Address(String street, String city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.street.hashCode() ^ this.city.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Address)) return false;
+            Address address = (Address) object;
+            return this.street.equals(address.street) && this.city.equals(address.city);
+        }
+    }
+
+    static class Customer implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String name;
+        final Address address;
+
+        Customer(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Customer)) return false;
+            Customer customer = (Customer) object;
+            return this.name.equals(customer.name) && this.address.equals(customer.address);
+        }
+    }
+
+    static class Holder implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final SimpleMarshalledValue<Customer> value;
+
+        Holder(SimpleMarshalledValue<Customer> value) {
+            this.value = value;
+        }
+    }
+}
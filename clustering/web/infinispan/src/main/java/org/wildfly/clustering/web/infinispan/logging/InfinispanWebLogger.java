@@ -80,4 +80,16 @@ public interface InfinispanWebLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10, value = "Failed to activate authentication for single sign on %s")
     void failedToActivateAuthentication(@Cause Throwable cause, String ssoId);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11, value = "Immutable session attribute class %s not found in deployment %s")
+    void immutableClassNotFound(String className, String deploymentName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 12, value = "Indexed session attribute class %s could not be loaded from deployment %s, and will be marshalled by name")
+    void indexedClassNotLoaded(@Cause Throwable cause, String className, String deploymentName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 13, value = "Failed to sweep expired sessions")
+    void failedToSweepExpiredSessions(@Cause Throwable cause);
 }
@@ -90,6 +90,8 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
     private final CommandDispatcherFactory dispatcherFactory;
     private final NodeFactory<Address> nodeFactory;
     private final int maxActiveSessions;
+    private final MutableDetector detector;
+    private final boolean batchedExpiration;
     private volatile Time defaultMaxInactiveInterval = new Time(30, TimeUnit.MINUTES);
     private final boolean persistent;
     private final Invoker invoker = new RetryingInvoker(0, 10, 100);
@@ -97,6 +99,7 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
 
     volatile CommandDispatcher<Scheduler> dispatcher;
     private volatile Scheduler scheduler;
+    private volatile SessionExpirationWheel expirationWheel;
 
     public InfinispanSessionManager(SessionFactory<V, L> factory, InfinispanSessionManagerConfiguration configuration) {
         this.factory = factory;
@@ -107,6 +110,8 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
         this.dispatcherFactory = configuration.getCommandDispatcherFactory();
         this.nodeFactory = configuration.getNodeFactory();
         this.maxActiveSessions = configuration.getMaxActiveSessions();
+        this.detector = configuration.getMutableDetector();
+        this.batchedExpiration = configuration.isBatchedExpiration();
         Configuration config = this.cache.getCacheConfiguration();
         // If cache is clustered or configured with a write-through cache store
         // then we need to trigger any HttpSessionActivationListeners per request
@@ -118,7 +123,13 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
     public void start() {
         this.identifierFactory.start();
         final List<Scheduler> schedulers = new ArrayList<>(2);
-        schedulers.add(new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory)));
+        if (this.batchedExpiration) {
+            DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+            this.expirationWheel = new SessionExpirationWheel(this.batcher, new ExpiredSessionRemover<>(this.factory), (dist != null) ? dist.getConsistentHash() : null);
+            schedulers.add(this.expirationWheel);
+        } else {
+            schedulers.add(new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory)));
+        }
         if (this.maxActiveSessions >= 0) {
             schedulers.add(new SessionEvictionScheduler(this.cache.getName() + ".eviction", this.factory, this.dispatcherFactory, this.maxActiveSessions));
         }
@@ -267,6 +278,23 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
         return this.getSessions(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
     }
 
+    @Override
+    public long getAttributeReadMutationCount() {
+        return this.detector.getMutableCount();
+    }
+
+    @Override
+    public int getExpirationBacklog() {
+        SessionExpirationWheel wheel = this.expirationWheel;
+        return (wheel != null) ? wheel.getBacklog() : 0;
+    }
+
+    @Override
+    public long getExpirationLag(TimeUnit unit) {
+        SessionExpirationWheel wheel = this.expirationWheel;
+        return (wheel != null) ? wheel.getLag(unit) : 0;
+    }
+
     @Override
     public Set<String> getLocalSessions() {
         // Omit remote sessions (i.e. when using DIST mode)
@@ -42,4 +42,6 @@ public interface InfinispanSessionManagerConfiguration {
     CommandDispatcherFactory getCommandDispatcherFactory();
     NodeFactory<Address> getNodeFactory();
     int getMaxActiveSessions();
+    MutableDetector getMutableDetector();
+    boolean isBatchedExpiration();
 }
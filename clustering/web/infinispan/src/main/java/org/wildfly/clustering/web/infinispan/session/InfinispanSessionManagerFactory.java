@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.infinispan.Cache;
@@ -45,6 +47,9 @@ import org.wildfly.clustering.group.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseDeltaSessionAttributesEntry;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseDeltaSessionFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionCacheEntry;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesCacheKey;
@@ -76,6 +81,8 @@ public class InfinispanSessionManagerFactory implements SessionManagerFactory<Tr
         final CommandDispatcherFactory dispatcherFactory = this.config.getCommandDispatcherFactory();
         final NodeFactory<Address> nodeFactory = this.config.getNodeFactory();
         final int maxActiveSessions = this.config.getSessionManagerConfiguration().getMaxActiveSessions();
+        final MutableDetector detector = this.createMutableDetector();
+        final boolean batchedExpiration = this.config.getSessionManagerConfiguration().isBatchedExpiration();
         InfinispanSessionManagerConfiguration config = new InfinispanSessionManagerConfiguration() {
             @Override
             public SessionContext getSessionContext() {
@@ -111,14 +118,52 @@ public class InfinispanSessionManagerFactory implements SessionManagerFactory<Tr
             public int getMaxActiveSessions() {
                 return maxActiveSessions;
             }
+
+            @Override
+            public MutableDetector getMutableDetector() {
+                return detector;
+            }
+
+            @Override
+            public boolean isBatchedExpiration() {
+                return batchedExpiration;
+            }
         };
-        return new InfinispanSessionManager<>(this.getSessionFactory(context, localContextFactory), config);
+        return new InfinispanSessionManager<>(this.getSessionFactory(context, localContextFactory, detector), config);
     }
 
-    private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory) {
+    private MutableDetector createMutableDetector() {
+        SessionManagerConfiguration config = this.config.getSessionManagerConfiguration();
+        ClassLoader loader = config.getModule().getClassLoader();
+        List<Class<?>> immutableTypes = new ArrayList<>();
+        for (String className : config.getImmutableClassNames()) {
+            try {
+                immutableTypes.add(loader.loadClass(className));
+            } catch (ClassNotFoundException e) {
+                InfinispanWebLogger.ROOT_LOGGER.immutableClassNotFound(className, config.getDeploymentName());
+            }
+        }
+        return new MutableDetector(immutableTypes);
+    }
+
+    private List<Class<?>> loadIndexedClasses() {
+        SessionManagerConfiguration config = this.config.getSessionManagerConfiguration();
+        ClassLoader loader = config.getModule().getClassLoader();
+        List<Class<?>> indexedClasses = new ArrayList<>(config.getIndexedClassNames().size());
+        for (String className : config.getIndexedClassNames()) {
+            try {
+                indexedClasses.add(loader.loadClass(className));
+            } catch (ClassNotFoundException | LinkageError e) {
+                InfinispanWebLogger.ROOT_LOGGER.indexedClassNotLoaded(e, className, config.getDeploymentName());
+            }
+        }
+        return indexedClasses;
+    }
+
+    private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory, MutableDetector detector) {
         SessionManagerConfiguration config = this.config.getSessionManagerConfiguration();
         Module module = config.getModule();
-        MarshallingContext marshallingContext = new SimpleMarshallingContextFactory().createMarshallingContext(new SessionAttributeMarshallingContext(module), module.getClassLoader());
+        MarshallingContext marshallingContext = new SimpleMarshallingContextFactory().createMarshallingContext(new SessionAttributeMarshallingContext(module, this.loadIndexedClasses()), module.getClassLoader());
         MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(marshallingContext);
 
         switch (config.getAttributePersistenceStrategy()) {
@@ -126,13 +171,19 @@ public class InfinispanSessionManagerFactory implements SessionManagerFactory<Tr
                 Cache<String, FineSessionCacheEntry<L>> sessionCache = this.getSessionCache();
                 Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache = this.config.getCache();
                 Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueMarshaller<>(factory, marshallingContext);
-                return new FineSessionFactory<>(sessionCache, attributeCache, context, marshaller, localContextFactory);
+                return new FineSessionFactory<>(sessionCache, attributeCache, context, marshaller, localContextFactory, detector);
             }
             case COARSE: {
                 Cache<String, CoarseSessionCacheEntry<L>> sessionCache = this.getSessionCache();
                 Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>> attributesCache = this.config.getCache();
                 Marshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller = new MarshalledValueMarshaller<>(factory, marshallingContext);
-                return new CoarseSessionFactory<>(sessionCache, attributesCache, context, marshaller, localContextFactory);
+                return new CoarseSessionFactory<>(sessionCache, attributesCache, context, marshaller, localContextFactory, detector);
+            }
+            case COARSE_DELTA: {
+                Cache<String, CoarseSessionCacheEntry<L>> sessionCache = this.getSessionCache();
+                Cache<SessionAttributesCacheKey, CoarseDeltaSessionAttributesEntry> attributesCache = this.config.getCache();
+                Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueMarshaller<>(factory, marshallingContext);
+                return new CoarseDeltaSessionFactory<>(sessionCache, attributesCache, context, marshaller, localContextFactory, detector);
             }
             default: {
                 // Impossible
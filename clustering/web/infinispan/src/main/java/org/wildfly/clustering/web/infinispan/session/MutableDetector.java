@@ -31,30 +31,46 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
 import java.security.Permission;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Currency;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import org.wildfly.clustering.web.annotation.Immutable;
 
 /**
  * Determines whether a given object is mutable.
+ * The classification of a given type is computed once and cached per class.
+ * The elements of immutable collection wrappers are tested on every call.
  * @author Paul Ferraro
  */
-public class MutableDetector {
+public class MutableDetector implements Predicate<Object> {
 
-    private static List<Object> IMMUTABLE_VALUES = Arrays.asList(
-            null,
-            Collections.EMPTY_LIST,
-            Collections.EMPTY_MAP,
-            Collections.EMPTY_SET
-    );
-
-    private static List<Class<?>> IMMUTABLE_TYPES = Arrays.<Class<?>>asList(
+    private static final List<Class<?>> IMMUTABLE_TYPES = Arrays.<Class<?>>asList(
             BigDecimal.class,
             BigInteger.class,
             Boolean.class,
@@ -62,16 +78,25 @@ public class MutableDetector {
             Character.class,
             Currency.class,
             Double.class,
+            Duration.class,
             Enum.class, // Strictly speaking, one could implement a mutable enum, but that would just be weird.
             File.class,
             Float.class,
             InetAddress.class,
             InetSocketAddress.class,
+            Instant.class,
             Integer.class,
+            LocalDate.class,
+            LocalDateTime.class,
+            LocalTime.class,
             Locale.class,
             Long.class,
             MathContext.class,
+            MonthDay.class,
+            OffsetDateTime.class,
+            OffsetTime.class,
             Path.class,
+            Period.class,
             Permission.class,
             Short.class,
             StackTraceElement.class,
@@ -79,20 +104,127 @@ public class MutableDetector {
             TimeZone.class, // Strictly speaking, this class is mutable, although in practice it is never mutated.
             URI.class,
             URL.class,
-            UUID.class
+            UUID.class,
+            Year.class,
+            YearMonth.class,
+            ZoneId.class,
+            ZonedDateTime.class
+    );
+
+    // Implementation classes of the empty, singleton, and unmodifiable collections returned by java.util.Collections.
+    // These are immutable only if their elements are immutable, so their elements are tested on every call.
+    // Like the empty collections, the unmodifiable views are assumed not to be modified via their backing collection.
+    private static final List<Class<?>> IMMUTABLE_COLLECTION_TYPES = Arrays.<Class<?>>asList(
+            Collections.EMPTY_LIST.getClass(),
+            Collections.EMPTY_SET.getClass(),
+            Collections.singleton(null).getClass(),
+            Collections.singletonList(null).getClass(),
+            Collections.unmodifiableCollection(Collections.emptyList()).getClass(),
+            Collections.unmodifiableList(new ArrayList<>()).getClass(),
+            Collections.unmodifiableList(new LinkedList<>()).getClass(),
+            Collections.unmodifiableSet(Collections.emptySet()).getClass(),
+            Collections.unmodifiableSortedSet(new TreeSet<>()).getClass(),
+            Collections.unmodifiableNavigableSet(new TreeSet<>()).getClass()
+    );
+
+    private static final List<Class<?>> IMMUTABLE_MAP_TYPES = Arrays.<Class<?>>asList(
+            Collections.EMPTY_MAP.getClass(),
+            Collections.singletonMap(null, null).getClass(),
+            Collections.unmodifiableMap(Collections.emptyMap()).getClass(),
+            Collections.unmodifiableSortedMap(new TreeMap<>()).getClass(),
+            Collections.unmodifiableNavigableMap(new TreeMap<>()).getClass()
     );
 
+    private enum Classification {
+        MUTABLE,
+        IMMUTABLE,
+        // Immutable if all elements are immutable
+        COLLECTION,
+        // Immutable if all keys and values are immutable
+        MAP
+    }
+
+    private static final MutableDetector DEFAULT = new MutableDetector(Collections.<Class<?>>emptyList());
+
+    /**
+     * Indicates whether the specified object is mutable, using only the built-in immutable types.
+     * @param object an object
+     * @return true, if the object is mutable, false otherwise.
+     */
     public static boolean isMutable(Object object) {
-        for (Object value: IMMUTABLE_VALUES) {
-            if (object == value) return false;
+        return DEFAULT.isMutableObject(object);
+    }
+
+    private final LongAdder mutableCount = new LongAdder();
+    private final ClassValue<Classification> classifications;
+
+    /**
+     * Creates a mutable detector that also treats the specified types, and their subtypes, as immutable.
+     * @param immutableTypes a collection of additional immutable types
+     */
+    public MutableDetector(final Collection<Class<?>> immutableTypes) {
+        this.classifications = new ClassValue<Classification>() {
+            @Override
+            protected Classification computeValue(Class<?> targetClass) {
+                if (IMMUTABLE_COLLECTION_TYPES.contains(targetClass)) return Classification.COLLECTION;
+                if (IMMUTABLE_MAP_TYPES.contains(targetClass)) return Classification.MAP;
+                return (isImmutable(targetClass, IMMUTABLE_TYPES) || isImmutable(targetClass, immutableTypes) || targetClass.isAnnotationPresent(Immutable.class)) ? Classification.IMMUTABLE : Classification.MUTABLE;
+            }
+        };
+    }
+
+    private static boolean isImmutable(Class<?> targetClass, Collection<Class<?>> immutableTypes) {
+        for (Class<?> immutableClass: immutableTypes) {
+            if (immutableClass.isAssignableFrom(targetClass)) return true;
         }
-        for (Class<?> immutableClass: IMMUTABLE_TYPES) {
-            if (immutableClass.isInstance(object)) return false;
+        return false;
+    }
+
+    /**
+     * Indicates whether the specified object is mutable.
+     * Since session attributes are only tested when read, the number of objects found to be mutable
+     * is the number of attribute reads that triggered replication, see {@link #getMutableCount()}.
+     * @param object an object
+     * @return true, if the object is mutable, false otherwise.
+     */
+    @Override
+    public boolean test(Object object) {
+        if (this.isMutableObject(object)) {
+            this.mutableCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isMutableObject(Object object) {
+        if (object == null) return false;
+        switch (this.classifications.get(object.getClass())) {
+            case IMMUTABLE: {
+                return false;
+            }
+            case COLLECTION: {
+                for (Object element : (Collection<?>) object) {
+                    if (this.isMutableObject(element)) return true;
+                }
+                return false;
+            }
+            case MAP: {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    if (this.isMutableObject(entry.getKey()) || this.isMutableObject(entry.getValue())) return true;
+                }
+                return false;
+            }
+            default: {
+                return true;
+            }
         }
-        return !object.getClass().isAnnotationPresent(Immutable.class);
     }
 
-    private MutableDetector() {
-        // Hide
+    /**
+     * Returns the number of objects that this detector found to be mutable.
+     * @return a count of mutable objects
+     */
+    public long getMutableCount() {
+        return this.mutableCount.sum();
     }
-}
\ No newline at end of file
+}
@@ -23,12 +23,15 @@ package org.wildfly.clustering.web.infinispan.session;
 
 import java.io.Externalizable;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.marshalling.MarshallingConfiguration;
 import org.jboss.marshalling.ModularClassResolver;
 import org.jboss.modules.Module;
+import org.wildfly.clustering.marshalling.IndexedClassTable;
 import org.wildfly.clustering.marshalling.SimpleClassTable;
 import org.wildfly.clustering.marshalling.VersionedMarshallingConfiguration;
 
@@ -37,20 +40,43 @@ import org.wildfly.clustering.marshalling.VersionedMarshallingConfiguration;
  * @author Paul Ferraro
  */
 public class SessionAttributeMarshallingContext implements VersionedMarshallingConfiguration {
-    private static final int CURRENT_VERSION = 1;
+    private static final int DEFAULT_VERSION = 1;
+    private static final Class<?>[] KNOWN_CLASSES = new Class<?>[] { Serializable.class, Externalizable.class };
 
     private final Map<Integer, MarshallingConfiguration> configurations = new ConcurrentHashMap<>();
+    private final int currentVersion;
 
     public SessionAttributeMarshallingContext(Module module) {
+        this(module, Collections.<Class<?>>emptySet());
+    }
+
+    /**
+     * Creates a marshalling context that writes the specified application classes by index, rather than by name.
+     * The default version remains readable, so that values written by nodes without these classes can still be read.
+     * @param module the module of a deployment
+     * @param indexedClasses a collection of application classes
+     */
+    public SessionAttributeMarshallingContext(Module module, Collection<Class<?>> indexedClasses) {
+        ModularClassResolver resolver = ModularClassResolver.getInstance(module.getModuleLoader());
         MarshallingConfiguration configuration = new MarshallingConfiguration();
-        configuration.setClassResolver(ModularClassResolver.getInstance(module.getModuleLoader()));
-        configuration.setClassTable(new SimpleClassTable(Serializable.class, Externalizable.class));
-        this.configurations.put(CURRENT_VERSION, configuration);
+        configuration.setClassResolver(resolver);
+        configuration.setClassTable(new SimpleClassTable(KNOWN_CLASSES));
+        this.configurations.put(DEFAULT_VERSION, configuration);
+        if (indexedClasses.isEmpty()) {
+            this.currentVersion = DEFAULT_VERSION;
+        } else {
+            IndexedClassTable table = new IndexedClassTable(KNOWN_CLASSES, indexedClasses);
+            MarshallingConfiguration indexedConfiguration = new MarshallingConfiguration();
+            indexedConfiguration.setClassResolver(resolver);
+            indexedConfiguration.setClassTable(table);
+            this.currentVersion = table.getMarshallingVersion();
+            this.configurations.put(this.currentVersion, indexedConfiguration);
+        }
     }
 
     @Override
     public int getCurrentMarshallingVersion() {
-        return CURRENT_VERSION;
+        return this.currentVersion;
     }
 
     @Override
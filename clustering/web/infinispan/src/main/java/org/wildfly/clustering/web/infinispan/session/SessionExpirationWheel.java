@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSession;
+
+/**
+ * Session expiration scheduler that groups sessions into buckets by expiration time, rather than scheduling a task per session.
+ * A single thread periodically sweeps the buckets that are due, expiring their sessions in batches.
+ * Sessions are indexed by cache segment, so that sessions no longer owned by this node after a topology change
+ * can be cancelled per segment rather than per session.
+ * Without a consistent hash, e.g. for a replicated cache, sessions are cancelled per session.
+ */
+public class SessionExpirationWheel implements Scheduler {
+
+    private static final long DEFAULT_RESOLUTION = 1000L;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Batcher<TransactionBatch> batcher;
+    private final Remover<String> remover;
+    private final ConsistentHash hash;
+    private final long resolution;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+    // Maps each scheduled session to the tick of its bucket, per segment
+    private final List<Map<String, Long>> segments;
+    // Buckets of session identifiers, by tick, i.e. expiration time / resolution.  Buckets may contain cancelled sessions.
+    private final ConcurrentNavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long sweepingTick = Long.MAX_VALUE;
+
+    public SessionExpirationWheel(Batcher<TransactionBatch> batcher, Remover<String> remover, ConsistentHash hash) {
+        this(batcher, remover, hash, DEFAULT_RESOLUTION, DEFAULT_BATCH_SIZE);
+    }
+
+    SessionExpirationWheel(Batcher<TransactionBatch> batcher, Remover<String> remover, ConsistentHash hash, long resolution, int batchSize) {
+        this.batcher = batcher;
+        this.remover = remover;
+        this.hash = hash;
+        this.resolution = resolution;
+        this.batchSize = batchSize;
+        int segments = (hash != null) ? hash.getNumSegments() : 1;
+        this.segments = new ArrayList<>(segments);
+        for (int i = 0; i < segments; ++i) {
+            this.segments.add(new ConcurrentHashMap<String, Long>());
+        }
+        this.executor = createScheduledExecutor(createThreadFactory());
+        this.executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    SessionExpirationWheel.this.sweep();
+                } catch (Throwable e) {
+                    // Never let a failure cancel subsequent sweeps
+                    InfinispanWebLogger.ROOT_LOGGER.failedToSweepExpiredSessions(e);
+                }
+            }
+        }, resolution, resolution, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        return doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            @Override
+            public ThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup(SessionExpirationWheel.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+            }
+        });
+    }
+
+    private static ScheduledExecutorService createScheduledExecutor(ThreadFactory factory) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, factory);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    private Map<String, Long> index(String id) {
+        return this.segments.get((this.hash != null) ? this.hash.getSegment(id) : 0);
+    }
+
+    @Override
+    public void schedule(ImmutableSession session) {
+        long timeout = session.getMetaData().getMaxInactiveInterval(TimeUnit.MILLISECONDS);
+        if (timeout > 0) {
+            String id = session.getId();
+            long expiration = session.getMetaData().getLastAccessedTime().getTime() + timeout;
+            // Round up, so that a session is never swept before it expires
+            Long tick = (expiration + this.resolution - 1) / this.resolution;
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", id, timeout);
+            Long previousTick = this.index(id).put(id, tick);
+            if ((previousTick != null) && !previousTick.equals(tick)) {
+                this.removeFromBucket(id, previousTick);
+            }
+            this.addToCurrentBucket(id, tick);
+        }
+    }
+
+    private void addToCurrentBucket(String id, Long tick) {
+        Set<String> bucket = this.addToBucket(id, tick);
+        // If the bucket was concurrently swept, add the session to a new bucket for the same tick
+        while (this.buckets.get(tick) != bucket) {
+            bucket = this.addToBucket(id, tick);
+        }
+    }
+
+    private Set<String> addToBucket(String id, Long tick) {
+        Set<String> bucket = this.buckets.get(tick);
+        if (bucket == null) {
+            Set<String> newBucket = ConcurrentHashMap.newKeySet();
+            bucket = this.buckets.putIfAbsent(tick, newBucket);
+            if (bucket == null) {
+                bucket = newBucket;
+            }
+        }
+        bucket.add(id);
+        return bucket;
+    }
+
+    private void removeFromBucket(String id, Long tick) {
+        Set<String> bucket = this.buckets.get(tick);
+        if (bucket != null) {
+            bucket.remove(id);
+        }
+    }
+
+    @Override
+    public void cancel(String sessionId) {
+        Long tick = this.index(sessionId).remove(sessionId);
+        if (tick != null) {
+            this.removeFromBucket(sessionId, tick);
+        }
+    }
+
+    @Override
+    public void cancel(Locality locality) {
+        // Any sessions left in buckets are ignored when swept
+        if (this.hash == null) {
+            // Without a consistent hash, all sessions share a single index, but not necessarily the same primary owner
+            Iterator<String> sessionIds = this.segments.get(0).keySet().iterator();
+            while (sessionIds.hasNext()) {
+                if (!locality.isLocal(sessionIds.next())) {
+                    sessionIds.remove();
+                }
+            }
+            return;
+        }
+        for (Map<String, Long> index : this.segments) {
+            // All sessions within a segment share the same primary owner, so it suffices to test any one of them
+            Iterator<String> sessionIds = index.keySet().iterator();
+            if (sessionIds.hasNext() && !locality.isLocal(sessionIds.next())) {
+                index.clear();
+            }
+        }
+    }
+
+    void sweep() {
+        long tick = System.currentTimeMillis() / this.resolution;
+        // Sessions that fail to expire are retried by the next sweep
+        Long retryTick = tick + 1;
+        try {
+            Map.Entry<Long, Set<String>> entry = this.buckets.firstEntry();
+            while ((entry != null) && (entry.getKey() <= tick) && !this.executor.isShutdown()) {
+                Long bucketTick = entry.getKey();
+                Set<String> bucket = entry.getValue();
+                this.sweepingTick = bucketTick;
+                this.buckets.remove(bucketTick, bucket);
+                this.pending.set(bucket.size());
+                List<String> sessionIds = new ArrayList<>(this.batchSize);
+                try {
+                    for (String id : bucket) {
+                        if (this.index(id).remove(id, bucketTick)) {
+                            sessionIds.add(id);
+                            if (sessionIds.size() == this.batchSize) {
+                                this.expire(sessionIds, retryTick);
+                                sessionIds.clear();
+                            }
+                        }
+                    }
+                    if (!sessionIds.isEmpty()) {
+                        this.expire(sessionIds, retryTick);
+                        sessionIds.clear();
+                    }
+                } catch (RuntimeException | Error e) {
+                    // Restore the sessions of this bucket that were not yet expired
+                    for (String id : sessionIds) {
+                        this.reschedule(id, retryTick);
+                    }
+                    for (String id : bucket) {
+                        if (this.index(id).replace(id, bucketTick, retryTick)) {
+                            this.addToCurrentBucket(id, retryTick);
+                        }
+                    }
+                    throw e;
+                }
+                entry = this.buckets.firstEntry();
+            }
+        } finally {
+            this.sweepingTick = Long.MAX_VALUE;
+            this.pending.set(0);
+        }
+    }
+
+    private void expire(List<String> sessionIds, Long retryTick) {
+        boolean success = false;
+        try {
+            Batch batch = this.batcher.createBatch();
+            try {
+                for (String id : sessionIds) {
+                    InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", id);
+                    this.remover.remove(id);
+                }
+            } catch (RuntimeException | Error e) {
+                batch.discard();
+                throw e;
+            }
+            // Commit may also fail, e.g. on rollback
+            batch.close();
+            success = true;
+        } catch (RuntimeException | Error e) {
+            // Retry each session in its own batch below, so that a single failure does not prevent the others from expiring
+            InfinispanWebLogger.ROOT_LOGGER.tracef(e, "Failed to expire batch of %d sessions", sessionIds.size());
+        }
+        if (!success) {
+            for (String id : sessionIds) {
+                if (!this.expire(id)) {
+                    this.reschedule(id, retryTick);
+                }
+            }
+        }
+        this.pending.addAndGet(-sessionIds.size());
+    }
+
+    private boolean expire(String id) {
+        try {
+            Batch batch = this.batcher.createBatch();
+            try {
+                this.remover.remove(id);
+            } catch (RuntimeException | Error e) {
+                batch.discard();
+                throw e;
+            }
+            batch.close();
+            return true;
+        } catch (RuntimeException | Error e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, id);
+            return false;
+        }
+    }
+
+    private void reschedule(String id, Long tick) {
+        // Skip sessions that were concurrently rescheduled
+        if (this.index(id).putIfAbsent(id, tick) == null) {
+            this.addToCurrentBucket(id, tick);
+        }
+    }
+
+    /**
+     * Returns the number of sessions that are due to expire, but have not yet been expired.
+     * This may include sessions that were cancelled after their bucket became due.
+     * @return a number of sessions
+     */
+    public int getBacklog() {
+        int backlog = Math.max(this.pending.get(), 0);
+        for (Set<String> bucket : this.buckets.headMap(System.currentTimeMillis() / this.resolution, true).values()) {
+            backlog += bucket.size();
+        }
+        return backlog;
+    }
+
+    /**
+     * Returns how far the expiration of sessions lags behind their expiration time.
+     * @param unit the unit of the returned duration
+     * @return the duration between the expiration time of the oldest session due to expire and the current time
+     */
+    public long getLag(TimeUnit unit) {
+        long tick = this.sweepingTick;
+        if (tick == Long.MAX_VALUE) {
+            Map.Entry<Long, Set<String>> entry = this.buckets.firstEntry();
+            if (entry == null) return 0;
+            tick = entry.getKey();
+        }
+        long lag = System.currentTimeMillis() - (tick * this.resolution);
+        return (lag > 0) ? unit.convert(lag, TimeUnit.MILLISECONDS) : 0;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Map<String, Long> index : this.segments) {
+            index.clear();
+        }
+        this.buckets.clear();
+    }
+}
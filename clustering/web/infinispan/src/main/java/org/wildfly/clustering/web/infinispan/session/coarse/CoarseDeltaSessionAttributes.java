@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.Marshaller;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+import org.wildfly.clustering.web.infinispan.session.MutableDetector;
+import org.wildfly.clustering.web.session.SessionAttributes;
+
+/**
+ * Exposes session attributes for a coarse granularity session that replicates only the attributes that changed.
+ * Each attribute set, removed or mutably read is applied to the cache entry as a {@link SessionAttributesDelta}.
+ */
+public class CoarseDeltaSessionAttributes extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final Map<String, Object> attributes;
+    private final SessionAttributesCacheKey key;
+    private final Cache<SessionAttributesCacheKey, CoarseDeltaSessionAttributesEntry> cache;
+    private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller;
+    private final MutableDetector detector;
+    // Values already applied during this request; since they are marshalled lazily, later changes to them are replicated too
+    private final Map<String, Object> mutations = new HashMap<>();
+
+    public CoarseDeltaSessionAttributes(Map<String, Object> attributes, SessionAttributesCacheKey key, Cache<SessionAttributesCacheKey, CoarseDeltaSessionAttributesEntry> cache, Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, MutableDetector detector) {
+        super(attributes);
+        this.attributes = attributes;
+        this.key = key;
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.detector = detector;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        if (value != null) {
+            this.mutate(name, null);
+        }
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        Object old = this.attributes.put(name, value);
+        this.mutate(name, value);
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        if (this.detector.test(value)) {
+            this.mutate(name, value);
+        }
+        return value;
+    }
+
+    private void mutate(String name, Object value) {
+        if (this.mutations.containsKey(name) && (this.mutations.get(name) == value)) return;
+        this.mutations.put(name, value);
+        MarshalledValue<Object, MarshallingContext> marshalledValue = (value != null) ? this.marshaller.write(value) : null;
+        this.cache.getAdvancedCache().applyDelta(this.key, new SessionAttributesDelta(Collections.singletonMap(name, marshalledValue)), this.key);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+
+import org.wildfly.clustering.infinispan.spi.io.AbstractSimpleExternalizer;
+import org.wildfly.clustering.infinispan.spi.io.SimpleMarshalledValueExternalizer;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+import org.wildfly.clustering.marshalling.SimpleMarshalledValue;
+
+/**
+ * Externalizer for {@link CoarseDeltaSessionAttributesEntry}.
+ */
+public class CoarseDeltaSessionAttributesEntryExternalizer extends AbstractSimpleExternalizer<CoarseDeltaSessionAttributesEntry> {
+    private static final long serialVersionUID = 2516290871286418427L;
+
+    private static final SimpleMarshalledValueExternalizer EXTERNALIZER = new SimpleMarshalledValueExternalizer();
+
+    public CoarseDeltaSessionAttributesEntryExternalizer() {
+        super(CoarseDeltaSessionAttributesEntry.class);
+    }
+
+    @Override
+    public void writeObject(ObjectOutput output, CoarseDeltaSessionAttributesEntry entry) throws IOException {
+        Map<String, MarshalledValue<Object, MarshallingContext>> attributes = entry.getAttributes();
+        output.writeInt(attributes.size());
+        for (Map.Entry<String, MarshalledValue<Object, MarshallingContext>> attribute : attributes.entrySet()) {
+            output.writeUTF(attribute.getKey());
+            EXTERNALIZER.writeObject(output, (SimpleMarshalledValue<?>) attribute.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CoarseDeltaSessionAttributesEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        CoarseDeltaSessionAttributesEntry entry = new CoarseDeltaSessionAttributesEntry();
+        Map<String, MarshalledValue<Object, MarshallingContext>> attributes = entry.getAttributes();
+        int size = input.readInt();
+        for (int i = 0; i < size; ++i) {
+            String name = input.readUTF();
+            attributes.put(name, EXTERNALIZER.readObject(input));
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.CacheEntryMutator;
+import org.wildfly.clustering.ee.infinispan.MutableCacheEntry;
+import org.wildfly.clustering.ee.infinispan.Mutator;
+import org.wildfly.clustering.marshalling.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.Marshaller;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+import org.wildfly.clustering.web.LocalContextFactory;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.InfinispanImmutableSession;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSession;
+import org.wildfly.clustering.web.infinispan.session.MutableDetector;
+import org.wildfly.clustering.web.infinispan.session.SessionFactory;
+import org.wildfly.clustering.web.infinispan.session.SimpleSessionMetaData;
+import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+import org.wildfly.clustering.web.session.Session;
+import org.wildfly.clustering.web.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionContext;
+import org.wildfly.clustering.web.session.SessionMetaData;
+
+/**
+ * {@link SessionFactory} for coarse granularity sessions that replicate only the attributes changed by a request.
+ * Like {@link CoarseSessionFactory}, a given session is mapped to 2 co-located cache entries, one containing the session meta data
+ * and local context and the other containing all session attributes, but each attribute is marshalled separately,
+ * and changes are applied to the attributes entry as deltas.
+ */
+public class CoarseDeltaSessionFactory<L> implements SessionFactory<CoarseSessionEntry<L>, L> {
+
+    private final SessionContext context;
+    private final Cache<String, CoarseSessionCacheEntry<L>> sessionCache;
+    private final Cache<SessionAttributesCacheKey, CoarseDeltaSessionAttributesEntry> attributesCache;
+    private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller;
+    private final LocalContextFactory<L> localContextFactory;
+    private final MutableDetector detector;
+
+    public CoarseDeltaSessionFactory(Cache<String, CoarseSessionCacheEntry<L>> sessionCache, Cache<SessionAttributesCacheKey, CoarseDeltaSessionAttributesEntry> attributesCache, SessionContext context, Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory, MutableDetector detector) {
+        this.sessionCache = sessionCache;
+        this.attributesCache = attributesCache;
+        this.context = context;
+        this.marshaller = marshaller;
+        this.localContextFactory = localContextFactory;
+        this.detector = detector;
+    }
+
+    @Override
+    public Session<L> createSession(String id, CoarseSessionEntry<L> entry) {
+        MutableCacheEntry<CoarseSessionCacheEntry<L>> sessionEntry = entry.getMutableSessionEntry();
+        SessionMetaData metaData = sessionEntry.getValue().getMetaData();
+        SessionAttributes attributes = new CoarseDeltaSessionAttributes(entry.getMutableAttributesEntry().getValue(), new SessionAttributesCacheKey(id), this.attributesCache, this.marshaller, this.detector);
+        return new InfinispanSession<>(id, metaData, attributes, sessionEntry.getValue().getLocalContext(), this.localContextFactory, this.context, sessionEntry.getMutator(), this);
+    }
+
+    @Override
+    public ImmutableSession createImmutableSession(String id, CoarseSessionEntry<L> entry) {
+        ImmutableSessionMetaData metaData = entry.getMutableSessionEntry().getValue().getMetaData();
+        ImmutableSessionAttributes attributes = new CoarseImmutableSessionAttributes(entry.getMutableAttributesEntry().getValue());
+        return new InfinispanImmutableSession(id, metaData, attributes, this.context);
+    }
+
+    @Override
+    public CoarseSessionEntry<L> createValue(String id, Void context) {
+        CoarseSessionCacheEntry<L> entry = new CoarseSessionCacheEntry<>(new SimpleSessionMetaData());
+        CoarseSessionCacheEntry<L> existingEntry = this.sessionCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).putIfAbsent(id, entry);
+        SessionAttributesCacheKey key = new SessionAttributesCacheKey(id);
+        CoarseDeltaSessionAttributesEntry value = new CoarseDeltaSessionAttributesEntry();
+        MutableCacheEntry<Map<String, Object>> attributesEntry = new MutableCacheEntry<Map<String, Object>>(new HashMap<String, Object>(), Mutator.PASSIVE);
+        if (existingEntry == null) {
+            this.attributesCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(key, value);
+            MutableCacheEntry<CoarseSessionCacheEntry<L>> sessionEntry = new MutableCacheEntry<>(entry, Mutator.PASSIVE);
+            return new CoarseSessionEntry<>(sessionEntry, attributesEntry);
+        }
+        MutableCacheEntry<CoarseSessionCacheEntry<L>> sessionEntry = new MutableCacheEntry<>(existingEntry, new CacheEntryMutator<>(this.sessionCache, id, existingEntry));
+        CoarseDeltaSessionAttributesEntry existingValue = this.attributesCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).putIfAbsent(key, value);
+        if (existingValue != null) {
+            try {
+                return new CoarseSessionEntry<>(sessionEntry, new MutableCacheEntry<>(this.read(existingValue), Mutator.PASSIVE));
+            } catch (InvalidSerializedFormException e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToActivateSession(e, id);
+                this.attributesCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(key, value);
+            }
+        }
+        return new CoarseSessionEntry<>(sessionEntry, attributesEntry);
+    }
+
+    @Override
+    public CoarseSessionEntry<L> findValue(String id) {
+        CoarseSessionCacheEntry<L> entry = this.sessionCache.get(id);
+        if (entry != null) {
+            MutableCacheEntry<CoarseSessionCacheEntry<L>> sessionEntry = new MutableCacheEntry<>(entry, new CacheEntryMutator<>(this.sessionCache, id, entry));
+            CoarseDeltaSessionAttributesEntry value = this.attributesCache.get(new SessionAttributesCacheKey(id));
+            if (value != null) {
+                try {
+                    return new CoarseSessionEntry<>(sessionEntry, new MutableCacheEntry<>(this.read(value), Mutator.PASSIVE));
+                } catch (InvalidSerializedFormException e) {
+                    InfinispanWebLogger.ROOT_LOGGER.failedToActivateSession(e, id);
+                }
+            }
+            this.remove(id);
+        }
+        return null;
+    }
+
+    private Map<String, Object> read(CoarseDeltaSessionAttributesEntry value) throws InvalidSerializedFormException {
+        Map<String, Object> attributes = new HashMap<>();
+        for (Map.Entry<String, MarshalledValue<Object, MarshallingContext>> attribute : value.getAttributes().entrySet()) {
+            attributes.put(attribute.getKey(), this.marshaller.read(attribute.getValue()));
+        }
+        return attributes;
+    }
+
+    @Override
+    public void remove(String id) {
+        this.sessionCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(id);
+        this.attributesCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(new SessionAttributesCacheKey(id));
+    }
+
+    @Override
+    public void evict(String id) {
+        try {
+            this.sessionCache.evict(id);
+            this.attributesCache.evict(new SessionAttributesCacheKey(id));
+        } catch (Throwable e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToPassivateSession(e, id);
+        }
+    }
+}
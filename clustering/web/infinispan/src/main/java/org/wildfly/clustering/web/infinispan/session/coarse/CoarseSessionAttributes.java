@@ -34,11 +34,13 @@ import org.wildfly.clustering.web.session.SessionAttributes;
 public class CoarseSessionAttributes extends CoarseImmutableSessionAttributes implements SessionAttributes {
     private final Map<String, Object> attributes;
     private final Mutator mutator;
+    private final MutableDetector detector;
 
-    public CoarseSessionAttributes(Map<String, Object> attributes, Mutator mutator) {
+    public CoarseSessionAttributes(Map<String, Object> attributes, Mutator mutator, MutableDetector detector) {
         super(attributes);
         this.attributes = attributes;
         this.mutator = mutator;
+        this.detector = detector;
     }
 
     @Override
@@ -58,7 +60,7 @@ public class CoarseSessionAttributes extends CoarseImmutableSessionAttributes im
     @Override
     public Object getAttribute(String name) {
         Object value = this.attributes.get(name);
-        if (MutableDetector.isMutable(value)) {
+        if (this.detector.test(value)) {
             this.mutator.mutate();
         }
         return value;
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.Map;
+
+import org.infinispan.atomic.Delta;
+import org.infinispan.atomic.DeltaAware;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+
+/**
+ * The session attributes changed by a request, to be merged into a {@link CoarseDeltaSessionAttributesEntry}.
+ * A null value denotes a removed attribute.
+ */
+public class SessionAttributesDelta implements Delta {
+
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> attributes;
+
+    public SessionAttributesDelta(Map<String, MarshalledValue<Object, MarshallingContext>> attributes) {
+        this.attributes = attributes;
+    }
+
+    public Map<String, MarshalledValue<Object, MarshallingContext>> getAttributes() {
+        return this.attributes;
+    }
+
+    @Override
+    public DeltaAware merge(DeltaAware delta) {
+        CoarseDeltaSessionAttributesEntry entry = (delta instanceof CoarseDeltaSessionAttributesEntry) ? (CoarseDeltaSessionAttributesEntry) delta : new CoarseDeltaSessionAttributesEntry();
+        Map<String, MarshalledValue<Object, MarshallingContext>> attributes = entry.getAttributes();
+        for (Map.Entry<String, MarshalledValue<Object, MarshallingContext>> attribute : this.attributes.entrySet()) {
+            MarshalledValue<Object, MarshallingContext> value = attribute.getValue();
+            if (value != null) {
+                attributes.put(attribute.getKey(), value);
+            } else {
+                attributes.remove(attribute.getKey());
+            }
+        }
+        return entry;
+    }
+}
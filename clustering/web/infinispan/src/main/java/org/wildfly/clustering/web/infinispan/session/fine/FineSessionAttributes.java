@@ -35,11 +35,13 @@ import org.wildfly.clustering.web.session.SessionAttributes;
 public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V> implements SessionAttributes {
     private final Cache<SessionAttributeCacheKey, V> cache;
     private final Marshaller<Object, V> marshaller;
+    private final MutableDetector detector;
 
-    public FineSessionAttributes(String id, Cache<SessionAttributeCacheKey, V> attributeCache, Marshaller<Object, V> marshaller) {
+    public FineSessionAttributes(String id, Cache<SessionAttributeCacheKey, V> attributeCache, Marshaller<Object, V> marshaller, MutableDetector detector) {
         super(id, attributeCache, marshaller);
         this.cache = attributeCache;
         this.marshaller = marshaller;
+        this.detector = detector;
     }
 
     @Override
@@ -65,7 +67,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         Object attribute = this.read(name, value);
         if (attribute != null) {
             // If the object is mutable, we need to indicate that the attribute should be replicated
-            if (MutableDetector.isMutable(attribute)) {
+            if (this.detector.test(attribute)) {
                 new CacheEntryMutator<>(this.cache, key, value).mutate();
             }
         }
@@ -36,6 +36,7 @@ import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
 import org.wildfly.clustering.web.infinispan.session.InfinispanImmutableSession;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSession;
+import org.wildfly.clustering.web.infinispan.session.MutableDetector;
 import org.wildfly.clustering.web.infinispan.session.SessionFactory;
 import org.wildfly.clustering.web.infinispan.session.SimpleSessionMetaData;
 import org.wildfly.clustering.web.session.ImmutableSession;
@@ -59,20 +60,22 @@ public class FineSessionFactory<L> implements SessionFactory<MutableCacheEntry<F
     private final SessionContext context;
     private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller;
     private final LocalContextFactory<L> localContextFactory;
+    private final MutableDetector detector;
 
-    public FineSessionFactory(Cache<String, FineSessionCacheEntry<L>> sessionCache, Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache, SessionContext context, Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory) {
+    public FineSessionFactory(Cache<String, FineSessionCacheEntry<L>> sessionCache, Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache, SessionContext context, Marshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory, MutableDetector detector) {
         this.sessionCache = sessionCache;
         this.attributeCache = attributeCache;
         this.context = context;
         this.marshaller = marshaller;
         this.localContextFactory = localContextFactory;
+        this.detector = detector;
     }
 
     @Override
     public Session<L> createSession(String id, MutableCacheEntry<FineSessionCacheEntry<L>> entry) {
         FineSessionCacheEntry<L> sessionEntry = entry.getValue();
         SessionMetaData metaData = sessionEntry.getMetaData();
-        SessionAttributes attributes = new FineSessionAttributes<>(id, this.attributeCache, this.marshaller);
+        SessionAttributes attributes = new FineSessionAttributes<>(id, this.attributeCache, this.marshaller, this.detector);
         return new InfinispanSession<>(id, metaData, attributes, sessionEntry.getLocalContext(), this.localContextFactory, this.context, entry.getMutator(), this);
     }
 
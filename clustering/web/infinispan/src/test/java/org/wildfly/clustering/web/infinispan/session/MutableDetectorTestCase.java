@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -35,6 +36,14 @@ import java.net.MalformedURLException;
 import java.net.UnknownHostException;
 import java.nio.file.FileSystems;
 import java.security.AllPermission;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.Date;
@@ -90,6 +99,51 @@ public class MutableDetectorTestCase {
         assertFalse(MutableDetector.isMutable(FileSystems.getDefault().getRootDirectories().iterator().next()));
         assertFalse(MutableDetector.isMutable(new AllPermission()));
         assertFalse(MutableDetector.isMutable(new ImmutableObject()));
+        assertFalse(MutableDetector.isMutable(Instant.now()));
+        assertFalse(MutableDetector.isMutable(Duration.ZERO));
+        assertFalse(MutableDetector.isMutable(LocalDate.now()));
+        assertFalse(MutableDetector.isMutable(ZonedDateTime.now()));
+        assertFalse(MutableDetector.isMutable(ZoneId.systemDefault()));
+        assertFalse(MutableDetector.isMutable(ZoneOffset.UTC));
+        assertFalse(MutableDetector.isMutable(Collections.singletonList("test")));
+        assertFalse(MutableDetector.isMutable(Collections.singletonMap("test", "test")));
+        assertFalse(MutableDetector.isMutable(Collections.unmodifiableList(new ArrayList<>())));
+        assertFalse(MutableDetector.isMutable(Collections.unmodifiableMap(Collections.emptyMap())));
+        assertTrue(MutableDetector.isMutable(new ArrayList<>()));
+    }
+
+    @Test
+    public void collectionWrappers() {
+        // Wrappers are only immutable if their elements are immutable
+        assertTrue(MutableDetector.isMutable(Collections.singletonList(new Date())));
+        assertTrue(MutableDetector.isMutable(Collections.singleton(new AtomicInteger())));
+        assertTrue(MutableDetector.isMutable(Collections.singletonMap("test", new Date())));
+        assertTrue(MutableDetector.isMutable(Collections.singletonMap(new Date(), "test")));
+        assertTrue(MutableDetector.isMutable(Collections.unmodifiableList(Arrays.asList("test", new Date()))));
+        assertTrue(MutableDetector.isMutable(Collections.unmodifiableMap(Collections.singletonMap("test", new Date()))));
+        assertTrue(MutableDetector.isMutable(Collections.unmodifiableList(Collections.singletonList(Collections.singletonList(new Date())))));
+        assertFalse(MutableDetector.isMutable(Collections.unmodifiableList(Arrays.asList("test", null, Collections.singletonList(UUID.randomUUID())))));
+
+        MutableDetector detector = new MutableDetector(Collections.<Class<?>>singleton(Date.class));
+        assertFalse(detector.test(Collections.singletonList(new Date())));
+        assertTrue(detector.test(Collections.singletonList(new Object())));
+        assertEquals(1, detector.getMutableCount());
+    }
+
+    @Test
+    public void test() {
+        MutableDetector detector = new MutableDetector(Collections.<Class<?>>singleton(Date.class));
+        assertFalse(detector.test(null));
+        assertFalse(detector.test("test"));
+        assertFalse(detector.test(new Date()));
+        assertFalse(detector.test(new java.sql.Timestamp(0)));
+        assertEquals(0, detector.getMutableCount());
+        assertTrue(detector.test(new Object()));
+        assertTrue(detector.test(new AtomicInteger()));
+        assertEquals(2, detector.getMutableCount());
+
+        // Additional immutable types are specific to a given detector
+        assertTrue(MutableDetector.isMutable(new Date()));
     }
 
     @Immutable
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.SessionMetaData;
+
+public class SessionExpirationWheelTestCase {
+    @Test
+    public void test() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession immortalSession = mock(ImmutableSession.class);
+        ImmutableSession expiringSession = mock(ImmutableSession.class);
+        ImmutableSession otherExpiringSession = mock(ImmutableSession.class);
+        ImmutableSession canceledSession = mock(ImmutableSession.class);
+        SessionMetaData immortalMetaData = mock(SessionMetaData.class);
+        SessionMetaData shortTimeoutMetaData = mock(SessionMetaData.class);
+        SessionMetaData longTimeoutMetaData = mock(SessionMetaData.class);
+        String immortalSessionId = "immortal";
+        String expiringSessionId = "expiring";
+        String otherExpiringSessionId = "other-expiring";
+        String canceledSessionId = "canceled";
+
+        when(batcher.createBatch()).thenReturn(batch);
+
+        when(immortalSession.getMetaData()).thenReturn(immortalMetaData);
+        when(expiringSession.getMetaData()).thenReturn(shortTimeoutMetaData);
+        when(otherExpiringSession.getMetaData()).thenReturn(shortTimeoutMetaData);
+        when(canceledSession.getMetaData()).thenReturn(longTimeoutMetaData);
+
+        when(immortalMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(0L);
+        when(shortTimeoutMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(50L);
+        when(longTimeoutMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(10000L);
+
+        Date now = new Date();
+        when(shortTimeoutMetaData.getLastAccessedTime()).thenReturn(now);
+        when(longTimeoutMetaData.getLastAccessedTime()).thenReturn(now);
+
+        when(immortalSession.getId()).thenReturn(immortalSessionId);
+        when(expiringSession.getId()).thenReturn(expiringSessionId);
+        when(otherExpiringSession.getId()).thenReturn(otherExpiringSessionId);
+        when(canceledSession.getId()).thenReturn(canceledSessionId);
+
+        try (SessionExpirationWheel scheduler = new SessionExpirationWheel(batcher, remover, null, 10, 10)) {
+            scheduler.schedule(immortalSession);
+            scheduler.schedule(canceledSession);
+            scheduler.schedule(expiringSession);
+            scheduler.schedule(otherExpiringSession);
+
+            Thread.sleep(1000);
+
+            assertEquals(0, scheduler.getBacklog());
+            assertEquals(0, scheduler.getLag(TimeUnit.MILLISECONDS));
+
+            scheduler.cancel(canceledSessionId);
+            scheduler.schedule(canceledSession);
+        }
+
+        verify(remover, never()).remove(immortalSessionId);
+        verify(remover).remove(expiringSessionId);
+        verify(remover).remove(otherExpiringSessionId);
+        verify(remover, never()).remove(canceledSessionId);
+        // Both sessions expire within the same batch
+        verify(batch).close();
+    }
+
+    @Test
+    public void cancelLocality() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        Remover<String> remover = mock(Remover.class);
+        Locality locality = mock(Locality.class);
+        ImmutableSession session = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String sessionId = "session";
+
+        when(session.getId()).thenReturn(sessionId);
+        when(session.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(100L);
+        when(metaData.getLastAccessedTime()).thenReturn(new Date());
+        when(locality.isLocal(sessionId)).thenReturn(false);
+
+        try (SessionExpirationWheel scheduler = new SessionExpirationWheel(batcher, remover, null, 10, 10)) {
+            scheduler.schedule(session);
+            scheduler.cancel(locality);
+
+            Thread.sleep(500);
+        }
+
+        verify(locality, times(1)).isLocal(sessionId);
+        verify(remover, never()).remove(sessionId);
+    }
+
+    @Test
+    public void cancelLocalityWithoutHash() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        Locality locality = mock(Locality.class);
+        ImmutableSession localSession = mock(ImmutableSession.class);
+        ImmutableSession remoteSession = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String localSessionId = "local";
+        String remoteSessionId = "remote";
+
+        when(batcher.createBatch()).thenReturn(batch);
+        when(localSession.getId()).thenReturn(localSessionId);
+        when(localSession.getMetaData()).thenReturn(metaData);
+        when(remoteSession.getId()).thenReturn(remoteSessionId);
+        when(remoteSession.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(100L);
+        when(metaData.getLastAccessedTime()).thenReturn(new Date());
+        when(locality.isLocal(localSessionId)).thenReturn(true);
+        when(locality.isLocal(remoteSessionId)).thenReturn(false);
+
+        // A replicated cache has no consistent hash, yet its sessions may still have different primary owners
+        try (SessionExpirationWheel scheduler = new SessionExpirationWheel(batcher, remover, null, 10, 10)) {
+            scheduler.schedule(remoteSession);
+            scheduler.schedule(localSession);
+            scheduler.cancel(locality);
+
+            Thread.sleep(500);
+        }
+
+        verify(locality).isLocal(localSessionId);
+        verify(locality).isLocal(remoteSessionId);
+        verify(remover).remove(localSessionId);
+        verify(remover, never()).remove(remoteSessionId);
+    }
+
+    @Test
+    public void commitFailure() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession session = mock(ImmutableSession.class);
+        ImmutableSession otherSession = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String sessionId = "session";
+        String otherSessionId = "other-session";
+
+        when(batcher.createBatch()).thenReturn(batch);
+        // Commit of the batch fails, commit of each retried session succeeds
+        doThrow(new IllegalStateException()).doNothing().when(batch).close();
+        when(session.getId()).thenReturn(sessionId);
+        when(session.getMetaData()).thenReturn(metaData);
+        when(otherSession.getId()).thenReturn(otherSessionId);
+        when(otherSession.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(50L);
+        when(metaData.getLastAccessedTime()).thenReturn(new Date());
+
+        try (SessionExpirationWheel scheduler = new SessionExpirationWheel(batcher, remover, null, 10, 10)) {
+            scheduler.schedule(session);
+            scheduler.schedule(otherSession);
+
+            Thread.sleep(1000);
+
+            assertEquals(0, scheduler.getBacklog());
+        }
+
+        verify(remover, times(2)).remove(sessionId);
+        verify(remover, times(2)).remove(otherSessionId);
+        verify(batch, times(3)).close();
+    }
+
+    @Test
+    public void retry() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        ImmutableSession session = mock(ImmutableSession.class);
+        ImmutableSession laterSession = mock(ImmutableSession.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        SessionMetaData laterMetaData = mock(SessionMetaData.class);
+        String sessionId = "session";
+        String laterSessionId = "later-session";
+
+        // Both the batch and the retry of the session fail to start, subsequent batches succeed
+        when(batcher.createBatch()).thenThrow(new IllegalStateException(), new IllegalStateException()).thenReturn(batch);
+        doNothing().when(batch).close();
+        when(session.getId()).thenReturn(sessionId);
+        when(session.getMetaData()).thenReturn(metaData);
+        when(laterSession.getId()).thenReturn(laterSessionId);
+        when(laterSession.getMetaData()).thenReturn(laterMetaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(50L);
+        when(metaData.getLastAccessedTime()).thenReturn(new Date());
+        when(laterMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(500L);
+        when(laterMetaData.getLastAccessedTime()).thenReturn(new Date());
+
+        try (SessionExpirationWheel scheduler = new SessionExpirationWheel(batcher, remover, null, 10, 10)) {
+            scheduler.schedule(session);
+            scheduler.schedule(laterSession);
+
+            Thread.sleep(1000);
+
+            assertEquals(0, scheduler.getBacklog());
+        }
+
+        // Session was restored to the index and expired by a subsequent sweep, which continued to expire other sessions
+        verify(remover).remove(sessionId);
+        verify(remover).remove(laterSessionId);
+        verify(batch, times(2)).close();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.atomic.DeltaAware;
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.MarshalledValue;
+import org.wildfly.clustering.marshalling.MarshallingContext;
+
+public class SessionAttributesDeltaTestCase {
+
+    @Test
+    public void mergeIntoExisting() {
+        MarshalledValue<Object, MarshallingContext> existing = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> removed = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> added = mock(MarshalledValue.class);
+        CoarseDeltaSessionAttributesEntry entry = new CoarseDeltaSessionAttributesEntry();
+        entry.getAttributes().put("existing", existing);
+        entry.getAttributes().put("removed", removed);
+
+        Map<String, MarshalledValue<Object, MarshallingContext>> changes = new HashMap<>();
+        changes.put("removed", null);
+        changes.put("added", added);
+        DeltaAware result = new SessionAttributesDelta(changes).merge(entry);
+
+        assertSame(entry, result);
+        assertEquals(2, entry.getAttributes().size());
+        assertSame(existing, entry.getAttributes().get("existing"));
+        assertSame(added, entry.getAttributes().get("added"));
+        assertFalse(entry.getAttributes().containsKey("removed"));
+    }
+
+    @Test
+    public void mergeIntoMissing() {
+        MarshalledValue<Object, MarshallingContext> added = mock(MarshalledValue.class);
+        Map<String, MarshalledValue<Object, MarshallingContext>> changes = new HashMap<>();
+        changes.put("added", added);
+        changes.put("removed", null);
+
+        DeltaAware result = new SessionAttributesDelta(changes).merge(null);
+
+        assertTrue(result instanceof CoarseDeltaSessionAttributesEntry);
+        Map<String, MarshalledValue<Object, MarshallingContext>> attributes = ((CoarseDeltaSessionAttributesEntry) result).getAttributes();
+        assertEquals(1, attributes.size());
+        assertSame(added, attributes.get("added"));
+    }
+
+    @Test
+    public void delta() {
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+        CoarseDeltaSessionAttributesEntry entry = new CoarseDeltaSessionAttributesEntry();
+        entry.getAttributes().put("name", value);
+
+        CoarseDeltaSessionAttributesEntry copy = (CoarseDeltaSessionAttributesEntry) entry.delta().merge(null);
+
+        assertNotSame(entry, copy);
+        assertEquals(entry.getAttributes(), copy.getAttributes());
+    }
+}
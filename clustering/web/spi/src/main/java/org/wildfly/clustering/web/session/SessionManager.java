@@ -81,6 +81,25 @@ public interface SessionManager<L, B extends Batch> extends IdentifierFactory<St
      */
     Set<String> getActiveSessions();
 
+    /**
+     * Returns the number of session attribute reads that triggered replication, since the attribute value was potentially mutated.
+     * @return a number of attribute reads
+     */
+    long getAttributeReadMutationCount();
+
+    /**
+     * Returns the number of sessions on this node that are due to expire, but have not yet been expired.
+     * @return a number of sessions
+     */
+    int getExpirationBacklog();
+
+    /**
+     * Returns how far the expiration of sessions on this node lags behind their expiration time.
+     * @param unit a time unit
+     * @return a duration
+     */
+    long getExpirationLag(TimeUnit unit);
+
     /**
      * Returns the identifiers of all sessions on this node, including both active and passive sessions.
      * @return a set of session identifiers.
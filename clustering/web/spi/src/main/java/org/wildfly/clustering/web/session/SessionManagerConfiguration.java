@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.session;
 
+import java.util.Set;
+
 import org.jboss.modules.Module;
 
 /**
@@ -28,7 +30,7 @@ import org.jboss.modules.Module;
  * @author Paul Ferraro
  */
 public interface SessionManagerConfiguration {
-    enum SessionAttributePersistenceStrategy { COARSE, FINE }
+    enum SessionAttributePersistenceStrategy { COARSE, COARSE_DELTA, FINE }
 
     int getMaxActiveSessions();
 
@@ -39,4 +41,24 @@ public interface SessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Returns the names of the session attribute classes, in addition to the built-in immutable types, whose instances are never mutated.
+     * @return a set of class names
+     */
+    Set<String> getImmutableClassNames();
+
+    /**
+     * Indicates whether sessions should be expired in batches, by periodically sweeping buckets of sessions grouped by expiration time,
+     * rather than individually, as soon as they expire.
+     * @return true, if sessions should be expired in batches, false otherwise.
+     */
+    boolean isBatchedExpiration();
+
+    /**
+     * Returns the names of the application classes that session attributes should marshal using a compact class index, rather than by name.
+     * All nodes must agree on this set, otherwise they cannot read each other's session attributes.
+     * @return a set of class names, or an empty set, if session attributes should be marshalled using the default format.
+     */
+    Set<String> getIndexedClassNames();
 }
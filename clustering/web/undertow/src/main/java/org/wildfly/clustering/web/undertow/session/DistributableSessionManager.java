@@ -36,12 +36,13 @@ import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionManager;
+import org.wildfly.extension.undertow.session.DistributableSessionManagerStatistics;
 
 /**
  * Adapts a distributable {@link SessionManager} to an Undertow {@link io.undertow.server.session.SessionManager}.
  * @author Paul Ferraro
  */
-public class DistributableSessionManager implements UndertowSessionManager {
+public class DistributableSessionManager implements UndertowSessionManager, DistributableSessionManagerStatistics {
 
     private static final int MAX_SESSION_ID_GENERATION_ATTEMPTS = 10;
 
@@ -172,6 +173,21 @@ public class DistributableSessionManager implements UndertowSessionManager {
         return this.deploymentName;
     }
 
+    @Override
+    public long getAttributeReadMutationCount() {
+        return this.manager.getAttributeReadMutationCount();
+    }
+
+    @Override
+    public int getExpirationBacklog() {
+        return this.manager.getExpirationBacklog();
+    }
+
+    @Override
+    public long getExpirationLag() {
+        return this.manager.getExpirationLag(TimeUnit.MILLISECONDS);
+    }
+
     //@Override
     public SessionManagerStatistics getStatistics() {
         return null;
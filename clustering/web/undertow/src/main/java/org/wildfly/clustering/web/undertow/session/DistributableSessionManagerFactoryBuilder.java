@@ -24,6 +24,7 @@ package org.wildfly.clustering.web.undertow.session;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 import io.undertow.servlet.api.SessionManagerFactory;
 
@@ -83,7 +84,8 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
 
             @Override
             public SessionAttributePersistenceStrategy getAttributePersistenceStrategy() {
-                return strategies.get(config.getGranularity());
+                ReplicationGranularity granularity = config.getGranularity();
+                return ((granularity == ReplicationGranularity.SESSION) && config.isDeltaReplication()) ? SessionAttributePersistenceStrategy.COARSE_DELTA : strategies.get(granularity);
             }
 
             @Override
@@ -100,6 +102,21 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
             public String getCacheName() {
                 return config.getCacheName();
             }
+
+            @Override
+            public Set<String> getImmutableClassNames() {
+                return config.getImmutableClassNames();
+            }
+
+            @Override
+            public boolean isBatchedExpiration() {
+                return config.isBatchedExpiration();
+            }
+
+            @Override
+            public Set<String> getIndexedClassNames() {
+                return config.getIndexedClassNames();
+            }
         };
         Builder<org.wildfly.clustering.web.session.SessionManagerFactory<Batch>> builder = this.provider.getBuilder(configuration);
         builder.build(target).install();
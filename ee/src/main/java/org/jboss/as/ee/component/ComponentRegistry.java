@@ -49,6 +49,11 @@ public class ComponentRegistry {
     private static ServiceName SERVICE_NAME = ServiceName.of("ee", "ComponentRegistry");
 
     private final Map<Class<?>, ComponentManagedReferenceFactory> componentsByClass = new ConcurrentHashMap<Class<?>, ComponentManagedReferenceFactory>();
+    /**
+     * Factories created by the class introspector, which web containers ask for on every servlet, filter, listener
+     * and tag handler instantiation
+     */
+    private final Map<Class<?>, ManagedReferenceFactory> introspectedFactories = new ConcurrentHashMap<Class<?>, ManagedReferenceFactory>();
     private final ServiceRegistry serviceRegistry;
     private final InjectedValue<EEClassIntrospector> classIntrospectorInjectedValue = new InjectedValue<>();
 
@@ -61,6 +66,7 @@ public class ComponentRegistry {
     }
 
     public void addComponent(final ComponentConfiguration componentConfiguration) {
+        introspectedFactories.remove(componentConfiguration.getComponentClass());
         if(componentConfiguration.getViews().size() < 2) {
             if(componentConfiguration.getViews().size() == 0) {
                 componentsByClass.put(componentConfiguration.getComponentClass(), new ComponentManagedReferenceFactory(componentConfiguration.getComponentDescription().getStartServiceName(), null));
@@ -73,7 +79,12 @@ public class ComponentRegistry {
     public ManagedReferenceFactory createInstanceFactory(final Class<?> componentClass) {
         final ManagedReferenceFactory factory = componentsByClass.get(componentClass);
         if (factory == null) {
-            return classIntrospectorInjectedValue.getValue().createFactory(componentClass);
+            ManagedReferenceFactory introspected = introspectedFactories.get(componentClass);
+            if (introspected == null) {
+                introspected = classIntrospectorInjectedValue.getValue().createFactory(componentClass);
+                introspectedFactories.put(componentClass, introspected);
+            }
+            return introspected;
         }
         return factory;
     }
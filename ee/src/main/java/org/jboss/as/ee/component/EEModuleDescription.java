@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.as.ee.component.interceptors.InterceptorClassDescription;
@@ -274,6 +275,15 @@ public final class EEModuleDescription implements ResourceInjectionTarget {
         interceptorClassOverrides.put(className, InterceptorClassDescription.merge(interceptorClassOverrides.get(className), override));
     }
 
+    /**
+     * Get the names of the classes that have module level interceptor method overrides
+     *
+     * @return The class names
+     */
+    public Set<String> getInterceptorClassOverrideNames() {
+        return Collections.unmodifiableSet(interceptorClassOverrides.keySet());
+    }
+
     public List<BindingConfiguration> getBindingConfigurations() {
         return bindingConfigurations;
     }
@@ -296,6 +306,10 @@ public final class EEModuleDescription implements ResourceInjectionTarget {
         }
     }
 
+    public Set<String> getResourceInjectionClassNames() {
+        return Collections.unmodifiableSet(resourceInjections.keySet());
+    }
+
     public void addMessageDestination(final String name, final String jndiName) {
         messageDestinations.put(name, jndiName);
     }
@@ -22,6 +22,9 @@
 
 package org.jboss.as.ee.component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 
@@ -39,10 +42,13 @@ import org.jboss.msc.value.Value;
  */
 final class ManagedReferenceFieldInjectionInterceptorFactory implements InterceptorFactory {
 
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     private final Object targetContextKey;
     private final Object valueContextKey;
     private final Value<ManagedReferenceFactory> factoryValue;
     private final Field field;
+    private final MethodHandle setter;
     private final boolean optional;
 
     ManagedReferenceFieldInjectionInterceptorFactory(final Object targetContextKey, final Object valueContextKey, final Value<ManagedReferenceFactory> factoryValue, final Field field, final boolean optional) {
@@ -50,11 +56,33 @@ final class ManagedReferenceFieldInjectionInterceptorFactory implements Intercep
         this.valueContextKey = valueContextKey;
         this.factoryValue = factoryValue;
         this.field = field;
+        this.setter = createSetter(field);
         this.optional = optional;
     }
 
     public Interceptor create(final InterceptorFactoryContext context) {
-        return new ManagedReferenceFieldInjectionInterceptor(targetContextKey, valueContextKey, factoryValue.getValue(), field, optional);
+        return new ManagedReferenceFieldInjectionInterceptor(targetContextKey, valueContextKey, factoryValue.getValue(), field, setter, optional);
+    }
+
+    /**
+     * Creates a handle setting the field, taking the target (ignored for a static field) and the value, which is
+     * cheaper to invoke than {@link Field#set(Object, Object)}. Returns {@code null} if the field has to be set
+     * reflectively, because it is final or not accessible.
+     */
+    private static MethodHandle createSetter(final Field field) {
+        if (Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        MethodHandle setter;
+        try {
+            setter = MethodHandles.publicLookup().unreflectSetter(field);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+        return setter.asType(SETTER_TYPE);
     }
 
     /**
@@ -69,13 +97,17 @@ final class ManagedReferenceFieldInjectionInterceptorFactory implements Intercep
         private final Object targetKey;
         private final ManagedReferenceFactory factory;
         private final Field field;
+        private final MethodHandle setter;
+        private final boolean staticField;
         private final boolean optional;
         private final Object valueContextKey;
 
-        ManagedReferenceFieldInjectionInterceptor(final Object targetKey, final Object valueContextKey, final ManagedReferenceFactory factory, final Field field, final boolean optional) {
+        ManagedReferenceFieldInjectionInterceptor(final Object targetKey, final Object valueContextKey, final ManagedReferenceFactory factory, final Field field, final MethodHandle setter, final boolean optional) {
             this.targetKey = targetKey;
             this.factory = factory;
             this.field = field;
+            this.setter = setter;
+            this.staticField = Modifier.isStatic(field.getModifiers());
             this.optional = optional;
             this.valueContextKey = valueContextKey;
         }
@@ -86,7 +118,7 @@ final class ManagedReferenceFieldInjectionInterceptorFactory implements Intercep
         public Object processInvocation(final InterceptorContext context) throws Exception {
             ComponentInstance componentInstance = context.getPrivateData(ComponentInstance.class);
             Object target;
-            if (Modifier.isStatic(field.getModifiers())) {
+            if (staticField) {
                 target = null;
             } else {
                 target = ((ManagedReference) componentInstance.getInstanceData(targetKey)).getInstance();
@@ -103,7 +135,7 @@ final class ManagedReferenceFieldInjectionInterceptorFactory implements Intercep
             boolean ok = false;
             try {
                 componentInstance.setInstanceData(valueContextKey, reference);
-                field.set(target, reference.getInstance());
+                inject(target, reference.getInstance());
                 Object result = context.proceed();
                 ok = true;
                 return result;
@@ -114,6 +146,24 @@ final class ManagedReferenceFieldInjectionInterceptorFactory implements Intercep
                 }
             }
         }
+
+        private void inject(final Object target, final Object value) throws IllegalAccessException {
+            if (setter == null) {
+                field.set(target, value);
+                return;
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (ClassCastException e) {
+                // the value does not fit the field, fail the way Field.set() does
+                throw new IllegalArgumentException(e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // a field setter throws no checked exceptions
+                throw new IllegalStateException(t);
+            }
+        }
     }
 
 }
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.jboss.invocation.Interceptor;
+
+/**
+ * An immutable table of the interceptor chain to run for each method of a view.
+ * <p/>
+ * Methods are looked up by identity in an open addressed table that is kept at most a quarter full, so that a lookup
+ * nearly always finds its method in the first slot it probes.
+ */
+final class MethodInterceptorTable {
+
+    private final Method[] methods;
+    private final Interceptor[] interceptors;
+    private final int mask;
+
+    MethodInterceptorTable(final Map<Method, Interceptor> interceptors) {
+        final int length = Integer.highestOneBit(Math.max(interceptors.size(), 1) * 4 - 1) << 1;
+        this.methods = new Method[length];
+        this.interceptors = new Interceptor[length];
+        this.mask = length - 1;
+        for (Map.Entry<Method, Interceptor> entry : interceptors.entrySet()) {
+            int index = indexOf(entry.getKey());
+            while (methods[index] != null) {
+                index = (index + 1) & mask;
+            }
+            methods[index] = entry.getKey();
+            this.interceptors[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * Get the interceptor chain for a method.
+     *
+     * @param method the method
+     * @return the interceptor, or {@code null} if the method is not part of the view
+     */
+    Interceptor get(final Method method) {
+        int index = indexOf(method);
+        Method candidate;
+        while ((candidate = methods[index]) != null) {
+            if (candidate == method) {
+                return interceptors[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private int indexOf(final Method method) {
+        final int hash = System.identityHashCode(method);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -37,7 +37,7 @@ import org.jboss.invocation.InterceptorContext;
  */
 public final class ProxyInvocationHandler implements InvocationHandler {
 
-    private final Map<Method, Interceptor> interceptors;
+    private final MethodInterceptorTable interceptors;
     private final ComponentView componentView;
     private final ComponentClientInstance instance;
 
@@ -49,6 +49,10 @@ public final class ProxyInvocationHandler implements InvocationHandler {
      * @param componentView The component view
      */
     public ProxyInvocationHandler(final Map<Method, Interceptor> interceptors, ComponentClientInstance instance, ComponentView componentView) {
+        this(new MethodInterceptorTable(interceptors), instance, componentView);
+    }
+
+    ProxyInvocationHandler(final MethodInterceptorTable interceptors, ComponentClientInstance instance, ComponentView componentView) {
         this.interceptors = interceptors;
         this.instance = instance;
         this.componentView = componentView;
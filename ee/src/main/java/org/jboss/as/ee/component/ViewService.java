@@ -23,6 +23,7 @@
 package org.jboss.as.ee.component;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -33,10 +34,13 @@ import java.util.Set;
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.as.ee.utils.DescriptorUtils;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.invocation.AccessCheckingInterceptor;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.Interceptors;
+import org.jboss.invocation.PrivilegedWithCombinerInterceptor;
 import org.jboss.invocation.SimpleInterceptorFactoryContext;
 import org.jboss.invocation.proxy.ProxyFactory;
 import org.jboss.msc.inject.Injector;
@@ -55,8 +59,8 @@ import static org.jboss.as.ee.logging.EeLogger.ROOT_LOGGER;
 public final class ViewService implements Service<ComponentView> {
 
     private final InjectedValue<Component> componentInjector = new InjectedValue<Component>();
-    private final Map<Method, InterceptorFactory> viewInterceptorFactories;
-    private final Map<Method, InterceptorFactory> clientInterceptorFactories;
+    private final Map<Method, List<InterceptorFactory>> viewInterceptorFactories;
+    private final Map<Method, List<InterceptorFactory>> clientInterceptorFactories;
     private final InterceptorFactory clientPostConstruct;
     private final InterceptorFactory clientPreDestroy;
     private final ProxyFactory<?> proxyFactory;
@@ -68,7 +72,7 @@ public final class ViewService implements Service<ComponentView> {
 
     private volatile Interceptor clientPostConstructInterceptor;
     private volatile Interceptor clientPreDestroyInterceptor;
-    private volatile Map<Method, Interceptor> clientInterceptors;
+    private volatile MethodInterceptorTable clientInterceptors;
 
 
     public ViewService(final ViewConfiguration viewConfiguration) {
@@ -79,14 +83,14 @@ public final class ViewService implements Service<ComponentView> {
         final int methodCount = methods.size();
         clientPostConstruct = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPostConstructInterceptors());
         clientPreDestroy = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPreDestroyInterceptors());
-        final IdentityHashMap<Method, InterceptorFactory> viewInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
-        final IdentityHashMap<Method, InterceptorFactory> clientInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
+        final IdentityHashMap<Method, List<InterceptorFactory>> viewInterceptorFactories = new IdentityHashMap<Method, List<InterceptorFactory>>(methodCount);
+        final IdentityHashMap<Method, List<InterceptorFactory>> clientInterceptorFactories = new IdentityHashMap<Method, List<InterceptorFactory>>(methodCount);
         for (final Method method : methods) {
             if (method.getName().equals("finalize") && method.getParameterTypes().length == 0) {
-                viewInterceptorFactories.put(method, Interceptors.getTerminalInterceptorFactory());
+                viewInterceptorFactories.put(method, Collections.singletonList(Interceptors.getTerminalInterceptorFactory()));
             } else {
-                viewInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method)));
-                clientInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method)));
+                viewInterceptorFactories.put(method, viewConfiguration.getViewInterceptors(method));
+                clientInterceptorFactories.put(method, viewConfiguration.getClientInterceptors(method));
             }
         }
         this.viewInterceptorFactories = viewInterceptorFactories;
@@ -118,13 +122,30 @@ public final class ViewService implements Service<ComponentView> {
         clientPostConstructInterceptor = clientPostConstruct.create(factoryContext);
         clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
 
-        final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-        clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
-        for (Method method : clientInterceptorFactories.keySet()) {
-            clientInterceptors.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+        final Map<Method, List<InterceptorFactory>> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
+        final Map<Method, Interceptor> clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
+        for (Map.Entry<Method, List<InterceptorFactory>> entry : clientInterceptorFactories.entrySet()) {
+            clientInterceptors.put(entry.getKey(), createChain(entry.getValue(), factoryContext));
         }
+        this.clientInterceptors = new MethodInterceptorTable(clientInterceptors);
+    }
 
-
+    /**
+     * Creates the interceptors of a chain and links them together, leaving out the ones that can be seen not to do
+     * anything in this container.
+     */
+    private static Interceptor createChain(final List<InterceptorFactory> factories, final InterceptorFactoryContext factoryContext) {
+        // the security manager is installed on boot, so without one these interceptors always just proceed
+        final boolean securityManager = System.getSecurityManager() != null;
+        final List<Interceptor> interceptors = new ArrayList<Interceptor>(factories.size());
+        for (InterceptorFactory factory : factories) {
+            final Interceptor interceptor = factory.create(factoryContext);
+            if (!securityManager && (interceptor instanceof PrivilegedWithCombinerInterceptor || interceptor instanceof AccessCheckingInterceptor)) {
+                continue;
+            }
+            interceptors.add(interceptor);
+        }
+        return Interceptors.getChainedInterceptor(interceptors);
     }
 
     public void stop(final StopContext context) {
@@ -143,6 +164,7 @@ public final class ViewService implements Service<ComponentView> {
 
         private final Component component;
         private final Map<Method, Interceptor> viewInterceptors;
+        private MethodInterceptorTable viewEntryPoints;
         private final Map<MethodDescription, Method> methods;
         private final Map<Class<?>, Object> privateData;
 
@@ -156,18 +178,19 @@ public final class ViewService implements Service<ComponentView> {
 
         void initializeInterceptors() {
             final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
-            final Map<Method, InterceptorFactory> viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
+            final Map<Method, List<InterceptorFactory>> viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
             final Map<Method, Interceptor> viewEntryPoints = viewInterceptors;
             factoryContext.getContextData().put(Component.class, component);
             //we don't have this code in the constructor so we avoid passing around
             //a half constructed instance
             factoryContext.getContextData().put(ComponentView.class, this);
 
-            for (Method method : viewInterceptorFactories.keySet()) {
-                viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
+            for (Map.Entry<Method, List<InterceptorFactory>> entry : viewInterceptorFactories.entrySet()) {
+                final Method method = entry.getKey();
+                viewEntryPoints.put(method, createChain(entry.getValue(), factoryContext));
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
             }
-
+            this.viewEntryPoints = new MethodInterceptorTable(viewEntryPoints);
         }
 
         public ManagedReference createInstance() throws Exception {
@@ -191,7 +214,7 @@ public final class ViewService implements Service<ComponentView> {
         @Override
         public Object invoke(InterceptorContext interceptorContext) throws Exception {
             final Method method = interceptorContext.getMethod();
-            final Interceptor interceptor = viewInterceptors.get(method);
+            final Interceptor interceptor = viewEntryPoints.get(method);
             return interceptor.processInvocation(interceptorContext);
         }
 
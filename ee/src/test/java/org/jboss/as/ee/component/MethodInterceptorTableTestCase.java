@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MethodInterceptorTable}.
+ */
+public class MethodInterceptorTableTestCase {
+
+    @Test
+    public void lookup() throws Exception {
+        final Map<Method, Interceptor> interceptors = new IdentityHashMap<>();
+        for (Method method : Object.class.getMethods()) {
+            interceptors.put(method, new TestInterceptor());
+        }
+        final MethodInterceptorTable table = new MethodInterceptorTable(interceptors);
+        for (Map.Entry<Method, Interceptor> entry : interceptors.entrySet()) {
+            assertSame(entry.getValue(), table.get(entry.getKey()));
+        }
+        // a method that is equal but not the same instance is not part of the view
+        assertNull(table.get(Object.class.getMethod("hashCode")));
+        assertNull(table.get(String.class.getMethod("length")));
+    }
+
+    @Test
+    public void empty() throws Exception {
+        final MethodInterceptorTable table = new MethodInterceptorTable(new IdentityHashMap<Method, Interceptor>());
+        assertNull(table.get(Object.class.getMethod("hashCode")));
+    }
+
+    private static class TestInterceptor implements Interceptor {
+        @Override
+        public Object processInvocation(final InterceptorContext context) throws Exception {
+            return context.proceed();
+        }
+    }
+}
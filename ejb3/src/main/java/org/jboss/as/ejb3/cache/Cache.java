@@ -95,4 +95,32 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
     int getPassivatedCount();
 
     int getTotalSize();
+
+    /**
+     * @return the number of lookups that found their object, or 0 if this cache does not track them
+     */
+    default long getHitCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of lookups that did not find their object, or 0 if this cache does not track them
+     */
+    default long getMissCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of objects removed because they timed out, or 0 if this cache does not track them
+     */
+    default long getExpirationCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of objects evicted to keep the cache within its maximum size, or 0 if this cache does not track them
+     */
+    default long getEvictionCount() {
+        return 0;
+    }
 }
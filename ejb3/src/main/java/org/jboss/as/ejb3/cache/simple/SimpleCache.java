@@ -21,14 +21,17 @@
  */
 package org.jboss.as.ejb3.cache.simple;
 
-import java.util.Map;
+import java.util.Iterator;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.cache.Cache;
@@ -41,7 +44,14 @@ import org.jboss.ejb.client.NodeAffinity;
 import org.wildfly.clustering.ejb.IdentifierFactory;
 
 /**
- * Simple {@link Cache} implementation using in-memory storage and eager expiration.
+ * Simple {@link Cache} implementation using in-memory storage.
+ * <p/>
+ * Idle beans are appended to a queue when they are released. Since all beans of a cache share the same timeout, the
+ * queue is ordered by expiration time, so expiring beans is a periodic sweep from the head of the queue, which stops at
+ * the first bean that is not due yet, rather than a scheduled task per bean. A bean that is used again before it expires
+ * leaves a stale node behind, which is skipped by the sweep, and purged once stale nodes outnumber the beans.
+ * The same queue orders the idle beans from least to most recently used, so when the cache exceeds its maximum size,
+ * the least recently used idle beans are evicted. Since a simple cache cannot passivate, evicted beans are removed.
  *
  * @author Paul Ferraro
  *
@@ -50,48 +60,66 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
  */
 public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
 
-    final Map<K, Future<?>> expirationFutures = new ConcurrentHashMap<>();
-    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private static final long MIN_SWEEP_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Idle<K, V>> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleSize = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
     private final StatefulObjectFactory<V> factory;
     private final IdentifierFactory<K> identifierFactory;
     private final StatefulTimeoutInfo timeout;
     private final ServerEnvironment environment;
     private final ScheduledExecutorService executor;
+    private final int maxSize;
+    private final long timeoutNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile ScheduledFuture<?> sweepFuture;
 
     public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor) {
+        this(factory, identifierFactory, timeout, environment, executor, 0);
+    }
+
+    /**
+     * @param maxSize the maximum number of beans in the cache, or 0 if the cache is unbounded
+     */
+    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor, int maxSize) {
         this.factory = factory;
         this.identifierFactory = identifierFactory;
         this.timeout = timeout;
         this.environment = environment;
         this.executor = executor;
+        this.maxSize = maxSize;
+        this.timeoutNanos = (timeout != null) ? timeout.getTimeUnit().toNanos(timeout.getValue()) : -1;
     }
 
     @Override
     public void start() {
-        // Do nothing
+        if (this.timeoutNanos > 0) {
+            long interval = Math.max(MIN_SWEEP_INTERVAL, Math.min(MAX_SWEEP_INTERVAL, this.timeoutNanos / 4));
+            this.sweepFuture = this.executor.scheduleWithFixedDelay(new SweepTask(), interval, interval, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
     public void stop() {
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(true);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isCancelled() && !future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
-            }
+        ScheduledFuture<?> future = this.sweepFuture;
+        if (future != null) {
+            this.sweepFuture = null;
+            future.cancel(false);
         }
-        for(Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
-            this.factory.destroyInstance(entry.getValue().getValue());
+        // Invalidating an entry is atomic, so a concurrent sweep never destroys the same bean twice
+        for (Entry<K, V> entry : this.entries.values()) {
+            if (entry.invalidate(null)) {
+                this.remove(entry);
+            }
         }
-        this.expirationFutures.clear();
-        this.entries.clear();
+        this.idle.clear();
+        this.idleSize.set(0);
     }
 
     @Override
@@ -116,32 +144,53 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
             throw EjbLogger.ROOT_LOGGER.incompatibleCaches();
         }
         V bean = this.factory.createInstance();
-        this.entries.put(bean.getId(), new Entry<>(bean));
+        this.entries.put(bean.getId(), new Entry<K, V>(bean));
+        if ((this.maxSize > 0) && (this.entries.size() > this.maxSize)) {
+            this.evict();
+        }
         return bean;
     }
 
     @Override
     public void discard(V value) {
-        this.entries.remove(value.getId());
+        Entry<K, V> entry = this.entries.get(value.getId());
+        if ((entry != null) && entry.invalidate(null)) {
+            this.entries.remove(value.getId(), entry);
+        }
     }
 
     @Override
     public void remove(K key) {
-        Entry<V> entry = this.entries.remove(key);
-        if (entry != null) {
-            this.factory.destroyInstance(entry.getValue());
+        Entry<K, V> entry = this.entries.get(key);
+        if ((entry != null) && entry.invalidate(null)) {
+            this.remove(entry);
         }
     }
 
+    private void remove(Entry<K, V> entry) {
+        this.entries.remove(entry.getValue().getId(), entry);
+        this.factory.destroyInstance(entry.getValue());
+    }
+
     @Override
     public V get(K key) {
-        Future<?> future = this.expirationFutures.get(key);
-        if (future != null) {
-            future.cancel(true);
+        Entry<K, V> entry = this.entries.get(key);
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        if ((this.timeoutNanos > 0) && entry.expire(System.nanoTime())) {
+            // Expired, but not yet swept
+            this.expirations.increment();
+            this.remove(entry);
+            this.misses.increment();
+            return null;
         }
-        Entry<V> entry = this.entries.get(key);
-        if (entry == null) return null;
-        entry.use();
+        if (!entry.use()) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
         return entry.getValue();
     }
 
@@ -153,22 +202,26 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
     @Override
     public void release(V bean) {
         K id = bean.getId();
-        Entry<V> entry = this.entries.get(id);
-        if ((entry != null) && entry.done()) {
-            if (this.timeout != null) {
-                long value = this.timeout.getValue();
-                if (value > 0) {
-                    TimeUnit unit = this.timeout.getTimeUnit();
-                    RemoveTask task = new RemoveTask(id);
-                    // Make sure the expiration future map insertion happens before map removal (during task execution).
-                    synchronized (task) {
-                        this.expirationFutures.put(id, this.executor.schedule(task, value, unit));
-                    }
-                } else if (value == 0) {
-                    // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
-                    // However, removing it directly is faster than scheduling it for immediate removal.
-                    remove(id);
-                }
+        Entry<K, V> entry = this.entries.get(id);
+        if (entry == null) return;
+        if (this.timeoutNanos == 0) {
+            // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
+            // However, removing it directly is faster than scheduling it for immediate removal.
+            if (entry.done(null)) {
+                this.remove(id);
+            }
+            return;
+        }
+        if ((this.timeoutNanos < 0) && (this.maxSize <= 0)) {
+            // Idle beans never expire, nor are they ever evicted, so they do not need to be tracked
+            entry.done(null);
+            return;
+        }
+        Idle<K, V> node = new Idle<>(entry, (this.timeoutNanos > 0) ? System.nanoTime() + this.timeoutNanos : Long.MAX_VALUE);
+        if (entry.done(node)) {
+            this.idle.add(node);
+            if (this.idleSize.incrementAndGet() > (2 * this.entries.size()) + 64) {
+                this.purge();
             }
         }
     }
@@ -188,36 +241,162 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         return this.getCacheSize();
     }
 
-    class RemoveTask implements Runnable {
-        private final K key;
+    @Override
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public long getExpirationCount() {
+        return this.expirations.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
 
-        RemoveTask(K key) {
-            this.key = key;
+    /**
+     * Removes the least recently used idle beans, until the cache is back within its maximum size.
+     * Beans that are in use cannot be evicted, so the cache may exceed its maximum size while they are.
+     */
+    private void evict() {
+        while (this.entries.size() > this.maxSize) {
+            Idle<K, V> node = this.idle.poll();
+            if (node == null) return;
+            this.idleSize.decrementAndGet();
+            if (node.entry.invalidate(node)) {
+                this.evictions.increment();
+                this.remove(node.entry);
+            }
         }
+    }
 
-        @Override
-        public synchronized void run() {
-            if (!Thread.currentThread().isInterrupted()) {
-                SimpleCache.this.remove(this.key);
+    /**
+     * Expires the idle beans that are due, in the order they were released.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        for (Idle<K, V> node = this.idle.peek(); node != null; node = this.idle.peek()) {
+            if (node.entry.isIdle(node) && (node.deadline - now > 0)) {
+                // Everything behind this node was released later, so is not due either
+                return;
+            }
+            if (this.idle.remove(node)) {
+                this.idleSize.decrementAndGet();
+                if (node.entry.invalidate(node)) {
+                    this.expirations.increment();
+                    this.remove(node.entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the nodes of beans that have been used again since they were queued.
+     */
+    private void purge() {
+        if (this.purging.compareAndSet(false, true)) {
+            try {
+                int purged = 0;
+                for (Iterator<Idle<K, V>> nodes = this.idle.iterator(); nodes.hasNext(); ) {
+                    Idle<K, V> node = nodes.next();
+                    if (!node.entry.isIdle(node)) {
+                        nodes.remove();
+                        purged++;
+                    }
+                }
+                this.idleSize.addAndGet(-purged);
+            } finally {
+                this.purging.set(false);
             }
-            SimpleCache.this.expirationFutures.remove(this.key);
         }
     }
 
-    static class Entry<V> {
+    class SweepTask implements Runnable {
+        @Override
+        public void run() {
+            SimpleCache.this.sweep();
+        }
+    }
+
+    /**
+     * The release of an entry, queued for expiration or eviction.
+     */
+    static class Idle<K, V extends Identifiable<K>> {
+        final Entry<K, V> entry;
+        final long deadline;
+
+        Idle(Entry<K, V> entry, long deadline) {
+            this.entry = entry;
+            this.deadline = deadline;
+        }
+    }
+
+    static class Entry<K, V extends Identifiable<K>> {
         private final V value;
-        private final AtomicInteger usage = new AtomicInteger();
+        // guarded by this
+        private int usage;
+        private Idle<K, V> idle;
+        private boolean valid = true;
 
         Entry(V value) {
             this.value = value;
         }
 
-        void use() {
-            this.usage.incrementAndGet();
+        /**
+         * Marks the entry as being in use.
+         * @return false if the entry has been invalidated
+         */
+        synchronized boolean use() {
+            if (!this.valid) return false;
+            this.usage++;
+            this.idle = null;
+            return true;
+        }
+
+        /**
+         * Releases a usage of this entry.
+         * @param idle the node queued for the entry if it becomes idle
+         * @return true if the entry became idle
+         */
+        synchronized boolean done(Idle<K, V> idle) {
+            if (--this.usage != 0) return false;
+            this.idle = idle;
+            return true;
+        }
+
+        synchronized boolean isIdle(Idle<K, V> idle) {
+            return this.valid && (this.usage == 0) && (this.idle == idle);
+        }
+
+        /**
+         * Invalidates this entry, if it is idle and its deadline has passed.
+         * @return true if this call invalidated the entry
+         */
+        synchronized boolean expire(long now) {
+            if (!this.valid || (this.usage != 0) || (this.idle == null) || (this.idle.deadline - now > 0)) return false;
+            this.valid = false;
+            this.idle = null;
+            return true;
         }
 
-        boolean done() {
-            return this.usage.decrementAndGet() == 0;
+        /**
+         * Invalidates this entry.
+         * @param idle if not null, the entry is only invalidated if it is still idle since it was queued with the given node
+         * @return true if this call invalidated the entry
+         */
+        synchronized boolean invalidate(Idle<K, V> idle) {
+            if (!this.valid) return false;
+            if ((idle != null) && ((this.usage != 0) || (this.idle != idle))) return false;
+            this.valid = false;
+            this.idle = null;
+            return true;
         }
 
         V getValue() {
@@ -55,10 +55,19 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
     });
 
     private final String name;
+    private final int maxSize;
 
     public SimpleCacheFactoryBuilderService(String name) {
+        this(name, 0);
+    }
+
+    /**
+     * @param maxSize the maximum number of beans in the caches created by this builder, or 0 if they are unbounded
+     */
+    public SimpleCacheFactoryBuilderService(String name, int maxSize) {
         super(name);
         this.name = name;
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -73,7 +82,7 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
 
     @Override
     public ServiceBuilder<? extends CacheFactory<K, V>> build(ServiceTarget target, ServiceName name, BeanContext context, StatefulTimeoutInfo timeout) {
-        return SimpleCacheFactoryService.build(this.name, target, name, context, timeout);
+        return SimpleCacheFactoryService.build(this.name, target, name, context, timeout, this.maxSize);
     }
 
     @Override
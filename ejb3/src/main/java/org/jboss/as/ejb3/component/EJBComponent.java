@@ -405,6 +405,10 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
         return utilities.isStatisticsEnabled();
     }
 
+    public boolean isAuthorizationCacheEnabled() {
+        return utilities.isAuthorizationCacheEnabled();
+    }
+
     public Object lookup(String name) throws IllegalArgumentException {
         if (name == null) {
             throw EjbLogger.ROOT_LOGGER.jndiNameCannotBeNull();
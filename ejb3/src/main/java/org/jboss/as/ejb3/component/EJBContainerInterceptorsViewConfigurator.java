@@ -203,6 +203,10 @@ public class EJBContainerInterceptorsViewConfigurator implements ViewConfigurato
                     }
                 }
             }
+            if (aroundInvokesApplicableForMethod.isEmpty() && aroundTimeoutsApplicableForMethod.isEmpty()) {
+                // no container interceptor applies to this method, keep it out of the chain
+                continue;
+            }
             // apply the interceptors to the view's method.
             viewConfiguration.addViewInterceptor(method, new UserInterceptorFactory(weaved(aroundInvokesApplicableForMethod), weaved(aroundTimeoutsApplicableForMethod)), InterceptorOrder.View.USER_APP_SPECIFIC_CONTAINER_INTERCEPTORS);
         }
@@ -71,6 +71,7 @@ public class EJBUtilities implements EndpointDeployer, Service<EJBUtilities> {
     private final InjectedValue<UserTransaction> userTransactionValue = new InjectedValue<UserTransaction>();
 
     private volatile boolean statisticsEnabled = false;
+    private volatile boolean authorizationCacheEnabled = false;
 
     public ActivationSpec createActivationSpecs(final String resourceAdapterName, final Class<?> messageListenerInterface,
                                                 final Properties activationConfigProperties, final ClassLoader classLoader) {
@@ -209,6 +210,14 @@ public class EJBUtilities implements EndpointDeployer, Service<EJBUtilities> {
         this.statisticsEnabled = b;
     }
 
+    public boolean isAuthorizationCacheEnabled() {
+        return authorizationCacheEnabled;
+    }
+
+    public void setAuthorizationCacheEnabled(final boolean b) {
+        this.authorizationCacheEnabled = b;
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
     }
@@ -24,13 +24,15 @@ package org.jboss.as.ejb3.component.invocationmetrics;
 import java.lang.reflect.Method;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -40,11 +42,16 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        final Percentiles executionTimePercentiles;
+        final Percentiles waitTimePercentiles;
 
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+        private Values(final Recorder recorder) {
+            // read the invocation count last, so it never lags behind the times
+            this.executionTime = recorder.executionTime.sum();
+            this.waitTime = recorder.waitTime.sum();
+            this.invocations = recorder.invocations.sum();
+            this.executionTimePercentiles = new Percentiles(recorder.executionTimes);
+            this.waitTimePercentiles = new Percentiles(recorder.waitTimes);
         }
 
         public long getExecutionTime() {
@@ -58,40 +65,108 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        public Percentiles getExecutionTimePercentiles() {
+            return executionTimePercentiles;
+        }
+
+        public Percentiles getWaitTimePercentiles() {
+            return waitTimePercentiles;
+        }
+    }
+
+    /**
+     * A snapshot of the 50th, 95th and 99th percentile and of the maximum of a latency distribution, in milliseconds.
+     */
+    public static class Percentiles {
+        final long p50;
+        final long p95;
+        final long p99;
+        final long max;
+
+        private Percentiles(final LatencyHistogram histogram) {
+            this.p50 = histogram.getValueAtPercentile(50.0);
+            this.p95 = histogram.getValueAtPercentile(95.0);
+            this.p99 = histogram.getValueAtPercentile(99.0);
+            this.max = histogram.getMax();
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP95() {
+            return p95;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+
+    /**
+     * Records the invocations of a component or of one of its methods. Recording never allocates, and spreads
+     * contending threads over striped counters instead of looping on a single compare-and-set.
+     */
+    private static class Recorder {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+        final LatencyHistogram waitTimes = new LatencyHistogram();
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+            invocations.increment();
+            waitTimes.record(invocationWaitTime);
+            executionTimes.record(invocationExecutionTime);
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Recorder values = new Recorder();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private final LongAdder authorizationTime = new LongAdder();
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    // keyed by the method itself, so that overloaded methods are recorded separately
+    private final ConcurrentMap<Method, Recorder> methods = new ConcurrentHashMap<Method, Recorder>();
 
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
-        }
+        values.record(invocationWaitTime, invocationExecutionTime);
+        recorder(method).record(invocationWaitTime, invocationExecutionTime);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private Recorder recorder(final Method method) {
+        Recorder recorder = methods.get(method);
+        if (recorder == null) {
+            recorder = new Recorder();
+            final Recorder previous = methods.putIfAbsent(method, recorder);
+            if (previous != null)
+                recorder = previous;
         }
-        return ref;
+        return recorder;
+    }
+
+    /**
+     * Records the time spent authorizing the caller of an invocation.
+     *
+     * @param nanos the time spent, in nanoseconds
+     */
+    public void finishAuthorization(final long nanos) {
+        authorizationTime.add(nanos);
+    }
+
+    /**
+     * Returns the total time spent authorizing callers, in milliseconds.
+     */
+    public long getAuthorizationTime() {
+        return TimeUnit.NANOSECONDS.toMillis(authorizationTime.sum());
     }
 
     public long getConcurrent() {
@@ -99,21 +174,34 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.executionTime.sum();
+    }
+
+    public Percentiles getExecutionTimePercentiles() {
+        return new Percentiles(values.executionTimes);
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
+    /**
+     * Returns a snapshot of the metrics per method. Methods are keyed by their name, unless the name is overloaded, in
+     * which case the parameter types are appended, e.g. {@code process(java.lang.String,int)}.
+     */
     public Map<String, Values> getMethods() {
+        final Map<String, Integer> overloads = new HashMap<String, Integer>();
+        for (Method method : methods.keySet()) {
+            final Integer count = overloads.get(method.getName());
+            overloads.put(method.getName(), count == null ? 1 : count + 1);
+        }
         return new AbstractMap<String, Values>() {
             @Override
             public Set<Entry<String, Values>> entrySet() {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<Entry<Method, Recorder>> delegate = methods.entrySet().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,16 +210,18 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<Method, Recorder> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
-                                        return next.getKey();
+                                        final Method method = next.getKey();
+                                        final Integer count = overloads.get(method.getName());
+                                        return count == null || count == 1 ? method.getName() : signature(method);
                                     }
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return new Values(next.getValue());
                                     }
 
                                     @Override
@@ -157,12 +247,27 @@ public class InvocationMetrics {
         };
     }
 
+    private static String signature(final Method method) {
+        final StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(types[i].getName());
+        }
+        return sb.append(')').toString();
+    }
+
     public long getPeakConcurrent() {
         return peakConcurrent.get();
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.waitTime.sum();
+    }
+
+    public Percentiles getWaitTimePercentiles() {
+        return new Percentiles(values.waitTimes);
     }
 
     void startInvocation() {
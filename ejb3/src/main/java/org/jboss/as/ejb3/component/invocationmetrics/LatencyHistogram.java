@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A lock free, allocation free histogram of non negative values, with a fixed relative precision.
+ * <p/>
+ * Values are recorded into logarithmic buckets which are each split into {@value #SUB_BUCKETS} linear sub buckets,
+ * so a reported percentile is within 1/{@value #SUB_BUCKETS} of the recorded value. The bucket counters start out
+ * as a single array, and more arrays (stripes) are added, up to the number of CPUs, once concurrent recorders
+ * collide, in the same way a {@link java.util.concurrent.atomic.LongAdder} adds cells.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // values beyond 2^32 are accounted in the last bucket, the exact maximum is tracked separately
+    private static final int MAX_EXPONENT = 32;
+    private static final long MAX_TRACKABLE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int MAX_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors());
+
+    private volatile AtomicLongArray[] stripes = new AtomicLongArray[] { new AtomicLongArray(BUCKETS) };
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(final long value) {
+        final long v = value < 0L ? 0L : value;
+        final int index = index(v < MAX_TRACKABLE ? v : MAX_TRACKABLE);
+        final AtomicLongArray[] current = this.stripes;
+        final AtomicLongArray counts = current[probe() & (current.length - 1)];
+        final long count = counts.get(index);
+        if (!counts.compareAndSet(index, count, count + 1)) {
+            counts.incrementAndGet(index);
+            expand(current);
+        }
+        max.accumulate(v);
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile, e.g. 99.0 for the 99th percentile. The result is the upper bound of
+     * the bucket the percentile falls into, capped by the maximum recorded value.
+     */
+    long getValueAtPercentile(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                final long c = stripe.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long lowest = ((long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1)))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private void expand(final AtomicLongArray[] current) {
+        if (current.length >= MAX_STRIPES) {
+            return;
+        }
+        synchronized (this) {
+            if (this.stripes == current) {
+                final AtomicLongArray[] expanded = new AtomicLongArray[current.length << 1];
+                System.arraycopy(current, 0, expanded, 0, current.length);
+                for (int i = current.length; i < expanded.length; i++) {
+                    expanded[i] = new AtomicLongArray(BUCKETS);
+                }
+                this.stripes = expanded;
+            }
+        }
+    }
+
+    private static int probe() {
+        final long id = Thread.currentThread().getId();
+        final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -36,10 +36,12 @@ import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.allowedmethods.AllowedMethodsInformation;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
 import org.jboss.as.ejb3.inflow.JBossMessageEndpointFactory;
 import org.jboss.as.ejb3.inflow.MessageEndpointService;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.adaptive.AdaptiveConcurrencyPool;
 import org.jboss.as.server.suspend.ServerActivity;
 import org.jboss.as.server.suspend.ServerActivityCallback;
 import org.jboss.as.server.suspend.SuspendController;
@@ -128,7 +130,13 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
             this.poolName = null;
         } else {
             ROOT_LOGGER.debugf("Using pool config %s to create pool for MDB %s", poolConfig, ejbComponentCreateService.getComponentName());
-            this.pool = poolConfig.createPool(factory);
+            final Pool<MessageDrivenComponentInstance> pool = poolConfig.createPool(factory);
+            if (poolConfig instanceof StrictMaxPoolConfig && ((StrictMaxPoolConfig) poolConfig).isAdaptiveConcurrency()) {
+                final StrictMaxPoolConfig strictMaxPoolConfig = (StrictMaxPoolConfig) poolConfig;
+                this.pool = new AdaptiveConcurrencyPool<MessageDrivenComponentInstance>(pool, strictMaxPoolConfig.getTimeout(), strictMaxPoolConfig.getTimeoutUnit());
+            } else {
+                this.pool = pool;
+            }
             this.poolName = poolConfig.getPoolName();
         }
         this.classLoader = ejbComponentCreateService.getModuleClassLoader();
@@ -195,6 +203,13 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
         return poolName;
     }
 
+    /**
+     * @return the pool that adapts the number of concurrent deliveries, or null if the concurrency is fixed
+     */
+    public AdaptiveConcurrencyPool<MessageDrivenComponentInstance> getAdaptiveConcurrencyPool() {
+        return (pool instanceof AdaptiveConcurrencyPool) ? (AdaptiveConcurrencyPool<MessageDrivenComponentInstance>) pool : null;
+    }
+
     void setEndpoint(final Endpoint endpoint) {
         this.endpoint = endpoint;
     }
@@ -41,9 +41,9 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 public class ContainerManagedConcurrencyInterceptor implements Interceptor {
 
     /**
-     * A spec compliant {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock}
+     * A spec compliant {@link org.jboss.as.ejb3.concurrency.StripedReadWriteLock}, which does not serialize concurrent readers
      */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    private final ReadWriteLock readWriteLock = new StripedReadWriteLock();
 
     private final LockableComponent lockableComponent;
 
@@ -0,0 +1,344 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A {@link ReadWriteLock} with the same semantics as {@link EJBReadWriteLock}, which scales with the number of
+ * concurrent readers.
+ * <p/>
+ * Instead of a single shared state word, readers are counted in a number of stripes, each on its own cache line,
+ * so uncontended readers on different CPUs never write to the same memory. A reader increments its stripe and then
+ * checks that no writer is present; a writer announces itself, and then waits for the sum of all stripes to drop to 0.
+ * A reader that finds a writer backs off, and waits for the writer to finish.
+ * <p/>
+ * Both locks are reentrant, and the thread holding the write lock may also obtain the read lock. A thread that holds
+ * the read lock and tries to obtain the write lock gets a {@link javax.ejb.IllegalLoopbackException}.
+ */
+public class StripedReadWriteLock implements ReadWriteLock {
+
+    // 16 longs, so each stripe is on its own pair of cache lines
+    private static final int PADDING = 16;
+    private static final int STRIPES;
+    // bounds the time a writer waits for a wake up it may have missed
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        STRIPES = Integer.highestOneBit(cpus) == cpus ? cpus : Integer.highestOneBit(cpus) << 1;
+    }
+
+    private static final AtomicInteger NEXT_STRIPE = new AtomicInteger();
+
+    private final AtomicLongArray readers = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * The read locks held by each thread, and the stripe it counts them in
+     */
+    private final ThreadLocal<ReadHolds> readHolds = new ThreadLocal<ReadHolds>() {
+        @Override
+        protected ReadHolds initialValue() {
+            return new ReadHolds((NEXT_STRIPE.getAndIncrement() & (STRIPES - 1)) * PADDING);
+        }
+    };
+
+    /**
+     * Serializes the writers, and is also where readers wait for the current writer
+     */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /**
+     * The thread that owns, or is about to own, the write lock
+     */
+    private volatile Thread writer;
+
+    private final Lock readLock = new ReadLock();
+
+    private final Lock writeLock = new WriteLock();
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    private boolean acquireRead(final boolean timed, final long nanos) throws InterruptedException {
+        final ReadHolds holds = this.readHolds.get();
+        final Thread current = Thread.currentThread();
+        if (holds.count > 0 || this.writer == current) {
+            // a reentrant read, or a read by the writer, must not wait for the writer
+            this.readers.getAndIncrement(holds.stripe);
+            holds.count++;
+            return true;
+        }
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        for (;;) {
+            if (this.writer == null) {
+                this.readers.getAndIncrement(holds.stripe);
+                if (this.writer == null) {
+                    holds.count++;
+                    return true;
+                }
+                // lost the race against a writer
+                this.releaseRead(holds.stripe);
+            }
+            // wait for the writer to finish
+            if (timed) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L || !this.writerLock.tryLock(remaining, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            } else {
+                this.writerLock.lockInterruptibly();
+            }
+            this.writerLock.unlock();
+        }
+    }
+
+    private void releaseRead(final int stripe) {
+        this.readers.getAndDecrement(stripe);
+        final Thread writer = this.writer;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean acquireWrite(final boolean timed, final long nanos) throws InterruptedException {
+        if (this.writerLock.isHeldByCurrentThread()) {
+            this.writerLock.lock();
+            return true;
+        }
+        if (this.readHolds.get().count > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        if (timed) {
+            if (!this.writerLock.tryLock(nanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } else {
+            this.writerLock.lockInterruptibly();
+        }
+        final Thread current = Thread.currentThread();
+        this.writer = current;
+        boolean acquired = false;
+        try {
+            while (this.readerCount() != 0L) {
+                long park = MAX_PARK_NANOS;
+                if (timed) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    park = Math.min(park, remaining);
+                }
+                LockSupport.parkNanos(this, park);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            acquired = true;
+            return true;
+        } finally {
+            if (!acquired) {
+                this.writer = null;
+                this.writerLock.unlock();
+            }
+        }
+    }
+
+    private void releaseWrite() {
+        if (!this.writerLock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        if (this.writerLock.getHoldCount() == 1) {
+            this.writer = null;
+        }
+        this.writerLock.unlock();
+    }
+
+    private long readerCount() {
+        long count = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            count += this.readers.get(i * PADDING);
+        }
+        return count;
+    }
+
+    private static void uninterruptibly(final Acquisition acquisition) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    acquisition.acquire();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private interface Acquisition {
+        void acquire() throws InterruptedException;
+    }
+
+    private static final class ReadHolds {
+        final int stripe;
+        int count;
+
+        ReadHolds(final int stripe) {
+            this.stripe = stripe;
+        }
+    }
+
+    private class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            uninterruptibly(new Acquisition() {
+                @Override
+                public void acquire() throws InterruptedException {
+                    acquireRead(false, 0L);
+                }
+            });
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            acquireRead(false, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return acquireRead(true, 0L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return acquireRead(true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            final ReadHolds holds = readHolds.get();
+            if (holds.count <= 0) {
+                throw new IllegalMonitorStateException();
+            }
+            holds.count--;
+            releaseRead(holds.stripe);
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            uninterruptibly(new Acquisition() {
+                @Override
+                public void acquire() throws InterruptedException {
+                    acquireWrite(false, 0L);
+                }
+            });
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            acquireWrite(false, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return acquireWrite(true, 0L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return acquireWrite(true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            releaseWrite();
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -157,6 +157,18 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
         return modules;
     }
 
+    /**
+     * Returns the deployment with the given identifier, if it is in a started state. Unlike {@link #getStartedModules()},
+     * this does not copy the deployments, so it is cheap enough to be used for each invocation.
+     * @param identifier The identifier of the deployment
+     * @return The started deployment, or null if there is no such deployment, or if it is not started yet
+     */
+    public ModuleDeployment getStartedModule(final DeploymentModuleIdentifier identifier) {
+        final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = this.modules;
+        final DeploymentHolder holder = (modules != null) ? modules.get(identifier) : null;
+        return (holder != null && holder.started) ? holder.deployment : null;
+    }
+
     private class DeploymentHolder {
         final ModuleDeployment deployment;
         volatile boolean started = false;
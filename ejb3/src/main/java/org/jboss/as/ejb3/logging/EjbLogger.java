@@ -3068,4 +3068,26 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 473, value = "JNDI bindings for session bean named '%s' in deployment unit '%s' are as follows:%s")
     void jndiBindings(final String ejbName, final DeploymentUnit deploymentUnit, final StringBuilder bindings);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 474, value = "Failed to run scheduled task %s")
+    void failedToRunTimerTask(Object task, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 475, value = "Timer journal %s is truncated or corrupt after offset %d, discarding the remainder")
+    void timerJournalTruncated(File journal, long offset);
+
+    @LogMessage(level = INFO)
+    @Message(id = 476, value = "Migrated %d persistent timers of %s to the timer journal")
+    void timersMigratedToJournal(int count, String timedObjectId);
+
+    @Message(id = 477, value = "%s is not a timer journal")
+    IOException invalidTimerJournal(File journal);
+
+    @LogMessage(level = WARN)
+    @Message(id = 478, value = "Failed to compact timer journal %s, it will be compacted by a later sync")
+    void timerJournalCompactionFailed(@Cause Throwable cause, File journal);
+
+    @Message(id = 479, value = "Timer journal %s can no longer be written, due to a previous failure")
+    IOException timerJournalFailed(@Cause Throwable cause, File journal);
+
 }
@@ -0,0 +1,297 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.Pool;
+
+/**
+ * A {@link Pool} that limits the number of concurrently active instances of another pool to a limit it adapts to the
+ * observed load, between 1 and the max size of that pool.
+ * <p/>
+ * It is meant for message-driven beans, where the concurrency is otherwise fixed by the pool size and the sessions
+ * of the resource adapter: a delivery that is over the limit waits (for at most the acquisition timeout) in
+ * {@link #get()}, which holds back the resource adapter thread, and with it the session.
+ * <p/>
+ * The limit is adjusted once per window of completed invocations, using additive increase and multiplicative decrease:
+ * <ul>
+ * <li>if the average processing time of the window exceeds {@link #LATENCY_TOLERANCE} times the baseline, that is the
+ * lowest average processing time seen so far, the limit is decreased by a quarter, as whatever the bean depends on
+ * (a datasource, a downstream service) is saturated, and more concurrency would only add to the queueing there;</li>
+ * <li>otherwise, if deliveries had to wait for the limit during the window, there is a backlog, and the limit is
+ * increased by one.</li>
+ * </ul>
+ * The baseline slowly follows higher processing times, so that a permanent change in the cost of an invocation is
+ * eventually accepted as the new normal.
+ * <p/>
+ * The processing time is measured between {@link #get()} and {@link #release(Object)}, which must be called by the
+ * same thread, as {@link org.jboss.as.ejb3.component.pool.PooledInstanceInterceptor} does.
+ */
+public class AdaptiveConcurrencyPool<T> implements Pool<T> {
+
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final int MIN_WINDOW = 10;
+
+    private final Pool<T> pool;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = this.lock.newCondition();
+    // guarded by lock
+    private int limit;
+    private int active;
+    private int waiting;
+    private int samples;
+    private long latencySum;
+    private boolean backlog;
+    private double baseline = Double.NaN;
+
+    private final AtomicLong increaseCount = new AtomicLong();
+    private final AtomicLong decreaseCount = new AtomicLong();
+
+    private final ThreadLocal<long[]> startTime = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[] { -1L };
+        }
+    };
+
+    public AdaptiveConcurrencyPool(final Pool<T> pool, final long timeout, final TimeUnit timeUnit) {
+        this.pool = pool;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // start without restricting the pool, the limit only comes down under load
+        this.limit = pool.getMaxSize();
+    }
+
+    @Override
+    public T get() {
+        this.acquire();
+        T instance = null;
+        try {
+            instance = this.pool.get();
+        } finally {
+            if (instance == null) {
+                this.complete(-1L);
+            }
+        }
+        this.startTime.get()[0] = System.nanoTime();
+        return instance;
+    }
+
+    @Override
+    public void release(final T obj) {
+        try {
+            this.pool.release(obj);
+        } finally {
+            this.complete(this.elapsed());
+        }
+    }
+
+    @Override
+    public void discard(final T obj) {
+        try {
+            this.pool.discard(obj);
+        } finally {
+            // a failed invocation says nothing reliable about the load
+            this.elapsed();
+            this.complete(-1L);
+        }
+    }
+
+    private long elapsed() {
+        final long[] start = this.startTime.get();
+        final long elapsed = (start[0] < 0L) ? -1L : System.nanoTime() - start[0];
+        start[0] = -1L;
+        return elapsed;
+    }
+
+    private void acquire() {
+        this.lock.lock();
+        try {
+            if (this.active < this.limit()) {
+                this.active++;
+                return;
+            }
+            this.backlog = true;
+            this.waiting++;
+            try {
+                long remaining = this.timeUnit.toNanos(this.timeout);
+                while (this.active >= this.limit()) {
+                    if (remaining <= 0L) {
+                        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+                    }
+                    remaining = this.available.awaitNanos(remaining);
+                }
+                this.active++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            } finally {
+                this.waiting--;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @param latency the processing time of the invocation, or a negative value if it should not be sampled
+     */
+    private void complete(final long latency) {
+        this.lock.lock();
+        try {
+            this.active--;
+            if (latency >= 0L) {
+                this.sample(latency);
+            }
+            this.available.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // guarded by lock
+    private void sample(final long latency) {
+        this.latencySum += latency;
+        this.samples++;
+        if (this.samples < Math.max(MIN_WINDOW, this.limit)) {
+            return;
+        }
+        final double average = (double) this.latencySum / this.samples;
+        final boolean backlog = this.backlog;
+        this.samples = 0;
+        this.latencySum = 0L;
+        this.backlog = this.waiting > 0;
+
+        if (Double.isNaN(this.baseline) || average < this.baseline) {
+            this.baseline = average;
+        } else {
+            this.baseline += (average - this.baseline) / 16;
+        }
+        final int max = this.pool.getMaxSize();
+        final int limit = Math.min(this.limit, max);
+        if (average > LATENCY_TOLERANCE * this.baseline) {
+            final int decreased = Math.max(1, limit - Math.max(1, limit / 4));
+            if (decreased < limit) {
+                this.limit = decreased;
+                this.decreaseCount.incrementAndGet();
+                EjbLogger.ROOT_LOGGER.tracef("Decreased concurrency of %s to %d, average processing time %.0fns, baseline %.0fns", this, decreased, average, this.baseline);
+            }
+        } else if (backlog && limit < max) {
+            this.limit = limit + 1;
+            this.increaseCount.incrementAndGet();
+            // let one more waiting invocation in
+            this.available.signal();
+            EjbLogger.ROOT_LOGGER.tracef("Increased concurrency of %s to %d", this, this.limit);
+        }
+    }
+
+    // guarded by lock
+    private int limit() {
+        return Math.min(this.limit, this.pool.getMaxSize());
+    }
+
+    /**
+     * @return the current number of instances that may be active at the same time
+     */
+    public int getConcurrencyLimit() {
+        this.lock.lock();
+        try {
+            return this.limit();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of invocations waiting for the concurrency limit
+     */
+    public int getWaitingCount() {
+        this.lock.lock();
+        try {
+            return this.waiting;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many times the concurrency limit was increased
+     */
+    public long getIncreaseCount() {
+        return this.increaseCount.get();
+    }
+
+    /**
+     * @return how many times the concurrency limit was decreased
+     */
+    public long getDecreaseCount() {
+        return this.decreaseCount.get();
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return this.pool.getAvailableCount();
+    }
+
+    @Override
+    public int getCreateCount() {
+        return this.pool.getCreateCount();
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.pool.getCurrentSize();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return this.pool.getMaxSize();
+    }
+
+    @Override
+    public int getRemoveCount() {
+        return this.pool.getRemoveCount();
+    }
+
+    @Override
+    public void setMaxSize(final int maxSize) {
+        this.pool.setMaxSize(maxSize);
+    }
+
+    @Override
+    public void start() {
+        this.pool.start();
+    }
+
+    @Override
+    public void stop() {
+        this.pool.stop();
+    }
+}
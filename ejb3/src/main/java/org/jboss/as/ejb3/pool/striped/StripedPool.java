@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, whose permits and idle instances are split into a number of stripes.
+ * <p/>
+ * Each thread is mapped to a home stripe, and takes its permit and its instance from that stripe. Only if the home
+ * stripe is exhausted are the other stripes visited (work stealing), so under normal load threads running on different
+ * cores do not contend on the same permit counter or queue. The total number of permits across all stripes is
+ * <code>maxSize</code>, which gives the same strict upper bound on active instances as
+ * {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}. Threads only block, for at most the configured timeout,
+ * once every stripe is out of permits.
+ */
+public class StripedPool<T> extends AbstractPool<T> {
+
+    private final Stripe<T>[] stripes;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit once all stripes have been exhausted.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * Slow path used when no stripe has a permit left. A releasing thread only takes this lock when
+     * {@link #waiters} is non zero, so the uncontended path never touches it.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public StripedPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // never create a stripe without at least one permit
+        final int stripeCount = Math.max(1, Math.min(concurrency, maxSize));
+        this.stripes = new Stripe[stripeCount];
+        final int permitsPerStripe = maxSize / stripeCount;
+        final int remainder = maxSize % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe<T>(i < remainder ? permitsPerStripe + 1 : permitsPerStripe);
+        }
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        releasePermit(homeStripe());
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        int available = 0;
+        for (Stripe<T> stripe : stripes) {
+            available += stripe.permits.get();
+        }
+        return available;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        final int home = homeStripe();
+        if (!tryAcquirePermit(home)) {
+            acquirePermit(home);
+        }
+
+        T bean = pollInstance(home);
+        if (bean != null) {
+            //we found a bean instance in the pool, return it
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                releasePermit(home);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", getAvailableCount(), maxSize, this);
+        }
+
+        final int home = homeStripe();
+        stripes[home].instances.add(obj);
+
+        releasePermit(home);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        releasePermit(homeStripe());
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (Stripe<T> stripe : stripes) {
+            for (T obj = stripe.instances.poll(); obj != null; obj = stripe.instances.poll()) {
+                destroy(obj);
+            }
+        }
+    }
+
+    private int homeStripe() {
+        final long id = Thread.currentThread().getId();
+        // spread the thread ids, which are usually sequential
+        final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 1) % stripes.length;
+    }
+
+    /**
+     * Attempts to take a permit from the home stripe and then from each of the other stripes, without blocking.
+     */
+    private boolean tryAcquirePermit(int home) {
+        for (int i = 0; i < stripes.length; i++) {
+            if (stripes[(home + i) % stripes.length].tryAcquire()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void acquirePermit(int home) {
+        long remaining = timeUnit.toNanos(timeout);
+        lock.lock();
+        try {
+            // advertise the wait before the re-check, so a concurrent release either makes its permit
+            // visible to the re-check or sees the waiter and signals it
+            waiters.incrementAndGet();
+            try {
+                while (!tryAcquirePermit(home)) {
+                    if (remaining <= 0L) {
+                        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(timeout, timeUnit);
+                    }
+                    remaining = permitAvailable.awaitNanos(remaining);
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releasePermit(int home) {
+        stripes[home].permits.incrementAndGet();
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                permitAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private T pollInstance(int home) {
+        for (int i = 0; i < stripes.length; i++) {
+            final T bean = stripes[(home + i) % stripes.length].instances.poll();
+            if (bean != null) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    private static final class Stripe<T> {
+        final AtomicInteger permits;
+        final Queue<T> instances = new ConcurrentLinkedQueue<T>();
+
+        Stripe(int permits) {
+            this.permits = new AtomicInteger(permits);
+        }
+
+        boolean tryAcquire() {
+            for (;;) {
+                final int current = permits.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (permits.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -36,6 +36,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.ejb.AsyncResult;
@@ -74,7 +76,6 @@ import org.jboss.ejb.client.StatefulEJBLocator;
 import org.jboss.ejb.client.TransactionID;
 import org.jboss.ejb.client.remoting.NetworkUtil;
 import org.jboss.invocation.InterceptorContext;
-import org.jboss.marshalling.cloner.ClassLoaderClassCloner;
 import org.jboss.marshalling.cloner.ClonerConfiguration;
 import org.jboss.marshalling.cloner.ObjectCloner;
 import org.jboss.marshalling.cloner.ObjectCloners;
@@ -104,6 +105,16 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
 
     private static final Object[] EMPTY_OBJECT_ARRAY = {};
 
+    /**
+     * The class cloners for results, which clone into the class loader of the invoked proxy
+     */
+    private static final ClassValue<LocalInvocationClassCloner> RESULT_CLASS_CLONERS = new ClassValue<LocalInvocationClassCloner>() {
+        @Override
+        protected LocalInvocationClassCloner computeValue(final Class<?> proxyClass) {
+            return new LocalInvocationClassCloner(WildFlySecurityManager.getClassLoaderPrivileged(proxyClass));
+        }
+    };
+
     final List<EJBReceiverContext> contexts = new CopyOnWriteArrayList<EJBReceiverContext>();
     private final InjectedValue<DeploymentRepository> deploymentRepository = new InjectedValue<DeploymentRepository>();
     @SuppressWarnings("rawtypes")
@@ -113,6 +124,10 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<>();
     private final InjectedValue<EJBRemoteConnectorService> ejbRemoteConnectorServiceValue = new InjectedValue<>();
     private final Set<ClusterTopologyUpdateListener> clusterTopologyUpdateListeners = Collections.synchronizedSet(new HashSet<ClusterTopologyUpdateListener>());
+    /**
+     * The class cloners for parameters, by deployment class loader. Cleared whenever a deployment goes away.
+     */
+    private final ConcurrentMap<ClassLoader, LocalInvocationClassCloner> parameterClassCloners = new ConcurrentHashMap<>();
 
 
     public LocalEjbReceiver(final String nodeName, final boolean allowPassByReference) {
@@ -149,9 +164,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         if (!ejb.isRemoteView(viewClass.getName())) {
             throw EjbLogger.ROOT_LOGGER.viewNotFound(viewClass.getName(), ejb.getEjbName());
         }
-        final ClonerConfiguration paramConfig = new ClonerConfiguration();
-        paramConfig.setClassCloner(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()));
-        final ObjectCloner parameterCloner = createCloner(paramConfig);
+        final InvocationCloner parameterCloner = new InvocationCloner(this.getParameterClassCloner(ejb.getDeploymentClassLoader()), allowPassByReference);
         //TODO: this is not very efficient
         final Method method = view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
 
@@ -163,7 +176,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         } else {
             parameters = new Object[invocation.getParameters().length];
             for (int i = 0; i < parameters.length; ++i) {
-                parameters[i] = clone(method.getParameterTypes()[i], parameterCloner, invocation.getParameters()[i], allowPassByReference);
+                parameters[i] = parameterCloner.clone(method.getParameterTypes()[i], invocation.getParameters()[i]);
             }
         }
 
@@ -210,9 +223,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
             interceptorContext.putPrivateData(EntityBeanComponent.PRIMARY_KEY_CONTEXT_KEY, primaryKey);
         }
 
-        final ClonerConfiguration config = new ClonerConfiguration();
-        config.setClassCloner(new LocalInvocationClassCloner(WildFlySecurityManager.getClassLoaderPrivileged(invocation.getInvokedProxy().getClass())));
-        final ObjectCloner resultCloner = createCloner(config);
+        final InvocationCloner resultCloner = new InvocationCloner(RESULT_CLASS_CLONERS.get(invocation.getInvokedProxy().getClass()), allowPassByReference);
         if (async) {
             if (ejbComponent instanceof SessionBeanComponent) {
                 final SessionBeanComponent component = (SessionBeanComponent) ejbComponent;
@@ -236,12 +247,12 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
                                 if(asyncValue == null) {
                                     return asyncValue;
                                 }
-                                return new AsyncResult(LocalEjbReceiver.clone(asyncValue.getClass(), resultCloner, asyncValue, allowPassByReference));
+                                return new AsyncResult(resultCloner.clone(asyncValue.getClass(), asyncValue));
                             }
-                            return LocalEjbReceiver.clone(result.getClass(), resultCloner, result, allowPassByReference);
+                            return resultCloner.clone(result.getClass(), result);
                         } catch(ExecutionException e) {
                             // WFLY-4331 - clone the exception of an async task
-                            throw ((Exception) LocalEjbReceiver.clone(e.getClass(), resultCloner, e, allowPassByReference));
+                            throw ((Exception) resultCloner.clone(e.getClass(), e));
                         } finally {
                             clearSecurityContextOnAssociation();
                         }
@@ -260,17 +271,30 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
             } catch (Exception e) {
                 //we even have to clone the exception type
                 //to make sure it matches
-                throw (Exception) clone(Exception.class, resultCloner, e, allowPassByReference);
+                throw (Exception) resultCloner.clone(Exception.class, e);
             }
             //we do not marshal the return type unless we have to, the spec only says we have to
             //pass parameters by reference
             //TODO: investigate the implications of this further
-            final Object clonedResult = clone(invocation.getInvokedMethod().getReturnType(), resultCloner, result, allowPassByReference);
+            final Object clonedResult = resultCloner.clone(invocation.getInvokedMethod().getReturnType(), result);
             receiverContext.resultReady(new ImmediateResultProducer(clonedResult));
         }
     }
 
-    private ObjectCloner createCloner(final ClonerConfiguration paramConfig) {
+    private LocalInvocationClassCloner getParameterClassCloner(final ClassLoader deploymentClassLoader) {
+        LocalInvocationClassCloner cloner = this.parameterClassCloners.get(deploymentClassLoader);
+        if (cloner == null) {
+            // parameter classes must be found in the deployment, there is no fall back
+            cloner = new LocalInvocationClassCloner(deploymentClassLoader, false);
+            final LocalInvocationClassCloner existing = this.parameterClassCloners.putIfAbsent(deploymentClassLoader, cloner);
+            if (existing != null) {
+                cloner = existing;
+            }
+        }
+        return cloner;
+    }
+
+    private static ObjectCloner createCloner(final ClonerConfiguration paramConfig) {
         ObjectCloner parameterCloner;
         if(WildFlySecurityManager.isChecking()) {
             parameterCloner = WildFlySecurityManager.doUnchecked(new PrivilegedAction<ObjectCloner>() {
@@ -297,38 +321,77 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         return new StatefulEJBLocator<T>(viewType, appName, moduleName, beanName, distinctName, sessionID, statefulComponent.getCache().getStrictAffinity(), this.getNodeName());
     }
 
-    private static Object clone(final Class<?> target, final ObjectCloner cloner, final Object object, final boolean allowPassByReference) {
-        if (object == null) {
-            return null;
-        }
-        // don't clone primitives
-        if (target.isPrimitive()) {
-            return object;
-        }
-        if (allowPassByReference && target.isAssignableFrom(object.getClass())) {
-            return object;
-        }
-        return clone(cloner, object);
-    }
+    /**
+     * Clones the parameters or the result of a single invocation into the class loader of its {@link LocalInvocationClassCloner}.
+     * <p/>
+     * Immutable JDK values are passed as is, and enum constants are looked up in the destination class, so the
+     * (comparatively expensive) serializing cloner is only created once an object actually needs to be copied. An
+     * instance must not be used by multiple threads at the same time.
+     */
+    static final class InvocationCloner {
+        private final LocalInvocationClassCloner classCloner;
+        private final boolean allowPassByReference;
+        private ObjectCloner cloner;
 
-    private static Object clone(final ObjectCloner cloner, final Object object) {
-        if (object == null) {
-            return null;
+        InvocationCloner(final LocalInvocationClassCloner classCloner, final boolean allowPassByReference) {
+            this.classCloner = classCloner;
+            this.allowPassByReference = allowPassByReference;
         }
 
-        try {
-            if(WildFlySecurityManager.isChecking()) {
-                return WildFlySecurityManager.doUnchecked(new PrivilegedExceptionAction<Object>() {
+        Object clone(final Class<?> target, final Object object) {
+            if (object == null) {
+                return null;
+            }
+            // don't clone primitives
+            if (target.isPrimitive()) {
+                return object;
+            }
+            final Class<?> type = object.getClass();
+            if (allowPassByReference && target.isAssignableFrom(type)) {
+                return object;
+            }
+            if (LocalInvocationClassCloner.isImmutable(type)) {
+                return object;
+            }
+            try {
+                if (object instanceof Enum) {
+                    final Enum<?> constant = (Enum<?>) object;
+                    final Class<?> enumType = constant.getDeclaringClass();
+                    final Class<?> clonedType = privileged(new PrivilegedExceptionAction<Class<?>>() {
+                        @Override
+                        public Class<?> run() throws IOException, ClassNotFoundException {
+                            return classCloner.clone(enumType);
+                        }
+                    });
+                    return (clonedType == enumType) ? object : valueOf(clonedType, constant.name());
+                }
+                if (this.cloner == null) {
+                    final ClonerConfiguration config = new ClonerConfiguration();
+                    config.setClassCloner(this.classCloner);
+                    this.cloner = createCloner(config);
+                }
+                final ObjectCloner cloner = this.cloner;
+                return privileged(new PrivilegedExceptionAction<Object>() {
                     @Override
                     public Object run() throws IOException, ClassNotFoundException {
                         return cloner.clone(object);
                     }
                 });
-            } else {
-                return cloner.clone(object);
+            } catch (Exception e) {
+                throw EjbLogger.ROOT_LOGGER.failedToMarshalEjbParameters(e);
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static Object valueOf(final Class<?> enumType, final String name) {
+            return Enum.valueOf((Class<? extends Enum>) enumType, name);
+        }
+
+        private static <T> T privileged(final PrivilegedExceptionAction<T> action) throws Exception {
+            if (WildFlySecurityManager.isChecking()) {
+                return WildFlySecurityManager.doUnchecked(action);
             }
-        } catch (Exception e) {
-            throw EjbLogger.ROOT_LOGGER.failedToMarshalEjbParameters(e);
+            return action.run();
         }
     }
 
@@ -592,6 +655,8 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         @Override
         public void deploymentRemoved(final DeploymentModuleIdentifier deployment) {
             LocalEjbReceiver.this.deregisterModule(deployment.getApplicationName(), deployment.getModuleName(), deployment.getDistinctName());
+            // don't hold on to the class loader of the removed deployment
+            LocalEjbReceiver.this.parameterClassCloners.clear();
         }
     }
 
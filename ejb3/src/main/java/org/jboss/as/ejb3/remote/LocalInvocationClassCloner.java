@@ -19,26 +19,58 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.jboss.as.ejb3.remote;
 
 import java.io.IOException;
 import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.marshalling.cloner.ClassCloner;
 
 /**
  * {@link ClassCloner} that clones classes between class loaders, falling back
  * to original class if it cannot be found in the destination class loader.
+ * <p/>
+ * The classes resolved in the destination class loader are remembered, so each class only needs to be looked up once
+ * per cloner. A fall back to the original class is not remembered, so the cloner never pins a class of the source
+ * class loader.
  *
  * @author Stuart Douglas
  */
 public class LocalInvocationClassCloner implements ClassCloner {
 
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Collections.unmodifiableSet(new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, UUID.class)));
+
     private final ClassLoader destClassLoader;
+    private final boolean fallBackToOriginal;
+    private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<>();
 
     public LocalInvocationClassCloner(final ClassLoader destClassLoader) {
+        this(destClassLoader, true);
+    }
+
+    /**
+     * @param destClassLoader the class loader to clone classes into
+     * @param fallBackToOriginal whether to use the original class if it cannot be found in the destination class loader,
+     *                           instead of failing with a {@link ClassNotFoundException}
+     */
+    public LocalInvocationClassCloner(final ClassLoader destClassLoader, final boolean fallBackToOriginal) {
         this.destClassLoader = destClassLoader;
+        this.fallBackToOriginal = fallBackToOriginal;
+    }
+
+    public ClassLoader getDestinationClassLoader() {
+        return destClassLoader;
     }
 
     public Class<?> clone(final Class<?> original) throws IOException, ClassNotFoundException {
@@ -48,11 +80,21 @@ public class LocalInvocationClassCloner implements ClassCloner {
         } else if (original.getClassLoader() == destClassLoader) {
             return original;
         } else {
+            final Class<?> cached = classes.get(name);
+            if (cached != null) {
+                return cached;
+            }
+            final Class<?> clone;
             try {
-                return Class.forName(name, true, destClassLoader);
+                clone = Class.forName(name, true, destClassLoader);
             } catch (ClassNotFoundException e) {
-                return original;
+                if (fallBackToOriginal) {
+                    return original;
+                }
+                throw e;
             }
+            classes.putIfAbsent(name, clone);
+            return clone;
         }
     }
 
@@ -64,4 +106,19 @@ public class LocalInvocationClassCloner implements ClassCloner {
         }
         return Proxy.getProxyClass(destClassLoader, interfaces);
     }
+
+    /**
+     * Whether instances of the given class are immutable, and only reference immutable state of the JDK, so they can be
+     * shared between class loaders instead of being cloned.
+     *
+     * @param type the exact class of an object
+     * @return true if the object can be passed as is
+     */
+    static boolean isImmutable(final Class<?> type) {
+        if (IMMUTABLE_TYPES.contains(type)) {
+            return true;
+        }
+        // every class of the java.time API is immutable, and cannot be replaced by a deployment
+        return type.getClassLoader() == null && type.getName().startsWith("java.time.");
+    }
 }
@@ -42,6 +42,8 @@ public class ChannelAssociation {
     // to make sure that only a limited number of simultaneous writes are allowed
     private final Semaphore channelWriteSemaphore;
 
+    private final ChannelInvocationCache invocationCache = new ChannelInvocationCache();
+
     public ChannelAssociation(final Channel channel) {
         this.channel = channel;
 
@@ -92,4 +94,11 @@ public class ChannelAssociation {
         return this.channel;
     }
 
+    /**
+     * @return the state which method invocations on this channel can reuse
+     */
+    public ChannelInvocationCache getInvocationCache() {
+        return this.invocationCache;
+    }
+
 }
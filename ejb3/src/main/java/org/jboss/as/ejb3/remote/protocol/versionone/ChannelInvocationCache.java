@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * State that the {@link MethodInvocationMessageHandler} keeps for the lifetime of a channel, so that repeated invocations
+ * over the same channel don't have to create it again.
+ * <p/>
+ * This holds the unmarshaller for invocation requests, which are read one at a time, a small pool of marshallers for
+ * the responses, which are written concurrently, and a table of the methods and method signatures that have already
+ * been resolved. River marshallers and unmarshallers clear their instance and class caches in
+ * {@link Marshaller#finish()}, so they can be reused for the next message once finished. A marshaller or unmarshaller
+ * that failed midway must not be returned.
+ * <p/>
+ * The resolved methods refer to the {@link ComponentView} they belong to, so the table must be {@link #clear() cleared}
+ * whenever a deployment is removed.
+ */
+public class ChannelInvocationCache {
+
+    private static final int MAX_POOLED_MARSHALLERS = 8;
+    private static final String[] NO_PARAMS = new String[0];
+    // bounds the tables, should a client keep sending different signatures
+    private static final int MAX_ENTRIES = 4096;
+
+    private final AtomicReference<RequestUnmarshaller> unmarshaller = new AtomicReference<>();
+    private final Queue<Marshaller> marshallers = new ArrayBlockingQueue<>(MAX_POOLED_MARSHALLERS);
+    private final ConcurrentMap<String, String[]> signatures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MethodKey, Method> methods = new ConcurrentHashMap<>();
+
+    /**
+     * @return a previously released request unmarshaller, or null if there is none
+     */
+    RequestUnmarshaller pollUnmarshaller() {
+        return this.unmarshaller.getAndSet(null);
+    }
+
+    /**
+     * @param unmarshaller a finished request unmarshaller, which can be reused
+     */
+    void releaseUnmarshaller(final RequestUnmarshaller unmarshaller) {
+        this.unmarshaller.set(unmarshaller);
+    }
+
+    /**
+     * @return a previously released response marshaller, or null if there is none
+     */
+    Marshaller pollMarshaller() {
+        return this.marshallers.poll();
+    }
+
+    /**
+     * @param marshaller a finished response marshaller, which can be reused
+     */
+    void releaseMarshaller(final Marshaller marshaller) {
+        // if the pool is full, the marshaller is just dropped
+        this.marshallers.offer(marshaller);
+    }
+
+    /**
+     * Returns the parameter types of the passed comma separated method signature. The returned array is shared, and must
+     * not be modified.
+     *
+     * @param signature the signature, as sent by the client
+     * @return the parameter type names
+     */
+    String[] getParamTypes(final String signature) {
+        if (signature.isEmpty()) {
+            return NO_PARAMS;
+        }
+        String[] paramTypes = this.signatures.get(signature);
+        if (paramTypes == null) {
+            paramTypes = signature.split(",");
+            if (this.signatures.size() < MAX_ENTRIES) {
+                this.signatures.putIfAbsent(signature, paramTypes);
+            }
+        }
+        return paramTypes;
+    }
+
+    Method getMethod(final ComponentView view, final String methodName, final String signature) {
+        return this.methods.get(new MethodKey(view, methodName, signature));
+    }
+
+    void putMethod(final ComponentView view, final String methodName, final String signature, final Method method) {
+        if (this.methods.size() < MAX_ENTRIES) {
+            this.methods.putIfAbsent(new MethodKey(view, methodName, signature), method);
+        }
+    }
+
+    /**
+     * Forgets the resolved methods, so that the views of a removed deployment are not retained
+     */
+    public void clear() {
+        this.methods.clear();
+    }
+
+    /**
+     * An unmarshaller, along with the class resolver it was configured with
+     */
+    static final class RequestUnmarshaller {
+        final Unmarshaller unmarshaller;
+        final ClassLoaderSwitchingClassResolver classResolver;
+
+        RequestUnmarshaller(final Unmarshaller unmarshaller, final ClassLoaderSwitchingClassResolver classResolver) {
+            this.unmarshaller = unmarshaller;
+            this.classResolver = classResolver;
+        }
+    }
+
+    private static final class MethodKey {
+        private final ComponentView view;
+        private final String methodName;
+        private final String signature;
+
+        MethodKey(final ComponentView view, final String methodName, final String signature) {
+            this.view = view;
+            this.methodName = methodName;
+            this.signature = signature;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof MethodKey)) {
+                return false;
+            }
+            final MethodKey key = (MethodKey) object;
+            return (this.view == key.view) && this.methodName.equals(key.methodName) && this.signature.equals(key.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(this.view) * 31 + this.methodName.hashCode()) * 31 + this.signature.hashCode();
+        }
+    }
+}
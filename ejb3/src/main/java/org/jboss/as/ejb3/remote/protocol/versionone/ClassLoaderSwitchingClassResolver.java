@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import org.jboss.marshalling.AbstractClassResolver;
+
+/**
+ * A mutable {@link org.jboss.marshalling.ClassResolver}, which allows switching to a different (and correct deployment)
+ * class loader midway through the unmarshalling of a stream
+ */
+class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
+
+    private volatile ClassLoader currentClassLoader;
+
+    ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
+        this.currentClassLoader = classLoader;
+    }
+
+    /**
+     * Sets the passed <code>newCL</code> as the classloader which will be returned on
+     * subsequent calls to {@link #getClassLoader()}
+     *
+     * @param newCL
+     */
+    void switchClassLoader(final ClassLoader newCL) {
+        this.currentClassLoader = newCL;
+    }
+
+    @Override
+    protected ClassLoader getClassLoader() {
+        return this.currentClassLoader;
+    }
+}
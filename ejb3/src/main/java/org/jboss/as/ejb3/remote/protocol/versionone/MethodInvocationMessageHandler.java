@@ -42,7 +42,6 @@ import org.jboss.ejb.client.EntityEJBLocator;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.ejb.client.StatefulEJBLocator;
 import org.jboss.invocation.InterceptorContext;
-import org.jboss.marshalling.AbstractClassResolver;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Unmarshaller;
@@ -68,8 +67,6 @@ import java.util.concurrent.Future;
  */
 public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
 
-    private static final char METHOD_PARAM_TYPE_SEPARATOR = ',';
-
     private static final byte HEADER_METHOD_INVOCATION_RESPONSE = 0x05;
     private static final byte HEADER_ASYNC_METHOD_NOTIFICATION = 0x0E;
 
@@ -92,22 +89,26 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
         // read the invocation id
         final short invocationId = input.readShort();
 
+        final ChannelInvocationCache invocationCache = channelAssociation.getInvocationCache();
         // read the method name
         final String methodName = input.readUTF();
         // method signature
-        String[] methodParamTypes = null;
         final String signature = input.readUTF();
-        if (signature.isEmpty()) {
-            methodParamTypes = new String[0];
-        } else {
-            methodParamTypes = signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
-        }
+        final String[] methodParamTypes = invocationCache.getParamTypes(signature);
 
         // read the Locator
         // we use a mutable ClassResolver, so that we can switch to a different (and correct deployment CL)
         // midway through the unmarshalling of the stream
-        final ClassLoaderSwitchingClassResolver classResolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
-        final Unmarshaller unmarshaller = this.prepareForUnMarshalling(this.marshallerFactory, classResolver, input);
+        ChannelInvocationCache.RequestUnmarshaller requestUnmarshaller = invocationCache.pollUnmarshaller();
+        if (requestUnmarshaller == null) {
+            final ClassLoaderSwitchingClassResolver resolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
+            requestUnmarshaller = new ChannelInvocationCache.RequestUnmarshaller(this.getUnMarshaller(this.marshallerFactory, resolver), resolver);
+        } else {
+            requestUnmarshaller.classResolver.switchClassLoader(Thread.currentThread().getContextClassLoader());
+        }
+        final ClassLoaderSwitchingClassResolver classResolver = requestUnmarshaller.classResolver;
+        final Unmarshaller unmarshaller = requestUnmarshaller.unmarshaller;
+        this.startUnMarshalling(unmarshaller, input);
         // read the EJB info
         final String appName;
         final String moduleName;
@@ -148,7 +149,14 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
                 return;
             }
             final ComponentView componentView = ejbDeploymentInformation.getView(viewClassName);
-            final Method invokedMethod = this.findMethod(componentView, methodName, methodParamTypes);
+            Method method = invocationCache.getMethod(componentView, methodName, signature);
+            if (method == null) {
+                method = this.findMethod(componentView, methodName, methodParamTypes);
+                if (method != null) {
+                    invocationCache.putMethod(componentView, methodName, signature, method);
+                }
+            }
+            final Method invokedMethod = method;
             if (invokedMethod == null) {
                 this.writeNoSuchEJBMethodFailureMessage(channelAssociation, invocationId, appName, moduleName, distinctName, beanName, viewClassName, methodName, methodParamTypes);
                 return;
@@ -178,6 +186,9 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
             }
             // done with unmarshalling
             unmarshaller.finish();
+            // the unmarshaller is only reused once it has cleanly finished
+            classResolver.switchClassLoader(null);
+            invocationCache.releaseUnmarshaller(requestUnmarshaller);
 
             runnable = new Runnable() {
 
@@ -370,12 +381,18 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
             // write the invocation id
             outputStream.writeShort(invocationId);
             // write out the result
-            final Marshaller marshaller = this.prepareForMarshalling(this.marshallerFactory, outputStream);
+            final ChannelInvocationCache invocationCache = channelAssociation.getInvocationCache();
+            Marshaller marshaller = invocationCache.pollMarshaller();
+            if (marshaller == null) {
+                marshaller = this.getMarshaller(this.marshallerFactory);
+            }
+            this.startMarshalling(marshaller, outputStream);
             marshaller.writeObject(result);
             // write the attachments
             this.writeAttachments(marshaller, attachments);
             // finish marshalling
             marshaller.finish();
+            invocationCache.releaseMarshaller(marshaller);
         } finally {
             IoUtils.safeClose(outputStream);
             IoUtils.safeClose(messageOutputStream);
@@ -407,31 +424,4 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
             outputStream.close();
         }
     }
-
-    /**
-     * A mutable {@link org.jboss.marshalling.ClassResolver}
-     */
-    private class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
-
-        private ClassLoader currentClassLoader;
-
-        ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
-            this.currentClassLoader = classLoader;
-        }
-
-        /**
-         * Sets the passed <code>newCL</code> as the classloader which will be returned on
-         * subsequent calls to {@link #getClassLoader()}
-         *
-         * @param newCL
-         */
-        void switchClassLoader(final ClassLoader newCL) {
-            this.currentClassLoader = newCL;
-        }
-
-        @Override
-        protected ClassLoader getClassLoader() {
-            return this.currentClassLoader;
-        }
-    }
 }
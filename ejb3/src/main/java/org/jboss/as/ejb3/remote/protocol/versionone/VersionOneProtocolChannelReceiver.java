@@ -242,6 +242,8 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
     @Override
     public void deploymentRemoved(DeploymentModuleIdentifier deploymentModuleIdentifier) {
+        // the removed deployment's views must not be retained
+        this.channelAssociation.getInvocationCache().clear();
         try {
             this.sendModuleUnAvailability(new DeploymentModuleIdentifier[] {deploymentModuleIdentifier});
         } catch (IOException e) {
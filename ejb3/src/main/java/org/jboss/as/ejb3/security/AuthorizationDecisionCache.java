@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the authorization decisions made for a single view method, keyed by the identity of the role set of the
+ * caller. Decisions are only valid for the flush generation they were made in, so that a flushed security domain
+ * forces the callers to be authorized again.
+ */
+final class AuthorizationDecisionCache {
+
+    static final int MAX_ENTRIES = 256;
+
+    private final ConcurrentMap<IdentityKey, Decision> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached decision for the role set, or {@code null} if there is none for the given generation.
+     */
+    Boolean get(final Object roles, final int generation) {
+        final IdentityKey key = new IdentityKey(roles);
+        final Decision decision = decisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+        if (decision.generation != generation) {
+            decisions.remove(key, decision);
+            return null;
+        }
+        return decision.authorized;
+    }
+
+    /**
+     * Records the decision made for the role set, the generation must be read before the decision is made.
+     */
+    void put(final Object roles, final int generation, final boolean authorized) {
+        if (decisions.size() >= MAX_ENTRIES) {
+            // role sets belong to authenticated subjects that come and go, start over rather than track their use
+            decisions.clear();
+        }
+        decisions.put(new IdentityKey(roles), new Decision(generation, authorized));
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    private static final class Decision {
+        final int generation;
+        final boolean authorized;
+
+        Decision(final int generation, final boolean authorized) {
+            this.generation = generation;
+            this.authorized = authorized;
+        }
+    }
+
+    private static final class IdentityKey {
+        private final Object value;
+
+        IdentityKey(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
@@ -28,10 +28,12 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.security.ProtectionDomain;
+import java.security.acl.Group;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.security.auth.Subject;
 import javax.security.jacc.PolicyContext;
 
 import org.jboss.as.core.security.ServerSecurityManager;
@@ -40,11 +42,14 @@ import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.MethodIntf;
+import org.jboss.as.security.plugins.AuthenticationCacheFlushes;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.metadata.ejb.spec.MethodInterfaceType;
 import org.jboss.security.AnybodyPrincipal;
 import org.jboss.security.NobodyPrincipal;
+import org.jboss.security.SecurityContext;
+import org.jboss.security.SecurityContextAssociation;
 import org.jboss.security.SimplePrincipal;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -56,6 +61,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class AuthorizationInterceptor implements Interceptor {
 
+    private static final String ROLES_GROUP = "Roles";
+
     /**
      * EJB method security metadata
      */
@@ -76,6 +83,16 @@ public class AuthorizationInterceptor implements Interceptor {
      */
     private final String contextID;
 
+    /**
+     * The roles allowed to invoke the view method, as principals
+     */
+    private final Set<Principal> methodRoles;
+
+    /**
+     * The decisions already made for the role sets of cached callers
+     */
+    private final AuthorizationDecisionCache decisions = new AuthorizationDecisionCache();
+
     public AuthorizationInterceptor(final EJBMethodSecurityAttribute ejbMethodSecurityMetaData, final String viewClassName, final Method viewMethod, final String contextID) {
         if (ejbMethodSecurityMetaData == null) {
             throw EjbLogger.ROOT_LOGGER.ejbMethodSecurityMetaDataIsNull();
@@ -90,6 +107,7 @@ public class AuthorizationInterceptor implements Interceptor {
         this.viewClassName = viewClassName;
         this.viewMethod = viewMethod;
         this.contextID = contextID;
+        this.methodRoles = createMethodRoles(ejbMethodSecurityMetaData);
     }
 
     @Override
@@ -106,6 +124,36 @@ public class AuthorizationInterceptor implements Interceptor {
             throw EjbLogger.ROOT_LOGGER.failProcessInvocation(this.getClass().getName(), invokedMethod, viewClassOfInvokedMethod, viewMethod, viewClassName);
         }
         final EJBComponent ejbComponent = (EJBComponent) component;
+        final boolean statisticsEnabled = ejbComponent.isStatisticsEnabled();
+        final long start = statisticsEnabled ? System.nanoTime() : 0L;
+        try {
+            authorize(ejbComponent, componentView, invokedMethod);
+        } finally {
+            if (statisticsEnabled) {
+                ejbComponent.getInvocationMetrics().finishAuthorization(System.nanoTime() - start);
+            }
+        }
+        // successful authorization, let the invocation proceed
+        return context.proceed();
+    }
+
+    private void authorize(final EJBComponent ejbComponent, final ComponentView componentView, final Method invokedMethod) throws Exception {
+        final Group roles = ejbComponent.isAuthorizationCacheEnabled() ? getCallerRoles() : null;
+        // read the generation before deciding, so that a flush racing with the decision discards it
+        final int generation = AuthenticationCacheFlushes.getGeneration();
+        Boolean authorized = roles != null ? decisions.get(roles, generation) : null;
+        if (authorized == null) {
+            authorized = isAuthorized(ejbComponent, componentView);
+            if (roles != null) {
+                decisions.put(roles, generation, authorized);
+            }
+        }
+        if (!authorized) {
+            throw EjbLogger.ROOT_LOGGER.invocationOfMethodNotAllowed(invokedMethod, ejbComponent.getComponentName());
+        }
+    }
+
+    private boolean isAuthorized(final EJBComponent ejbComponent, final ComponentView componentView) throws Exception {
         final ServerSecurityManager securityManager = ejbComponent.getSecurityManager();
         final MethodInterfaceType methodIntfType = this.getMethodInterfaceType(componentView.getPrivateData(MethodIntf.class));
 
@@ -114,28 +162,20 @@ public class AuthorizationInterceptor implements Interceptor {
         try {
             if(WildFlySecurityManager.isChecking()) {
                 try {
-                    AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+                    return AccessController.doPrivileged(new PrivilegedExceptionAction<Boolean>() {
                         @Override
-                        public ProtectionDomain run() {
-
-                            if (!securityManager.authorize(ejbComponent.getComponentName(), componentView.getProxyClass().getProtectionDomain().getCodeSource(),
-                                    methodIntfType.name(), AuthorizationInterceptor.this.viewMethod, AuthorizationInterceptor.this.getMethodRolesAsPrincipals(), AuthorizationInterceptor.this.contextID)) {
-                                throw EjbLogger.ROOT_LOGGER.invocationOfMethodNotAllowed(invokedMethod,ejbComponent.getComponentName());
-                            }
-                            return null;
+                        public Boolean run() {
+                            return securityManager.authorize(ejbComponent.getComponentName(), componentView.getProxyClass().getProtectionDomain().getCodeSource(),
+                                    methodIntfType.name(), AuthorizationInterceptor.this.viewMethod, AuthorizationInterceptor.this.getMethodRolesAsPrincipals(), AuthorizationInterceptor.this.contextID);
                         }
                     });
                 } catch (PrivilegedActionException e) {
                     throw e.getException();
                 }
             } else {
-                if (!securityManager.authorize(ejbComponent.getComponentName(), componentView.getProxyClass().getProtectionDomain().getCodeSource(),
-                        methodIntfType.name(), this.viewMethod, this.getMethodRolesAsPrincipals(), this.contextID)) {
-                    throw EjbLogger.ROOT_LOGGER.invocationOfMethodNotAllowed(invokedMethod,ejbComponent.getComponentName());
-                }
+                return securityManager.authorize(ejbComponent.getComponentName(), componentView.getProxyClass().getProtectionDomain().getCodeSource(),
+                        methodIntfType.name(), this.viewMethod, this.getMethodRolesAsPrincipals(), this.contextID);
             }
-            // successful authorization, let the invocation proceed
-            return context.proceed();
         }
         finally {
             // reset the previous JACC contextID.
@@ -143,6 +183,22 @@ public class AuthorizationInterceptor implements Interceptor {
         }
     }
 
+    /**
+     * <p>
+     * Returns the role group of the authenticated caller, which the security domain keeps for as long as the caller
+     * stays in its authentication cache. Returns {@code null} if the decision can't be cached, because there is no
+     * authenticated subject or the caller runs as another identity.
+     * </p>
+     *
+     * @return the role group of the caller or {@code null}
+     */
+    private static Group getCallerRoles() {
+        if (WildFlySecurityManager.isChecking()) {
+            return AccessController.doPrivileged(GetCallerRolesAction.INSTANCE);
+        }
+        return GetCallerRolesAction.INSTANCE.run();
+    }
+
     /**
      * <p>
      * Returns the method roles as a set of {@code Principal} instances. All roles specified in the method-permissions or
@@ -151,19 +207,26 @@ public class AuthorizationInterceptor implements Interceptor {
      * to the unchecked list or annotated with {@code PermitAll}, an ANYBODY_PRINCIPAL is returned.
      * </p>
      *
-     * @return the constructed set of role principals.
+     * The set is computed once, when the interceptor is created.
+     * </p>
+     *
+     * @return the immutable set of role principals.
      */
     protected Set<Principal> getMethodRolesAsPrincipals() {
+        return this.methodRoles;
+    }
+
+    private static Set<Principal> createMethodRoles(final EJBMethodSecurityAttribute ejbMethodSecurityMetaData) {
         Set<Principal> methodRoles = new HashSet<Principal>();
-        if (this.ejbMethodSecurityMetaData.isDenyAll())
+        if (ejbMethodSecurityMetaData.isDenyAll())
             methodRoles.add(NobodyPrincipal.NOBODY_PRINCIPAL);
-        else if (this.ejbMethodSecurityMetaData.isPermitAll())
+        else if (ejbMethodSecurityMetaData.isPermitAll())
             methodRoles.add(AnybodyPrincipal.ANYBODY_PRINCIPAL);
         else {
-            for (String role : this.ejbMethodSecurityMetaData.getRolesAllowed())
+            for (String role : ejbMethodSecurityMetaData.getRolesAllowed())
                 methodRoles.add(new SimplePrincipal(role));
         }
-        return methodRoles;
+        return Collections.unmodifiableSet(methodRoles);
     }
 
     /**
@@ -214,6 +277,32 @@ public class AuthorizationInterceptor implements Interceptor {
         }
     }
 
+    /**
+     * PrivilegedAction that looks up the role group of the caller in the current security context.
+     */
+    private static class GetCallerRolesAction implements PrivilegedAction<Group> {
+
+        static final GetCallerRolesAction INSTANCE = new GetCallerRolesAction();
+
+        @Override
+        public Group run() {
+            final SecurityContext securityContext = SecurityContextAssociation.getSecurityContext();
+            if (securityContext == null || securityContext.getIncomingRunAs() != null) {
+                return null;
+            }
+            final Subject subject = securityContext.getUtil().getSubject();
+            if (subject == null) {
+                return null;
+            }
+            for (Group group : subject.getPrincipals(Group.class)) {
+                if (ROLES_GROUP.equals(group.getName())) {
+                    return group;
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * PrivilegedAction that sets the {@code PolicyContext} id.
      */
@@ -365,6 +365,7 @@ class EJB3SubsystemAdd extends AbstractBoottimeAddStepHandler {
                     .install();
 
             EnableStatisticsWriteHandler.INSTANCE.updateToRuntime(context, model);
+            EnableAuthorizationCacheWriteHandler.INSTANCE.updateToRuntime(context, model);
         }
     }
 
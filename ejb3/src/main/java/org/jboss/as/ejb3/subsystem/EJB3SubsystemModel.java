@@ -58,11 +58,15 @@ public interface EJB3SubsystemModel {
     String LOG_SYSTEM_EXCEPTIONS = "log-system-exceptions";
 
     String ENABLE_STATISTICS = "enable-statistics";
+    String ENABLE_AUTHORIZATION_CACHE = "enable-authorization-cache";
 
     String FILE_DATA_STORE = "file-data-store";
+    String JOURNAL = "journal";
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
+    String ADAPTIVE_CONCURRENCY = "adaptive-concurrency";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -107,6 +111,7 @@ public interface EJB3SubsystemModel {
     @Deprecated String CLUSTER_PASSIVATION_STORE = "cluster-passivation-store";
     String BEAN_CACHE = "bean-cache";
     String CACHE_CONTAINER = "cache-container";
+    String FINE_GRAINED = "fine-grained";
     @Deprecated String CLIENT_MAPPINGS_CACHE = "client-mappings-cache";
     @Deprecated String PASSIVATE_EVENTS_ON_REPLICATE = "passivate-events-on-replicate";
 
@@ -117,6 +117,12 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
                     .setAllowExpression(true)
                     .build();
 
+    static final SimpleAttributeDefinition ENABLE_AUTHORIZATION_CACHE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.ENABLE_AUTHORIZATION_CACHE, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
     static final SimpleAttributeDefinition DEFAULT_DISTINCT_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_DISTINCT_NAME, ModelType.STRING, true)
                     .setAllowExpression(true)
@@ -183,6 +189,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
             DEFAULT_SLSB_INSTANCE_POOL,
             DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT,
             ENABLE_STATISTICS,
+            ENABLE_AUTHORIZATION_CACHE,
             PASS_BY_VALUE,
             DEFAULT_DISTINCT_NAME,
             DEFAULT_SECURITY_DOMAIN,
@@ -205,6 +212,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         resourceRegistration.registerReadWriteAttribute(DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT, null, DefaultSingletonBeanAccessTimeoutWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT, null, DefaultStatefulBeanAccessTimeoutWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(ENABLE_STATISTICS, null, EnableStatisticsWriteHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(ENABLE_AUTHORIZATION_CACHE, null, EnableAuthorizationCacheWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(PASS_BY_VALUE, null, EJBRemoteInvocationPassByValueWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_DISTINCT_NAME, null, EJBDefaultDistinctNameWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(LOG_EJB_EXCEPTIONS, null, ExceptionLoggingWriteHandler.INSTANCE);
@@ -285,9 +293,12 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // We can always discard this attribute, because it's meaningless without the security-manager subsystem, and
         // a legacy slave can't have that subsystem in its profile.
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS);
+        rejectAuthorizationCache(builder);
         //builder.getAttributeBuilder().setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode("hornetq-ra"), true), EJB3SubsystemRootResourceDefinition.DEFAULT_RESOURCE_ADAPTER_NAME);
         PassivationStoreResourceDefinition.registerTransformers_1_2_0(builder);
         TimerServiceResourceDefinition.registerTransformers_1_2_0(builder);
+        StrictMaxPoolResourceDefinition.registerTransformers_3_0_0(builder);
+        CacheFactoryResourceDefinition.registerTransformers_3_0_0(builder);
         builder.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.REMOTING_PROFILE));
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, subsystem12);
     }
@@ -299,9 +310,21 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         builder.getAttributeBuilder()
                 .setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode("hornetq-ra"), true), EJB3SubsystemRootResourceDefinition.DEFAULT_RESOURCE_ADAPTER_NAME)
         .end();
+        rejectAuthorizationCache(builder);
+        StrictMaxPoolResourceDefinition.registerTransformers_3_0_0(builder);
+        TimerServiceResourceDefinition.registerTransformers_3_0_0(builder);
+        CacheFactoryResourceDefinition.registerTransformers_3_0_0(builder);
+        PassivationStoreResourceDefinition.registerTransformers_3_0_0(builder);
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, subsystem200);
     }
 
+    private static void rejectAuthorizationCache(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_AUTHORIZATION_CACHE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_AUTHORIZATION_CACHE)
+                .end();
+    }
+
     private static class EJB3ThreadFactoryResolver extends ThreadFactoryResolver.SimpleResolver {
 
         private EJB3ThreadFactoryResolver() {
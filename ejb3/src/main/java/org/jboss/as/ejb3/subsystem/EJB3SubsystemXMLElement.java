@@ -35,6 +35,7 @@ public enum EJB3SubsystemXMLElement {
     UNKNOWN(null),
 
     ASYNC("async"),
+    AUTHORIZATION_CACHE("authorization-cache"),
 
     BEAN_INSTANCE_POOLS("bean-instance-pools"),
     BEAN_INSTANCE_POOL_REF("bean-instance-pool-ref"),
@@ -61,10 +61,11 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
         String containerName = PassivationStoreResourceDefinition.CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
         ModelNode beanCacheNode = PassivationStoreResourceDefinition.BEAN_CACHE.resolveModelAttribute(context, model);
         String cacheName = beanCacheNode.isDefined() ? beanCacheNode.asString() : null;
-        this.install(context, operation, initialMaxSize, containerName, cacheName, verificationHandler, serviceControllers);
+        boolean fineGrained = PassivationStoreResourceDefinition.FINE_GRAINED.resolveModelAttribute(context, model).asBoolean();
+        this.install(context, operation, initialMaxSize, containerName, cacheName, fineGrained, verificationHandler, serviceControllers);
     }
 
-    protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> serviceControllers) {
+    protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName, final boolean fineGrained, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> serviceControllers) {
         final String name = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS)).getLastElement().getValue();
         BeanManagerFactoryBuilderConfiguration config = new BeanManagerFactoryBuilderConfiguration() {
             private volatile int maxSize = initialMaxSize;
@@ -79,6 +80,11 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
                 return cacheName;
             }
 
+            @Override
+            public boolean isFineGrained() {
+                return fineGrained;
+            }
+
             @Override
             public int getMaxSize() {
                 return this.maxSize;
@@ -122,6 +122,10 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         registerDataStoreTransformers(timerService, false);
     }
 
+    static void registerTransformers_3_0_0(ResourceTransformationDescriptionBuilder parent) {
+        FileDataStoreResourceDefinition.registerTransformers_3_0_0(parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
+    }
+
     private static void registerDataStoreTransformers(ResourceTransformationDescriptionBuilder timerService, boolean rejectPathExpressions) {
 
         DataStoreTransformer dataStoreTransformer = new DataStoreTransformer(rejectPathExpressions);
@@ -138,6 +142,10 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
             }
         });
 
+        fileDataStore = fileDataStore.getAttributeBuilder()
+            .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), FileDataStoreResourceDefinition.JOURNAL)
+            .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.JOURNAL)
+            .end();
         if (rejectPathExpressions) {
             fileDataStore = fileDataStore.getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, FileDataStoreResourceDefinition.PATH)
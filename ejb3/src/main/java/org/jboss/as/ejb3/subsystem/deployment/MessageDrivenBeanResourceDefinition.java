@@ -23,9 +23,16 @@
 package org.jboss.as.ejb3.subsystem.deployment;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.messagedriven.MessageDrivenComponent;
+import org.jboss.as.ejb3.component.messagedriven.MessageDrivenComponentInstance;
+import org.jboss.as.ejb3.pool.adaptive.AdaptiveConcurrencyPool;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -43,6 +50,26 @@ public class MessageDrivenBeanResourceDefinition extends AbstractEJBComponentRes
             .setStorageRuntime()
             .build();
 
+    static final AttributeDefinition DELIVERY_CONCURRENCY_LIMIT = new SimpleAttributeDefinitionBuilder("delivery-concurrency-limit", ModelType.INT)
+            .setAllowNull(true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    static final AttributeDefinition DELIVERY_CONCURRENCY_INCREASE_COUNT = new SimpleAttributeDefinitionBuilder("delivery-concurrency-increase-count", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    static final AttributeDefinition DELIVERY_CONCURRENCY_DECREASE_COUNT = new SimpleAttributeDefinitionBuilder("delivery-concurrency-decrease-count", ModelType.LONG)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    static final AttributeDefinition DELIVERY_WAITING_COUNT = new SimpleAttributeDefinitionBuilder("delivery-waiting-count", ModelType.INT)
+            .setAllowNull(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     static final String START_DELIVERY = "start-delivery";
     static final String STOP_DELIVERY = "stop-delivery";
 
@@ -55,6 +82,37 @@ public class MessageDrivenBeanResourceDefinition extends AbstractEJBComponentRes
         super.registerAttributes(registry);
 
         registry.registerReadOnlyAttribute(DELIVERY_ACTIVE, MessageDrivenBeanRuntimeHandler.INSTANCE);
+
+        registry.registerMetric(DELIVERY_CONCURRENCY_LIMIT, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final AdaptiveConcurrencyPool<MessageDrivenComponentInstance> pool = ((MessageDrivenComponent) component).getAdaptiveConcurrencyPool();
+                if (pool != null) {
+                    context.getResult().set(pool.getConcurrencyLimit());
+                }
+            }
+        });
+        registry.registerMetric(DELIVERY_CONCURRENCY_INCREASE_COUNT, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final AdaptiveConcurrencyPool<MessageDrivenComponentInstance> pool = ((MessageDrivenComponent) component).getAdaptiveConcurrencyPool();
+                context.getResult().set((pool != null) ? pool.getIncreaseCount() : 0L);
+            }
+        });
+        registry.registerMetric(DELIVERY_CONCURRENCY_DECREASE_COUNT, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final AdaptiveConcurrencyPool<MessageDrivenComponentInstance> pool = ((MessageDrivenComponent) component).getAdaptiveConcurrencyPool();
+                context.getResult().set((pool != null) ? pool.getDecreaseCount() : 0L);
+            }
+        });
+        registry.registerMetric(DELIVERY_WAITING_COUNT, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final AdaptiveConcurrencyPool<MessageDrivenComponentInstance> pool = ((MessageDrivenComponent) component).getAdaptiveConcurrencyPool();
+                context.getResult().set((pool != null) ? pool.getWaitingCount() : 0);
+            }
+        });
     }
 
     @Override
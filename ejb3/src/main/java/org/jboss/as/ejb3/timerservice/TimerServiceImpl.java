@@ -36,7 +36,11 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
@@ -65,6 +69,7 @@ import org.jboss.as.ejb3.subsystem.deployment.TimerServiceResource;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.ejb3.util.TimerWheel;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -101,7 +106,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimerWheel> timerInjectedValue = new InjectedValue<TimerWheel>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -118,12 +123,12 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> timers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final ConcurrentMap<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link TimerWheel.Timeout} of each of the timer tasks that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final ConcurrentMap<String, TimerWheel.Timeout> scheduledTimerFutures = new ConcurrentHashMap<String, TimerWheel.Timeout>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -211,7 +216,6 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         this.transactionManager = null;
         IoUtils.safeClose(listenerHandle);
         listenerHandle = null;
-        timerInjectedValue.getValue().purge(); //WFLY-3823
     }
 
 
@@ -400,12 +404,10 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         Object pk = currentPrimaryKey();
         final Set<Timer> activeTimers = new HashSet<Timer>();
         // get all active timers for this timerservice
-        synchronized (this.timers) {
-            for (final TimerImpl timer : this.timers.values()) {
-                if (timer.isActive()) {
-                    if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
-                        activeTimers.add(timer);
-                    }
+        for (final TimerImpl timer : this.timers.values()) {
+            if (timer.isActive()) {
+                if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
+                    activeTimers.add(timer);
                 }
             }
         }
@@ -623,6 +625,33 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
+    /**
+     * Persists the state of several existing timers at once, see {@link #persistTimer(TimerImpl, boolean)}
+     *
+     * @param timers the timers
+     */
+    public void persistTimers(final List<TimerImpl> timers) {
+        final List<TimerImpl> persistent = new ArrayList<TimerImpl>(timers.size());
+        for (TimerImpl timer : timers) {
+            if (timer.isTimerPersistent()) {
+                persistent.add(timer);
+            }
+        }
+        if (persistent.isEmpty()) {
+            return;
+        }
+        try {
+            if (timerPersistence.getOptionalValue() == null) {
+                ROOT_LOGGER.timerPersistenceNotEnable();
+                return;
+            }
+            timerPersistence.getValue().persistTimers(persistent);
+        } catch (Throwable t) {
+            this.setRollbackOnly();
+            throw new RuntimeException(t);
+        }
+    }
+
     public void cancelTimer(final TimerImpl timer) {
         timer.lock();
         boolean release = true;
@@ -705,6 +734,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             ROOT_LOGGER.debug("Found " + restorableTimers.size() + " active persistentTimers for timedObjectId: "
                     + getInvoker().getTimedObjectId());
         }
+        // auto timers are matched up first, so that their new state can be persisted in one go
+        final List<TimerImpl> autoTimersToPersist = new ArrayList<TimerImpl>();
+        final List<TimerImpl> autoTimersToStart = new ArrayList<TimerImpl>();
         // now "start" each of the restorable timer. This involves, moving the timer to an ACTIVE state
         // and scheduling the timer task
         for (final TimerImpl activeTimer : restorableTimers) {
@@ -740,16 +772,18 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                     // if the persistence is shared it must be ensured to not update
                     // timers of other nodes in the cluster
                     activeTimer.setTimerState(TimerState.ACTIVE);
+                    autoTimersToStart.add(activeTimer);
                 }
-                this.persistTimer(activeTimer, false);
-                if (found) {
-                    startTimer(activeTimer);
-                    ROOT_LOGGER.debugv("Started timer: {0}", activeTimer);
-                }
+                autoTimersToPersist.add(activeTimer);
             } else if (!ineligibleTimerStates.contains(activeTimer.getState())) {
                 startTimer(activeTimer);
+                ROOT_LOGGER.debugv("Started timer: {0}",  activeTimer);
             }
-            ROOT_LOGGER.debugv("Started timer: {0}",  activeTimer);
+        }
+        this.persistTimers(autoTimersToPersist);
+        for (final TimerImpl activeTimer : autoTimersToStart) {
+            startTimer(activeTimer);
+            ROOT_LOGGER.debugv("Started timer: {0}", activeTimer);
         }
 
         for (ScheduleTimer timer : newAutoTimers) {
@@ -861,64 +895,62 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
-    protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
-                //this timer has been cancelled by another thread. We just return
-                return;
-            }
+    protected void scheduleTimeout(final TimerImpl timer, final boolean newTimer) {
+        // compute() holds the lock of the map bin for this timer id only, which makes the check for a concurrent
+        // cancellation and the scheduling atomic without serializing unrelated timers
+        this.scheduledTimerFutures.compute(timer.getId(), new BiFunction<String, TimerWheel.Timeout, TimerWheel.Timeout>() {
+            @Override
+            public TimerWheel.Timeout apply(final String id, final TimerWheel.Timeout existing) {
+                if (!newTimer && existing == null) {
+                    //this timer has been cancelled by another thread. We just return
+                    return null;
+                }
 
-            Date nextExpiration = timer.getNextExpiration();
-            if (nextExpiration == null) {
-                ROOT_LOGGER.nextExpirationIsNull(timer);
-                return;
-            }
-            // create the timer task
-            final TimerTask<?> timerTask = timer.getTimerTask();
-            // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
-            // if in past, then trigger immediately
-            if (delay < 0) {
-                delay = 0;
-            }
-            long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
-            if (intervalDuration > 0) {
-                ROOT_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
-                        timer, delay, intervalDuration);
-                // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-            } else {
-                ROOT_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
-                // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
+                Date nextExpiration = timer.getNextExpiration();
+                if (nextExpiration == null) {
+                    ROOT_LOGGER.nextExpirationIsNull(timer);
+                    return existing;
+                }
+                // create the timer task
+                final TimerTask<?> timerTask = timer.getTimerTask();
+                // find out how long is it away from now
+                long delay = nextExpiration.getTime() - System.currentTimeMillis();
+                // if in past, then trigger immediately
+                if (delay < 0) {
+                    delay = 0;
+                }
+                long intervalDuration = timer.getInterval();
+                final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
                 // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-
+                if (intervalDuration > 0) {
+                    ROOT_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
+                            timer, delay, intervalDuration);
+                    // schedule the task
+                    return timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration, TimeUnit.MILLISECONDS);
+                } else {
+                    ROOT_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
+                    // schedule the task
+                    return timerInjectedValue.getValue().schedule(task, delay, TimeUnit.MILLISECONDS);
+                }
             }
-        }
+        });
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any scheduled {@link TimerWheel.Timeout} corresponding to the passed <code>timer</code>
      *
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        TimerWheel.Timeout timeout = this.scheduledTimerFutures.remove(timer.getId());
+        if (timeout != null) {
+            ((Task) timeout.getTask()).cancel();
+            timeout.cancel();
         }
     }
 
     public boolean isScheduled(final String tid){
-        synchronized (this.scheduledTimerFutures) {
-            return this.scheduledTimerFutures.containsKey(tid);
-        }
+        return this.scheduledTimerFutures.containsKey(tid);
     }
 
     /**
@@ -1073,7 +1105,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
+    public InjectedValue<TimerWheel> getTimerInjectedValue() {
         return timerInjectedValue;
     }
 
@@ -1191,7 +1223,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask<?> delegate;
         private final ControlPoint controlPoint;
@@ -1227,10 +1259,14 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             }
         }
 
-        @Override
-        public boolean cancel() {
+        void cancel() {
+            // a run that is already queued on the executor must not go ahead either
             delegate.cancel();
-            return super.cancel();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
         }
     }
 
@@ -51,6 +51,18 @@ public interface TimerPersistence {
      */
     void persistTimer(TimerImpl timer);
 
+    /**
+     * Called when several existing timers are being persisted at once. Stores that support it write them in a
+     * single batch, by default they are persisted one by one.
+     *
+     * @param timers The timers
+     */
+    default void persistTimers(List<TimerImpl> timers) {
+        for (TimerImpl timer : timers) {
+            persistTimer(timer);
+        }
+    }
+
     /**
      * Invoked before running a timer in order to determine if this node should run the timer.
      * @param timer The timer
@@ -125,6 +125,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String CREATE_TIMER = "create-timer";
     private static final String UPDATE_TIMER = "update-timer";
     private static final String LOAD_ALL_TIMERS = "load-all-timers";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
@@ -346,9 +347,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     timerEntity.getState() == TimerState.EXPIRED) {
                 String deleteTimer = sql(DELETE_TIMER);
                 statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
+                deleteStatementParameters(timerEntity, statement);
                 statement.execute();
                 synchronized (this) {
                     knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
@@ -359,15 +358,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                 }
                 String updateTimer = sql(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateStatementParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -379,6 +370,61 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Writes all updates and deletes with a single JDBC batch each, instead of one round trip per timer.
+     */
+    @Override
+    public void persistTimers(final List<TimerImpl> timers) {
+        if (timers.isEmpty()) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement deleteStatement = null;
+        PreparedStatement updateStatement = null;
+        try {
+            connection = dataSource.getConnection();
+            for (TimerImpl timerEntity : timers) {
+                if (timerEntity.getState() == TimerState.CANCELED ||
+                        timerEntity.getState() == TimerState.EXPIRED) {
+                    if (deleteStatement == null) {
+                        deleteStatement = connection.prepareStatement(sql(DELETE_TIMER));
+                    }
+                    deleteStatementParameters(timerEntity, deleteStatement);
+                    deleteStatement.addBatch();
+                } else {
+                    if (updateStatement == null) {
+                        updateStatement = connection.prepareStatement(sql(UPDATE_TIMER));
+                    }
+                    updateStatementParameters(timerEntity, updateStatement);
+                    updateStatement.addBatch();
+                }
+            }
+            if (deleteStatement != null) {
+                deleteStatement.executeBatch();
+            }
+            if (updateStatement != null) {
+                updateStatement.executeBatch();
+            }
+            synchronized (this) {
+                for (TimerImpl timerEntity : timers) {
+                    final Set<String> ids = knownTimerIds.get(timerEntity.getTimedObjectId());
+                    if (timerEntity.getState() == TimerState.CANCELED ||
+                            timerEntity.getState() == TimerState.EXPIRED) {
+                        ids.remove(timerEntity.getId());
+                    } else {
+                        ids.add(timerEntity.getId());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            safeClose(deleteStatement);
+            safeClose(updateStatement);
+            safeClose(connection);
+        }
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer, TransactionManager tm) {
         if (!allowExecution) {
@@ -610,6 +656,24 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         setNodeName(timerEntity.getState(), statement, 26);
     }
 
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
+    private void deleteStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getTimedObjectId());
+        statement.setString(2, timerEntity.getId());
+        statement.setString(3, partition);
+    }
+
     private String serialize(final Serializable serializable) {
         if (serializable == null) {
             return null;
@@ -718,6 +782,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Picks up the timers that other nodes have added to, or removed from, the partition.
+     * <p/>
+     * Only the ids of the timers are read, for the whole partition with a single query, and compared to the ids
+     * which are already known. Only the timers which have been added in the meantime are then loaded in full, so
+     * the cost of a refresh is dominated by the number of changes, rather than by the size of the stored timers.
+     */
     private class RefreshTask extends TimerTask {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
@@ -726,64 +797,108 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
+                    refresh();
+                } finally {
+                    running.set(false);
+                }
+            }
+        }
+
+        private void refresh() {
+            final Map<String, Set<String>> known = new HashMap<>();
+            synchronized (DatabaseTimerPersistence.this) {
+                for (Map.Entry<String, Set<String>> entry : knownTimerIds.entrySet()) {
+                    if (changeListeners.containsKey(entry.getKey())) {
+                        known.put(entry.getKey(), new HashSet<>(entry.getValue()));
+                    }
+                }
+            }
+            if (known.isEmpty()) {
+                return;
+            }
+            final Map<String, Set<String>> stored = new HashMap<>();
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+                statement.setString(1, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    final String timedObjectId = resultSet.getString(1);
+                    if (known.containsKey(timedObjectId)) {
+                        Set<String> ids = stored.get(timedObjectId);
+                        if (ids == null) {
+                            stored.put(timedObjectId, ids = new HashSet<>());
+                        }
+                        ids.add(resultSet.getString(2));
                     }
-                    for (String timedObjectId : timedObjects) {
-                        TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                }
+                safeClose(resultSet);
+                resultSet = null;
+                safeClose(statement);
+                statement = null;
+
+                for (Map.Entry<String, Set<String>> entry : known.entrySet()) {
+                    final String timedObjectId = entry.getKey();
+                    final TimerChangeListener listener = changeListeners.get(timedObjectId);
+                    if (listener == null) {
+                        continue;
+                    }
+                    final Set<String> removed = entry.getValue();
+                    final Set<String> added = stored.containsKey(timedObjectId) ? stored.get(timedObjectId) : Collections.<String>emptySet();
+                    for (String id : added) {
+                        if (removed.remove(id)) {
                             continue;
                         }
-                        final Set<String> existing;
                         synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                            final Set<String> ids = knownTimerIds.get(timedObjectId);
+                            if (ids == null || !ids.add(id)) {
+                                // undeployed, or added locally, in the meantime
+                                continue;
+                            }
+                        }
+                        if (statement == null) {
+                            statement = connection.prepareStatement(sql(LOAD_TIMER));
                         }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
+                        statement.setString(1, timedObjectId);
+                        statement.setString(2, id);
+                        statement.setString(3, partition);
+                        resultSet = statement.executeQuery();
                         try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final TimerImpl timerImpl = timerFromResult(resultSet, listener.getTimerService());
-                                        listener.timerAdded(timerImpl);
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                            if (resultSet.next()) {
+                                final TimerImpl timerImpl = timerFromResult(resultSet, listener.getTimerService());
+                                if (timerImpl != null) {
+                                    listener.timerAdded(timerImpl);
                                 }
                             }
-
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
-                                }
-                            }
-                        } catch (SQLException e) {
-                            EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
+                        } catch (Exception e) {
+                            EjbLogger.ROOT_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
                         } finally {
                             safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+                            resultSet = null;
+                        }
+                    }
+                    if (!removed.isEmpty()) {
+                        synchronized (DatabaseTimerPersistence.this) {
+                            final Set<String> ids = knownTimerIds.get(timedObjectId);
+                            if (ids != null) {
+                                ids.removeAll(removed);
+                            }
+                        }
+                        for (String id : removed) {
+                            listener.timerRemoved(id);
                         }
                     }
-                } finally {
-                    running.set(false);
                 }
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.failedToRefreshTimers(partition);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
             }
-
         }
     }
 }
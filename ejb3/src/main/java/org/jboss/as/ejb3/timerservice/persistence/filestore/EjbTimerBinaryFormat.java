@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Compact binary representation of a persistent timer, as stored in the {@link TimerJournal}. It holds the same
+ * information as the XML written by {@link EjbTimerXmlPersister}, with the info and primary key marshalled the same
+ * way, but without the cost of building and parsing a document.
+ */
+final class EjbTimerBinaryFormat {
+
+    private static final byte VERSION = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    EjbTimerBinaryFormat(final MarshallerFactory factory, final MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return the persistent state of the timer, or null if its info or primary key could not be marshalled
+     */
+    byte[] write(final TimerImpl timer) {
+        final byte[] info;
+        final byte[] primaryKey;
+        try {
+            info = marshal(timer.getTimerInfo());
+            primaryKey = marshal(timer.getPrimaryKey());
+        } catch (Exception e) {
+            EjbLogger.ROOT_LOGGER.failedToPersistTimer(timer, e);
+            return null;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(VERSION);
+            final boolean calendar = timer instanceof CalendarTimer;
+            out.writeBoolean(calendar);
+            out.writeUTF(timer.getTimedObjectId());
+            out.writeUTF(timer.getId());
+            writeDate(out, timer.getInitialExpiration());
+            out.writeLong(timer.getInterval());
+            writeDate(out, timer.getNextExpiration());
+            writeDate(out, timer.getPreviousRun());
+            // a timer that has been persisted cannot be in the created state
+            out.writeUTF(timer.getState() == TimerState.CREATED ? TimerState.ACTIVE.name() : timer.getState().name());
+            writeBytes(out, info);
+            writeBytes(out, primaryKey);
+            if (calendar) {
+                final CalendarTimer calendarTimer = (CalendarTimer) timer;
+                final ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+                writeString(out, schedule.getSecond());
+                writeString(out, schedule.getMinute());
+                writeString(out, schedule.getHour());
+                writeString(out, schedule.getDayOfWeek());
+                writeString(out, schedule.getDayOfMonth());
+                writeString(out, schedule.getMonth());
+                writeString(out, schedule.getYear());
+                writeDate(out, schedule.getStart());
+                writeDate(out, schedule.getEnd());
+                writeString(out, schedule.getTimezone());
+                out.writeBoolean(calendarTimer.isAutoTimer());
+                if (calendarTimer.isAutoTimer()) {
+                    final Method method = calendarTimer.getTimeoutMethod();
+                    out.writeUTF(method.getDeclaringClass().getName());
+                    out.writeUTF(method.getName());
+                    final Class<?>[] params = method.getParameterTypes();
+                    out.writeByte(params.length);
+                    for (Class<?> param : params) {
+                        out.writeUTF(param.getName());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the timer, or null if it could not be reinstated
+     */
+    TimerImpl read(final byte[] data, final TimerServiceImpl timerService) {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String timedObjectId = null;
+        String id = null;
+        try {
+            if (in.readByte() != VERSION) {
+                throw new IOException("Unsupported timer format version");
+            }
+            final boolean calendar = in.readBoolean();
+            timedObjectId = in.readUTF();
+            id = in.readUTF();
+            final Date initialDate = readDate(in);
+            final long interval = in.readLong();
+            final Date nextDate = readDate(in);
+            final Date previousRun = readDate(in);
+            final TimerState state = TimerState.valueOf(in.readUTF());
+            final byte[] info = readBytes(in);
+            final byte[] primaryKey = readBytes(in);
+
+            final TimerImpl.Builder builder;
+            if (calendar) {
+                final CalendarTimer.Builder calendarBuilder = CalendarTimer.builder();
+                calendarBuilder.setScheduleExprSecond(readString(in))
+                        .setScheduleExprMinute(readString(in))
+                        .setScheduleExprHour(readString(in))
+                        .setScheduleExprDayOfWeek(readString(in))
+                        .setScheduleExprDayOfMonth(readString(in))
+                        .setScheduleExprMonth(readString(in))
+                        .setScheduleExprYear(readString(in))
+                        .setScheduleExprStartDate(readDate(in))
+                        .setScheduleExprEndDate(readDate(in))
+                        .setScheduleExprTimezone(readString(in));
+                final boolean autoTimer = in.readBoolean();
+                calendarBuilder.setAutoTimer(autoTimer);
+                if (autoTimer) {
+                    final String className = in.readUTF();
+                    final String methodName = in.readUTF();
+                    final String[] params = new String[in.readUnsignedByte()];
+                    for (int i = 0; i < params.length; i++) {
+                        params[i] = in.readUTF();
+                    }
+                    final Method timeoutMethod = CalendarTimer.getTimeoutMethod(new TimeoutMethod(className, methodName, params), timerService.getTimedObjectInvoker().getValue().getClassLoader());
+                    if (timeoutMethod == null) {
+                        EjbLogger.ROOT_LOGGER.timerReinstatementFailed(timedObjectId, id, null);
+                        return null;
+                    }
+                    calendarBuilder.setTimeoutMethod(timeoutMethod);
+                }
+                builder = calendarBuilder;
+            } else {
+                builder = TimerImpl.builder();
+            }
+            builder.setId(id)
+                    .setTimedObjectId(timedObjectId)
+                    .setInitialDate(initialDate)
+                    .setRepeatInterval(interval)
+                    .setNextDate(nextDate)
+                    .setPreviousRun(previousRun)
+                    .setTimerState(state)
+                    .setPersistent(true);
+            if (info != null) {
+                builder.setInfo((Serializable) unmarshal(info));
+            }
+            if (primaryKey != null) {
+                builder.setPrimaryKey(unmarshal(primaryKey));
+            }
+            return builder.build(timerService);
+        } catch (Exception e) {
+            EjbLogger.ROOT_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+            return null;
+        }
+    }
+
+    private byte[] marshal(final Object object) throws IOException {
+        if (object == null) {
+            return null;
+        }
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(object);
+        marshaller.finish();
+        marshaller.flush();
+        return out.toByteArray();
+    }
+
+    private Object unmarshal(final byte[] data) throws IOException, ClassNotFoundException {
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+        try {
+            return unmarshaller.readObject();
+        } finally {
+            unmarshaller.close();
+        }
+    }
+
+    private static void writeDate(final DataOutputStream out, final Date date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] value) throws IOException {
+        out.writeInt(value == null ? -1 : value.length);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
@@ -58,6 +58,7 @@ import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.file.Files;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,6 +76,11 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * By default every timer is stored in its own XML file. In journal mode the timers of each timed object are instead
+ * stored in a {@link TimerJournal}, an append only binary log which is group committed and compacted as it grows, and
+ * which is only read once, when the timed object is first accessed. Timers found in the XML, or legacy, format are
+ * migrated into the journal on first access, and a journal found in XML mode is migrated back to XML files.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
@@ -85,8 +91,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
     private final boolean createIfNotExists;
+    private final boolean useJournal;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
+    private EjbTimerBinaryFormat binaryFormat;
     private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
@@ -98,13 +106,19 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, false);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final boolean journal) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
         }
         this.createIfNotExists = createIfNotExists;
+        this.useJournal = journal;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
     }
@@ -130,6 +144,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.binaryFormat = new EjbTimerBinaryFormat(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +165,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal journal : journals.values()) {
+            safeClose(journal);
+        }
+        journals.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +176,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        binaryFormat = null;
     }
 
     @Override
@@ -201,6 +221,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        long journalSequence = 0;
         try {
             final int status = transactionManager.getValue().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -213,6 +234,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
+                if (useJournal) {
+                    journalSequence = appendToJournal(timer, newTimer);
+                    return;
+                }
                 Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
                 if (timer.getState() == TimerState.CANCELED ||
                         timer.getState() == TimerState.EXPIRED) {
@@ -239,6 +264,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             throw new RuntimeException(e);
         } finally {
             lock.unlock();
+            // the fsync happens outside of the lock, so that concurrent changes are group committed
+            if (journalSequence > 0) {
+                syncJournal(timer.getTimedObjectId(), journalSequence);
+            }
         }
     }
 
@@ -253,6 +282,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            final TimerJournal journal = journals.remove(timedObjectId);
+            if (journal != null) {
+                safeClose(journal);
+            }
         } finally {
             lock.unlock();
         }
@@ -272,6 +305,16 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
+            if (useJournal) {
+                final List<TimerImpl> entities = new ArrayList<TimerImpl>();
+                for (byte[] data : getJournal(timedObjectId, timerService).records()) {
+                    final TimerImpl timer = binaryFormat.read(data, timerService);
+                    if (timer != null) {
+                        entities.add(mostRecentEntityVersion(timer));
+                    }
+                }
+                return entities;
+            }
             final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
@@ -343,6 +386,18 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             writeFile(entry.getValue()); //write legacy timers into the new format
             //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
         }
+        migrateFromJournal(timedObjectId, timerService, directory);
+        timers.putAll(loadTimersFromXmlFiles(directory, timerService, null));
+        return timers;
+    }
+
+    /**
+     * Loads the timers stored in XML files in the given directory.
+     *
+     * @param loadedFiles if not null, the files that have been loaded successfully are added to it
+     */
+    private Map<String, TimerImpl> loadTimersFromXmlFiles(final String directory, final TimerServiceImpl timerService, final List<File> loadedFiles) {
+        final Map<String, TimerImpl> timers = new HashMap<>();
         final File file = new File(directory);
         if (!file.exists()) {
             //no timers exist yet
@@ -372,6 +427,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     for (TimerImpl timer : timerList) {
                         timers.put(timer.getId(), timer);
                     }
+                    if (loadedFiles != null) {
+                        loadedFiles.add(timerFile);
+                    }
                 } finally {
                     safeClose(in);
                 }
@@ -391,6 +449,114 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return timers;
     }
 
+    /**
+     * Writes the timers of a journal that has been left behind by a store that used to run in journal mode to XML
+     * files, and deletes the journal.
+     */
+    private void migrateFromJournal(final String timedObjectId, final TimerServiceImpl timerService, final String directory) {
+        final File file = new File(directory, TimerJournal.FILE_NAME);
+        if (!file.exists()) {
+            return;
+        }
+        final List<TimerImpl> timers = new ArrayList<>();
+        try {
+            final TimerJournal journal = TimerJournal.open(file);
+            try {
+                for (byte[] data : journal.records()) {
+                    final TimerImpl timer = binaryFormat.read(data, timerService);
+                    if (timer != null) {
+                        timers.add(timer);
+                    }
+                }
+            } finally {
+                safeClose(journal);
+            }
+            for (TimerImpl timer : timers) {
+                writeFile(timer);
+            }
+            Files.delete(file.toPath());
+        } catch (IOException e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        }
+    }
+
+    /**
+     * Gets the journal of a timed object, replaying it, and migrating any timers stored in the XML or legacy format
+     * into it, if it has not been opened yet. Should be called under lock
+     */
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal journal = journals.get(timedObjectId);
+        if (journal != null) {
+            return journal;
+        }
+        final String directory = getDirectory(timedObjectId);
+        try {
+            journal = TimerJournal.open(new File(directory, TimerJournal.FILE_NAME));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        final Map<String, TimerImpl> migrated = new HashMap<>();
+        migrated.putAll(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
+        final List<File> xmlFiles = new ArrayList<>();
+        migrated.putAll(loadTimersFromXmlFiles(directory, timerService, xmlFiles));
+        if (!migrated.isEmpty()) {
+            long sequence = 0;
+            for (TimerImpl timer : migrated.values()) {
+                final byte[] data = binaryFormat.write(timer);
+                if (data != null) {
+                    sequence = journal.put(timer.getId(), data);
+                }
+            }
+            try {
+                journal.sync(sequence);
+            } catch (IOException e) {
+                safeClose(journal);
+                throw new RuntimeException(e);
+            }
+            ROOT_LOGGER.timersMigratedToJournal(migrated.size(), timedObjectId);
+        }
+        // only delete the XML files once their timers are durable in the journal
+        for (File xmlFile : xmlFiles) {
+            xmlFile.delete();
+        }
+        journals.put(timedObjectId, journal);
+        return journal;
+    }
+
+    /**
+     * Appends the new state of the timer to the journal of its timed object. Should be called under lock
+     *
+     * @return the sequence number to sync the journal to, or 0 if nothing was appended
+     */
+    private long appendToJournal(final TimerImpl timer, final boolean newTimer) {
+        final TimerJournal journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+        if (timer.getState() == TimerState.CANCELED ||
+                timer.getState() == TimerState.EXPIRED) {
+            return journal.remove(timer.getId());
+        } else if (newTimer || journal.contains(timer.getId())) {
+            //if it is not a new timer and is not in the journal then it has
+            //been removed by another thread.
+            final byte[] data = binaryFormat.write(timer);
+            if (data != null) {
+                return journal.put(timer.getId(), data);
+            }
+        }
+        return 0;
+    }
+
+    private void syncJournal(final String timedObjectId, final long sequence) {
+        final TimerJournal journal = journals.get(timedObjectId);
+        if (journal == null) {
+            // undeployed in the meantime, closing the journal has flushed it
+            return;
+        }
+        try {
+            journal.sync(sequence);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private XMLMapper createMapper(TimerServiceImpl timerService) {
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(new QName(EjbTimerXmlParser_1_0.NAMESPACE, EjbTimerXmlPersister.TIMERS), new EjbTimerXmlParser_1_0(timerService, factory, configuration, timerService.getTimedObjectInvoker().getValue().getClassLoader()));
@@ -453,9 +619,12 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     if (timer == null) {
                         return null;
                     }
+                    long journalSequence = 0;
                     try {
                         lock.lock();
-                        if (status == Status.STATUS_COMMITTED) {
+                        if (status == Status.STATUS_COMMITTED && useJournal) {
+                            journalSequence = appendToJournal(timer, newTimer);
+                        } else if (status == Status.STATUS_COMMITTED) {
                             final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
                             if (timer.getState() == TimerState.CANCELED ||
                                     timer.getState() == TimerState.EXPIRED) {
@@ -471,6 +640,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     } finally {
                         lock.unlock();
                     }
+                    if (journalSequence > 0) {
+                        syncJournal(timer.getTimedObjectId(), journalSequence);
+                    }
                     return null;
                 }
             });
@@ -0,0 +1,397 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append only log of the persistent timers of a single timed object.
+ * <p/>
+ * Every change to a timer appends either its complete persistent state, or a removal marker, to the journal, and the
+ * current state is kept in memory, so the journal only has to be read once, on startup. Each record carries its
+ * length and a checksum, and a torn record at the end of the journal, left behind by a crash, is discarded on replay.
+ * <p/>
+ * Appending and syncing are separate steps, so the caller can append under its own lock and sync outside of it.
+ * Syncs are group committed: the first thread to sync writes out every record appended so far with a single fsync,
+ * while the threads that arrive in the meantime wait for it, and are then usually already covered by it.
+ * <p/>
+ * Once the journal holds more than {@value #COMPACTION_THRESHOLD} records, of which less than half are live, it is
+ * compacted, by writing the live records to a new journal and atomically renaming it over the old one.
+ * <p/>
+ * If a flush fails, its records are put back in front of the pending records, and anything partially written is
+ * truncated, so that the next flush writes them again. If the journal cannot be restored to a consistent state, every
+ * subsequent sync fails.
+ */
+final class TimerJournal implements Closeable {
+
+    static final String FILE_NAME = "timers.journal";
+
+    static final int COMPACTION_THRESHOLD = 1024;
+
+    private static final int MAGIC = 0x454a544a;
+    private static final byte VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 5;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File file;
+
+    // guarded by this
+    private final Map<String, byte[]> live;
+    private List<ByteBuffer> pending = new ArrayList<ByteBuffer>();
+    private long appended;
+
+    // guarded by flushLock
+    private final Lock flushLock = new ReentrantLock();
+    private FileChannel channel;
+    private long records;
+    private Exception failure;
+    // after a failed compaction, the number of records at which to retry it
+    private long retryCompaction;
+
+    private volatile long durable;
+
+    private TimerJournal(final File file, final FileChannel channel, final Map<String, byte[]> live, final long records) {
+        this.file = file;
+        this.channel = channel;
+        this.live = live;
+        this.records = records;
+    }
+
+    /**
+     * Opens the journal, creating it if it does not exist yet, and replays it.
+     */
+    static TimerJournal open(final File file) throws IOException {
+        final Map<String, byte[]> live = new LinkedHashMap<String, byte[]>();
+        long records = 0;
+        long valid = 0;
+        final boolean exists = file.exists() && file.length() > 0;
+        if (exists) {
+            final long length = file.length();
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+            try {
+                if (length < FILE_HEADER_SIZE || in.readInt() != MAGIC || in.readByte() != VERSION) {
+                    throw ROOT_LOGGER.invalidTimerJournal(file);
+                }
+                valid = FILE_HEADER_SIZE;
+                final CRC32 crc = new CRC32();
+                for (;;) {
+                    final byte[] body;
+                    try {
+                        final int size = in.readInt();
+                        final int checksum = in.readInt();
+                        if (size <= 0 || size > length - valid) {
+                            break;
+                        }
+                        body = new byte[size];
+                        in.readFully(body);
+                        crc.reset();
+                        crc.update(body, 0, size);
+                        if ((int) crc.getValue() != checksum) {
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    final DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                    final byte type = record.readByte();
+                    final String id = record.readUTF();
+                    if (type == PUT) {
+                        final byte[] data = new byte[record.available()];
+                        record.readFully(data);
+                        live.put(id, data);
+                    } else {
+                        live.remove(id);
+                    }
+                    records++;
+                    valid += 8 + body.length;
+                }
+            } finally {
+                in.close();
+            }
+            if (valid < length) {
+                ROOT_LOGGER.timerJournalTruncated(file, valid);
+            }
+        }
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (exists) {
+                channel.truncate(valid);
+                channel.position(valid);
+            } else {
+                channel.truncate(0);
+                writeFully(channel, new ByteBuffer[]{fileHeader()});
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        final TimerJournal journal = new TimerJournal(file, channel, live, records);
+        journal.flushLock.lock();
+        try {
+            journal.compactIfNecessary();
+        } catch (IOException e) {
+            journal.channel.close();
+            throw e;
+        } finally {
+            journal.flushLock.unlock();
+        }
+        return journal;
+    }
+
+    synchronized boolean contains(final String id) {
+        return live.containsKey(id);
+    }
+
+    /**
+     * @return the persistent state of all live timers, in the order they were first added
+     */
+    synchronized List<byte[]> records() {
+        return new ArrayList<byte[]>(live.values());
+    }
+
+    /**
+     * Appends the new state of a timer. The record is not durable until {@link #sync(long)} has been called with the
+     * returned sequence number.
+     */
+    synchronized long put(final String id, final byte[] data) {
+        live.put(id, data);
+        pending.add(record(PUT, id, data));
+        return ++appended;
+    }
+
+    /**
+     * Appends the removal of a timer. The record is not durable until {@link #sync(long)} has been called with the
+     * returned sequence number.
+     */
+    synchronized long remove(final String id) {
+        if (live.remove(id) == null) {
+            return appended;
+        }
+        pending.add(record(REMOVE, id, null));
+        return ++appended;
+    }
+
+    /**
+     * Blocks until all records up to the given sequence number have been written and synced to disk.
+     */
+    void sync(final long sequence) throws IOException {
+        if (durable >= sequence) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (durable >= sequence) {
+                // covered by the sync of the thread that held the lock before us
+                return;
+            }
+            flush();
+            try {
+                compactIfNecessary();
+            } catch (IOException e) {
+                // the records are already durable in the current journal
+                ROOT_LOGGER.timerJournalCompactionFailed(e, file);
+                retryCompaction = records + COMPACTION_THRESHOLD;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushLock.lock();
+        try {
+            if (channel.isOpen()) {
+                try {
+                    flush();
+                } finally {
+                    channel.close();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    // must be called with the flush lock held
+    private void flush() throws IOException {
+        if (failure != null) {
+            throw ROOT_LOGGER.timerJournalFailed(failure, file);
+        }
+        final ByteBuffer[] batch;
+        final long sequence;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending.toArray(new ByteBuffer[pending.size()]);
+            pending = new ArrayList<ByteBuffer>();
+            sequence = appended;
+        }
+        final long position = channel.position();
+        try {
+            writeFully(channel, batch);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            // put the batch back in front of any records appended in the meantime, so the next flush writes it again
+            synchronized (this) {
+                final List<ByteBuffer> restored = new ArrayList<ByteBuffer>(batch.length + pending.size());
+                for (ByteBuffer record : batch) {
+                    record.rewind();
+                    restored.add(record);
+                }
+                restored.addAll(pending);
+                pending = restored;
+            }
+            // discard any partially written records, otherwise replay would stop at them
+            try {
+                channel.truncate(position);
+                channel.position(position);
+            } catch (IOException | RuntimeException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+                failure = truncateFailure;
+            }
+            throw e;
+        }
+        records += batch.length;
+        durable = sequence;
+    }
+
+    // must be called with the flush lock held
+    private void compactIfNecessary() throws IOException {
+        if (failure != null) {
+            return;
+        }
+        final ByteBuffer[] snapshot;
+        final long sequence;
+        final int snapshotPending;
+        synchronized (this) {
+            if (records < COMPACTION_THRESHOLD || records < 2L * live.size() || records < retryCompaction) {
+                return;
+            }
+            // the snapshot already contains the pending changes, so they are made durable by the compaction
+            snapshot = new ByteBuffer[live.size() + 1];
+            snapshot[0] = fileHeader();
+            int i = 1;
+            for (Map.Entry<String, byte[]> entry : live.entrySet()) {
+                snapshot[i++] = record(PUT, entry.getKey(), entry.getValue());
+            }
+            snapshotPending = pending.size();
+            sequence = appended;
+        }
+        final File compacted = new File(file.getParentFile(), file.getName() + ".compact");
+        final FileChannel out = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            writeFully(out, snapshot);
+            out.force(true);
+        } finally {
+            out.close();
+        }
+        Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // the compacted journal is in place, so the pending changes contained in the snapshot are now durable
+        synchronized (this) {
+            pending.subList(0, snapshotPending).clear();
+        }
+        records = snapshot.length - 1;
+        durable = sequence;
+        final FileChannel previous = channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            // the previous channel refers to the replaced journal, so nothing can be appended any more
+            failure = e;
+            throw e;
+        } finally {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.tracef(e, "Failed to close replaced timer journal %s", file);
+            }
+        }
+    }
+
+    private static ByteBuffer fileHeader() {
+        final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).flip();
+        return header;
+    }
+
+    private static ByteBuffer record(final byte type, final String id, final byte[] data) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (data == null ? 0 : data.length));
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            // placeholders for the length and checksum
+            out.writeLong(0L);
+            out.writeByte(type);
+            out.writeUTF(id);
+            if (data != null) {
+                out.write(data);
+            }
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        final ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        final CRC32 crc = new CRC32();
+        crc.update(record.array(), 8, record.capacity() - 8);
+        record.putInt(0, record.capacity() - 8);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer[] buffers) throws IOException {
+        final ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A hashed timing wheel.
+ * <p/>
+ * Time is divided into ticks, and the wheel has one bucket per tick, which wraps around. A timeout lands in the
+ * bucket of the tick it expires in, along with the number of full revolutions of the wheel that have to pass
+ * before it is due. Scheduling and cancelling are O(1): both only append to a lock free queue, which the single
+ * worker thread drains into, or out of, the buckets on every tick. Expired tasks are run on the worker thread, so
+ * they are expected to hand their actual work to an executor.
+ * <p/>
+ * Timeouts never fire early, but may fire up to one tick late.
+ */
+public class TimerWheel {
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final TimeUnit DEFAULT_TICK_UNIT = TimeUnit.MILLISECONDS;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // bounds the work done per tick when a huge number of timeouts are scheduled at once
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<Timeout>();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private volatile long startTime;
+    // only accessed by the worker thread
+    private long tick;
+
+    public TimerWheel(final String name) {
+        this(name, DEFAULT_TICK_DURATION, DEFAULT_TICK_UNIT, DEFAULT_WHEEL_SIZE);
+    }
+
+    public TimerWheel(final String name, final long tickDuration, final TimeUnit unit, final int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0");
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be greater than 0");
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        // round the wheel up to a power of two, so the bucket of a tick is a mask away
+        final int size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startTime = System.nanoTime();
+        tick = 0;
+        running = true;
+        final Thread thread = new Thread(new Worker(), name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        final Thread thread = worker;
+        worker = null;
+        thread.interrupt();
+        boolean interrupted = false;
+        try {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Bucket bucket : wheel) {
+            bucket.clear();
+        }
+        pending.clear();
+        cancelled.clear();
+    }
+
+    /**
+     * Schedules a task to run once, after the given delay.
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        return newTimeout(task, unit.toNanos(Math.max(0L, delay)), 0L);
+    }
+
+    /**
+     * Schedules a task to run after the given delay, and then repeatedly at the given period. As with
+     * {@link java.util.Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)}, each run is scheduled relative to
+     * the initial expiration, not to the end of the previous run.
+     */
+    public Timeout scheduleAtFixedRate(final Runnable task, final long delay, final long period, final TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be greater than 0");
+        }
+        return newTimeout(task, unit.toNanos(Math.max(0L, delay)), unit.toNanos(period));
+    }
+
+    private Timeout newTimeout(final Runnable task, final long delayNanos, final long periodNanos) {
+        if (!running) {
+            throw new IllegalStateException(name + " is not running");
+        }
+        final Timeout timeout = new Timeout(task, deadline(System.nanoTime() - startTime, delayNanos), periodNanos);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the deadline the given delay after the given time, capped so that a huge delay never wraps around
+     * into a deadline in the past.
+     */
+    private static long deadline(final long now, final long delayNanos) {
+        return delayNanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayNanos;
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state == Timeout.ST_CANCELLED) {
+                continue;
+            }
+            final long due = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (due - tick) / wheel.length;
+            // a timeout which is already due goes into the current bucket
+            wheel[(int) (Math.max(due, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        for (Timeout timeout = cancelled.poll(); timeout != null; timeout = cancelled.poll()) {
+            final Bucket bucket = timeout.bucket;
+            if (bucket != null) {
+                bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void expire(final Timeout timeout) {
+        try {
+            timeout.task.run();
+        } catch (Throwable t) {
+            EjbLogger.ROOT_LOGGER.failedToRunTimerTask(timeout.task, t);
+        }
+        if (timeout.period > 0L && timeout.state == Timeout.ST_INIT) {
+            timeout.deadline = deadline(timeout.deadline, timeout.period);
+            pending.add(timeout);
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (running) {
+                final long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    continue;
+                }
+                processCancelled();
+                transferPending();
+                final Bucket bucket = wheel[(int) (tick & mask)];
+                Timeout timeout = bucket.head;
+                while (timeout != null) {
+                    final Timeout next = timeout.next;
+                    if (timeout.remainingRounds <= 0) {
+                        if (timeout.deadline <= deadline) {
+                            bucket.remove(timeout);
+                            if (timeout.expire()) {
+                                expire(timeout);
+                            }
+                        }
+                    } else {
+                        timeout.remainingRounds--;
+                    }
+                    timeout = next;
+                }
+                tick++;
+            }
+        }
+
+        /**
+         * Sleeps until the end of the current tick, and returns the time elapsed since the wheel was started,
+         * or -1 if the wheel was stopped in the meantime.
+         */
+        private long waitForNextTick() {
+            final long deadline = tickNanos * (tick + 1);
+            for (;;) {
+                final long now = System.nanoTime() - startTime;
+                final long sleepNanos = deadline - now;
+                if (sleepNanos <= 0) {
+                    return now;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return -1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A handle to a scheduled task.
+     */
+    public final class Timeout {
+        static final int ST_INIT = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long period;
+        private volatile int state = ST_INIT;
+        // the remaining fields are only accessed by the worker thread, or before the timeout is published
+        private long deadline;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        Timeout(final Runnable task, final long deadline, final long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the task. A task that is currently running is not interrupted, but a periodic task will not be
+         * scheduled again.
+         *
+         * @return true if this call cancelled the task, false if it had already been cancelled or has expired
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public Runnable getTask() {
+            return task;
+        }
+
+        boolean expire() {
+            // periodic tasks stay in the initial state, so they can still be cancelled between runs
+            return period > 0L ? state == ST_INIT : STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED);
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    /**
+     * A doubly linked list of timeouts, only ever accessed by the worker thread.
+     */
+    private static final class Bucket {
+        Timeout head;
+        Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ejb.IdentifierFactory;
+
+/**
+ * Tests the expiration and eviction of the {@link SimpleCache}
+ */
+public class SimpleCacheTestCase {
+
+    private ScheduledExecutorService executor;
+    private final BeanFactory factory = new BeanFactory();
+
+    @Before
+    public void beforeTest() {
+        this.executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void afterTest() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        SimpleCache<UUID, Bean> cache = this.createCache(new StatefulTimeoutInfo(50, TimeUnit.MILLISECONDS), 0);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            assertSame(bean, cache.get(bean.getId()));
+            cache.release(bean);
+            // in use beans never expire
+            Bean used = cache.create();
+            assertSame(used, cache.get(used.getId()));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cache.contains(bean.getId()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(cache.contains(bean.getId()));
+            assertTrue(this.factory.destroyed.contains(bean.getId()));
+            assertNull(cache.get(bean.getId()));
+            assertTrue(cache.contains(used.getId()));
+            assertEquals(1, cache.getExpirationCount());
+            assertEquals(2, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+        } finally {
+            cache.stop();
+        }
+        assertEquals(2, this.factory.destroyed.size());
+    }
+
+    @Test
+    public void testReuseBeforeExpiration() throws Exception {
+        SimpleCache<UUID, Bean> cache = this.createCache(new StatefulTimeoutInfo(200, TimeUnit.MILLISECONDS), 0);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(cache.get(bean.getId()));
+                cache.release(bean);
+                Thread.sleep(50);
+            }
+            // released 10 times, but each release postponed the expiration
+            assertTrue(cache.contains(bean.getId()));
+            assertEquals(0, cache.getExpirationCount());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        SimpleCache<UUID, Bean> cache = this.createCache(null, 3);
+        cache.start();
+        try {
+            Bean[] beans = new Bean[3];
+            for (int i = 0; i < beans.length; i++) {
+                beans[i] = cache.create();
+                cache.get(beans[i].getId());
+                cache.release(beans[i]);
+            }
+            // make beans[0] the most recently used
+            cache.get(beans[0].getId());
+            cache.release(beans[0]);
+            // keep beans[1] in use
+            cache.get(beans[1].getId());
+
+            Bean bean = cache.create();
+            assertEquals(3, cache.getCacheSize());
+            assertEquals(1, cache.getEvictionCount());
+            assertFalse(cache.contains(beans[2].getId()));
+            assertTrue(this.factory.destroyed.contains(beans[2].getId()));
+
+            cache.create();
+            // beans[1] is still in use, so beans[0] is next
+            assertEquals(2, cache.getEvictionCount());
+            assertFalse(cache.contains(beans[0].getId()));
+            assertTrue(cache.contains(beans[1].getId()));
+            assertTrue(cache.contains(bean.getId()));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testZeroTimeout() {
+        SimpleCache<UUID, Bean> cache = this.createCache(new StatefulTimeoutInfo(0, TimeUnit.MILLISECONDS), 0);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            cache.get(bean.getId());
+            cache.release(bean);
+            assertFalse(cache.contains(bean.getId()));
+            assertEquals(1, this.factory.destroyed.size());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    private SimpleCache<UUID, Bean> createCache(StatefulTimeoutInfo timeout, int maxSize) {
+        IdentifierFactory<UUID> identifierFactory = new IdentifierFactory<UUID>() {
+            @Override
+            public UUID createIdentifier() {
+                return UUID.randomUUID();
+            }
+        };
+        return new SimpleCache<>(this.factory, identifierFactory, timeout, null, this.executor, maxSize);
+    }
+
+    static class Bean implements Identifiable<UUID> {
+        private final UUID id = UUID.randomUUID();
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+    }
+
+    static class BeanFactory implements StatefulObjectFactory<Bean> {
+        final Set<UUID> destroyed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public Bean createInstance() {
+            this.created.incrementAndGet();
+            return new Bean();
+        }
+
+        @Override
+        public void destroyInstance(Bean instance) {
+            assertTrue(this.destroyed.add(instance.getId()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link LatencyHistogram}
+ */
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (long value = 0; value < 100000; value++) {
+            final int index = LatencyHistogram.index(value);
+            final long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(value <= highest);
+            // each bucket is at most 1/8th of its values wide
+            assertTrue(highest - value <= value / 8);
+            if (highest != previous) {
+                assertEquals(previous + 1, value);
+                previous = highest;
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50.0));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getMax());
+        assertWithin(500, histogram.getValueAtPercentile(50.0));
+        assertWithin(950, histogram.getValueAtPercentile(95.0));
+        assertWithin(990, histogram.getValueAtPercentile(99.0));
+        assertEquals(1000, histogram.getValueAtPercentile(100.0));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " is not close to " + expected, actual >= expected && actual - expected <= expected / 8);
+    }
+}
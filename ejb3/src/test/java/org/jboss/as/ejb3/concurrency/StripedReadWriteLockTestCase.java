@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.ejb.IllegalLoopbackException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link StripedReadWriteLock}
+ */
+public class StripedReadWriteLockTestCase {
+
+    private StripedReadWriteLock lock;
+
+    @Before
+    public void beforeTest() {
+        this.lock = new StripedReadWriteLock();
+    }
+
+    @Test
+    public void testIllegalLoopBack() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            this.lock.writeLock().tryLock(1, TimeUnit.SECONDS);
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException expected) {
+            // expected
+        } finally {
+            readLock.unlock();
+        }
+        // once the read lock is released, the write lock can be obtained
+        Assert.assertTrue(this.lock.writeLock().tryLock(1, TimeUnit.SECONDS));
+        this.lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testReentrancy() throws Exception {
+        Lock readLock = this.lock.readLock();
+        Lock writeLock = this.lock.writeLock();
+
+        Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+        Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+        // a write lock holder may also read
+        Assert.assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+        readLock.unlock();
+        writeLock.unlock();
+        Assert.assertFalse(this.tryLockFromOtherThread(readLock));
+        writeLock.unlock();
+        Assert.assertTrue(this.tryLockFromOtherThread(readLock));
+
+        Assert.assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+        Assert.assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+        readLock.unlock();
+        Assert.assertFalse(this.tryLockFromOtherThread(writeLock));
+        readLock.unlock();
+        Assert.assertTrue(this.tryLockFromOtherThread(writeLock));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            long start = System.nanoTime();
+            Assert.assertFalse(this.tryLockFromOtherThread(this.lock.readLock()));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        } finally {
+            writeLock.unlock();
+        }
+
+        final Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            Assert.assertFalse(this.tryLockFromOtherThread(writeLock));
+        } finally {
+            readLock.unlock();
+        }
+        // a writer that timed out must not block readers
+        Assert.assertTrue(readLock.tryLock());
+        readLock.unlock();
+    }
+
+    /**
+     * Readers and writers are mutually exclusive, and a waiting writer eventually gets in, even while readers keep
+     * coming.
+     */
+    @Test
+    public void testMutualExclusion() throws Exception {
+        final int readers = 8;
+        final int iterations = 20000;
+        final int[] shared = new int[2];
+        final ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        Lock readLock = StripedReadWriteLockTestCase.this.lock.readLock();
+                        for (int j = 0; j < iterations; j++) {
+                            Assert.assertTrue(readLock.tryLock(10, TimeUnit.SECONDS));
+                            try {
+                                Assert.assertEquals(shared[0], shared[1]);
+                            } finally {
+                                readLock.unlock();
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    Lock writeLock = StripedReadWriteLockTestCase.this.lock.writeLock();
+                    for (int j = 0; j < 1000; j++) {
+                        Assert.assertTrue(writeLock.tryLock(10, TimeUnit.SECONDS));
+                        try {
+                            shared[0]++;
+                            shared[1]++;
+                        } finally {
+                            writeLock.unlock();
+                        }
+                    }
+                    return null;
+                }
+            }));
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1000, shared[0]);
+    }
+
+    private boolean tryLockFromOtherThread(final Lock lock) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    if (lock.tryLock(100, TimeUnit.MILLISECONDS)) {
+                        lock.unlock();
+                        return true;
+                    }
+                    return false;
+                }
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJBException;
+
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link AdaptiveConcurrencyPool}
+ */
+public class AdaptiveConcurrencyPoolUnitTestCase {
+
+    @Before
+    public void setUp() {
+        MockBean.reset();
+    }
+
+    /**
+     * Growing processing times bring the limit down, a backlog at constant processing times brings it up again.
+     */
+    @Test
+    public void testAdaptation() throws Exception {
+        final AdaptiveConcurrencyPool<MockBean> pool = createPool(8);
+        pool.start();
+        try {
+            assertEquals(8, pool.getConcurrencyLimit());
+            // establish the baseline
+            invoke(pool, 1, 50, 2);
+            final long decreases = pool.getDecreaseCount();
+
+            // processing slows down, e.g. because a datasource is saturated
+            invoke(pool, 1, 50, 20);
+            assertTrue(pool.getConcurrencyLimit() < 8);
+            assertTrue(pool.getDecreaseCount() > decreases);
+
+            // more deliveries than the limit allows, while the processing time is stable
+            final long increases = pool.getIncreaseCount();
+            invoke(pool, 8, 40, 20);
+            assertTrue(pool.getIncreaseCount() > increases);
+            assertEquals(0, pool.getWaitingCount());
+        } finally {
+            pool.stop();
+        }
+    }
+
+    /**
+     * No more instances than the limit are active at the same time, and the instance acquisition timeout applies.
+     */
+    @Test
+    public void testLimit() throws Exception {
+        final AdaptiveConcurrencyPool<MockBean> pool = createPool(4);
+        pool.start();
+        try {
+            // bring the limit down
+            invoke(pool, 1, 50, 2);
+            invoke(pool, 1, 50, 20);
+            final int limit = pool.getConcurrencyLimit();
+            assertTrue(limit < 4);
+
+            final List<MockBean> beans = new ArrayList<MockBean>();
+            for (int i = 0; i < limit; i++) {
+                beans.add(pool.get());
+            }
+            try {
+                pool.get();
+                fail("The concurrency limit is exceeded");
+            } catch (EJBException expected) {
+                // expected
+            }
+            for (MockBean bean : beans) {
+                pool.release(bean);
+            }
+            pool.release(pool.get());
+        } finally {
+            pool.stop();
+        }
+    }
+
+    private static AdaptiveConcurrencyPool<MockBean> createPool(final int maxSize) {
+        return new AdaptiveConcurrencyPool<MockBean>(new StrictMaxPool<MockBean>(new MockFactory(), maxSize, 1, TimeUnit.SECONDS), 100, TimeUnit.MILLISECONDS);
+    }
+
+    private static void invoke(final AdaptiveConcurrencyPool<MockBean> pool, final int threads, final int invocations, final long millis) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final AtomicInteger active = new AtomicInteger();
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < invocations; i++) {
+                            final MockBean bean = getWithRetry(pool);
+                            try {
+                                assertTrue(active.incrementAndGet() <= pool.getMaxSize());
+                                Thread.sleep(millis);
+                            } finally {
+                                active.decrementAndGet();
+                                pool.release(bean);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static MockBean getWithRetry(final AdaptiveConcurrencyPool<MockBean> pool) {
+        for (;;) {
+            try {
+                return pool.get();
+            } catch (EJBException e) {
+                // timed out waiting for the limit, like a resource adapter would, try again
+            }
+        }
+    }
+}
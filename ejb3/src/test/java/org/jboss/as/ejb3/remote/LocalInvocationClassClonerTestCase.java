@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link LocalInvocationClassCloner}, and the fast paths of the {@link LocalEjbReceiver.InvocationCloner}
+ */
+public class LocalInvocationClassClonerTestCase {
+
+    /**
+     * A class loader that sees nothing but the JDK
+     */
+    private final ClassLoader isolated = new ClassLoader(null) {
+    };
+
+    @Test
+    public void testSameClassLoader() throws Exception {
+        LocalInvocationClassCloner cloner = new LocalInvocationClassCloner(this.getClass().getClassLoader(), false);
+        assertSame(Color.class, cloner.clone(Color.class));
+        assertSame(String.class, cloner.clone(String.class));
+    }
+
+    @Test
+    public void testFallBack() throws Exception {
+        assertSame(Color.class, new LocalInvocationClassCloner(this.isolated).clone(Color.class));
+        try {
+            new LocalInvocationClassCloner(this.isolated, false).clone(Color.class);
+            fail("Class should not be visible from the isolated class loader");
+        } catch (ClassNotFoundException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        assertTrue(LocalInvocationClassCloner.isImmutable(String.class));
+        assertTrue(LocalInvocationClassCloner.isImmutable(Integer.class));
+        assertTrue(LocalInvocationClassCloner.isImmutable(BigDecimal.class));
+        assertTrue(LocalInvocationClassCloner.isImmutable(UUID.class));
+        assertTrue(LocalInvocationClassCloner.isImmutable(LocalDate.class));
+        assertTrue(LocalInvocationClassCloner.isImmutable(ZoneOffset.class));
+        assertFalse(LocalInvocationClassCloner.isImmutable(Date.class));
+        assertFalse(LocalInvocationClassCloner.isImmutable(ArrayList.class));
+        // subclasses may be mutable
+        assertFalse(LocalInvocationClassCloner.isImmutable(new BigDecimal("1") { }.getClass()));
+    }
+
+    @Test
+    public void testPassAsIs() {
+        LocalEjbReceiver.InvocationCloner cloner = new LocalEjbReceiver.InvocationCloner(new LocalInvocationClassCloner(this.isolated, false), false);
+        String string = new String("value");
+        assertSame(string, cloner.clone(Object.class, string));
+        Long number = Long.valueOf(Long.MAX_VALUE);
+        assertSame(number, cloner.clone(Number.class, number));
+        LocalDate date = LocalDate.now();
+        assertSame(date, cloner.clone(Object.class, date));
+        assertSame(TimeUnit.SECONDS, cloner.clone(TimeUnit.class, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEnum() {
+        LocalEjbReceiver.InvocationCloner cloner = new LocalEjbReceiver.InvocationCloner(new LocalInvocationClassCloner(this.getClass().getClassLoader(), false), false);
+        assertSame(Color.RED, cloner.clone(Color.class, Color.RED));
+        // constant specific class bodies are subclasses of the enum
+        assertSame(Color.GREEN, cloner.clone(Object.class, Color.GREEN));
+
+        cloner = new LocalEjbReceiver.InvocationCloner(new LocalInvocationClassCloner(this.isolated, false), false);
+        try {
+            cloner.clone(Color.class, Color.RED);
+            fail("Enum should not be visible from the isolated class loader");
+        } catch (RuntimeException expected) {
+            assertEquals(ClassNotFoundException.class, expected.getCause().getClass());
+        }
+    }
+
+    enum Color {
+        RED,
+        GREEN {
+            @Override
+            public String toString() {
+                return "green";
+            }
+        },
+    }
+}
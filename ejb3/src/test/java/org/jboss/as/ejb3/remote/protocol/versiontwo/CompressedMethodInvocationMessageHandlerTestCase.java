@@ -1,5 +1,6 @@
 package org.jboss.as.ejb3.remote.protocol.versiontwo;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayOutputStream;
@@ -93,20 +94,43 @@ public class CompressedMethodInvocationMessageHandlerTestCase {
         assertEquals(UNCOMPRESSED_HEADER, outputBytes[0]);
     }
 
+    /**
+     * Invocations over the same channel reuse the marshallers and the resolved methods of the previous ones
+     */
+    @Test
+    public void testRepeatedInvocations() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final ChannelAssociation channelAssociation = createChannelAssociation(outputStream);
+
+        callMessageInvocationHandler(channelAssociation, RemoteNotCompressingBean.class, "echoWithoutCompressionHint");
+        final byte[] first = outputStream.toByteArray();
+        outputStream.reset();
+        callMessageInvocationHandler(channelAssociation, RemoteNotCompressingBean.class, "echoWithoutCompressionHint");
+        assertArrayEquals(first, outputStream.toByteArray());
+
+        outputStream.reset();
+        callMessageInvocationHandler(channelAssociation, RemoteCompressingBean.class, "echoWithResponseCompressionEnabled");
+        assertEquals(COMPRESSED_HEADER, outputStream.toByteArray()[0]);
+    }
+
     private byte[] callMessageInvocationHandler(Class remoteInterface, String methodName) throws Exception {
+        // prepare output stream
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final ChannelAssociation channelAssociation = createChannelAssociation(outputStream);
+
+        callMessageInvocationHandler(channelAssociation, remoteInterface, methodName);
+
+        return outputStream.toByteArray();
+    }
+
+    private void callMessageInvocationHandler(ChannelAssociation channelAssociation, Class remoteInterface, String methodName) throws Exception {
         // prepare input stream
         final PipedOutputStream pos = new PipedOutputStream();
         final DataOutputStream dataOutput = new DataOutputStream(pos);
         final InputStream inputStream = new PipedInputStream(pos);
 
-        // prepare output stream
-        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        final ChannelAssociation channelAssociation = createChannelAssociation(outputStream);
-
         writeInvocationRequest(dataOutput, remoteInterface, methodName);
         handler.processMessage(channelAssociation, inputStream);
-
-        return outputStream.toByteArray();
     }
 
     private <T> void writeInvocationRequest(DataOutputStream dataOutput, Class<T> remoteInterface, String methodName) throws IOException {
@@ -196,6 +220,7 @@ public class CompressedMethodInvocationMessageHandlerTestCase {
         // deployment repository
         final DeploymentRepository deploymentRepository = Mockito.mock(DeploymentRepository.class);
         Mockito.when(deploymentRepository.getStartedModules()).thenReturn(modules);
+        Mockito.when(deploymentRepository.getStartedModule(identifier)).thenReturn(deployment);
         return deploymentRepository;
     }
 
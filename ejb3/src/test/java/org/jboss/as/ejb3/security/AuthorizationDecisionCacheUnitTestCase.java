@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link AuthorizationDecisionCache}.
+ */
+public class AuthorizationDecisionCacheUnitTestCase {
+
+    @Test
+    public void testDecisionsAreKeyedByIdentity() {
+        final AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        final Object roles = new HashSet<String>();
+        cache.put(roles, 0, true);
+        assertTrue(cache.get(roles, 0));
+        // an equal, but distinct role set belongs to another caller
+        assertNull(cache.get(new HashSet<String>(), 0));
+        final Object otherRoles = new HashSet<String>();
+        cache.put(otherRoles, 0, false);
+        assertFalse(cache.get(otherRoles, 0));
+        assertTrue(cache.get(roles, 0));
+    }
+
+    @Test
+    public void testFlushInvalidatesDecisions() {
+        final AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        final Object roles = new Object();
+        cache.put(roles, 1, true);
+        assertNull(cache.get(roles, 2));
+        assertEquals(0, cache.size());
+        // a decision made before a flush must not be served after it
+        cache.put(roles, 2, true);
+        assertNull(cache.get(roles, 3));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        for (int i = 0; i < AuthorizationDecisionCache.MAX_ENTRIES * 3; i++) {
+            cache.put(new Object(), 0, true);
+            assertTrue(cache.size() <= AuthorizationDecisionCache.MAX_ENTRIES);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link TimerJournal}
+ */
+public class TimerJournalTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReplay() throws Exception {
+        final File file = new File(folder.getRoot(), TimerJournal.FILE_NAME);
+        TimerJournal journal = TimerJournal.open(file);
+        journal.put("a", data("a1"));
+        journal.put("b", data("b1"));
+        journal.put("a", data("a2"));
+        journal.sync(journal.remove("b"));
+        journal.close();
+
+        journal = TimerJournal.open(file);
+        try {
+            assertTrue(journal.contains("a"));
+            assertFalse(journal.contains("b"));
+            final List<byte[]> records = journal.records();
+            assertEquals(1, records.size());
+            assertArrayEquals(data("a2"), records.get(0));
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * A record that was only partially written before a crash must be discarded, and later records appended after
+     * the last complete one.
+     */
+    @Test
+    public void testTornRecord() throws Exception {
+        final File file = new File(folder.getRoot(), TimerJournal.FILE_NAME);
+        TimerJournal journal = TimerJournal.open(file);
+        journal.put("a", data("a1"));
+        journal.sync(journal.put("b", data("b1")));
+        journal.close();
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - 3);
+        } finally {
+            raf.close();
+        }
+
+        journal = TimerJournal.open(file);
+        assertTrue(journal.contains("a"));
+        assertFalse(journal.contains("b"));
+        journal.sync(journal.put("c", data("c1")));
+        journal.close();
+
+        journal = TimerJournal.open(file);
+        try {
+            assertEquals(2, journal.records().size());
+            assertTrue(journal.contains("c"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        final File file = new File(folder.getRoot(), TimerJournal.FILE_NAME);
+        TimerJournal journal = TimerJournal.open(file);
+        final int updates = TimerJournal.COMPACTION_THRESHOLD * 4;
+        for (int i = 0; i < updates; i++) {
+            journal.sync(journal.put("timer" + (i % 10), data(Integer.toString(i))));
+        }
+        journal.close();
+        // 10 live timers, the superseded records have been dropped
+        assertTrue(file.length() < updates * 10);
+
+        journal = TimerJournal.open(file);
+        try {
+            assertEquals(10, journal.records().size());
+            for (int i = updates - 10; i < updates; i++) {
+                assertTrue(journal.contains("timer" + (i % 10)));
+            }
+            assertArrayEquals(data(Integer.toString(updates - 1)), journal.records().get((updates - 1) % 10));
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * A failed compaction must leave the current journal usable, and keep the pending records.
+     */
+    @Test
+    public void testCompactionFailure() throws Exception {
+        final File file = new File(folder.getRoot(), TimerJournal.FILE_NAME);
+        // a directory in place of the compacted journal makes compaction fail
+        final File compacted = new File(folder.getRoot(), TimerJournal.FILE_NAME + ".compact");
+        assertTrue(compacted.mkdir());
+        TimerJournal journal = TimerJournal.open(file);
+        final int failed = TimerJournal.COMPACTION_THRESHOLD + 10;
+        for (int i = 0; i < failed; i++) {
+            journal.sync(journal.put("timer" + (i % 10), data(Integer.toString(i))));
+        }
+        final long uncompacted = file.length();
+        assertTrue(compacted.delete());
+        // compaction is retried once another threshold of records has been written
+        final int updates = failed + TimerJournal.COMPACTION_THRESHOLD;
+        for (int i = failed; i < updates; i++) {
+            journal.sync(journal.put("timer" + (i % 10), data(Integer.toString(i))));
+        }
+        assertTrue(file.length() < uncompacted);
+        journal.close();
+
+        journal = TimerJournal.open(file);
+        try {
+            assertEquals(10, journal.records().size());
+            assertArrayEquals(data(Integer.toString(updates - 1)), journal.records().get((updates - 1) % 10));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentSync() throws Exception {
+        final File file = new File(folder.getRoot(), TimerJournal.FILE_NAME);
+        final TimerJournal journal = TimerJournal.open(file);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < 100; i++) {
+                            journal.sync(journal.put(thread + "-" + i, data("x")));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+            journal.close();
+        }
+        final TimerJournal replayed = TimerJournal.open(file);
+        try {
+            assertEquals(800, replayed.records().size());
+        } finally {
+            replayed.close();
+        }
+    }
+
+    private static byte[] data(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
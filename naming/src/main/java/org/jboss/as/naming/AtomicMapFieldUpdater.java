@@ -23,14 +23,16 @@
 package org.jboss.as.naming;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.jboss.as.naming.logging.NamingLogger;
-import org.jboss.as.naming.util.FastCopyHashMap;
+import org.jboss.as.naming.util.PersistentHashMap;
 
 /**
+ * Atomically updates a map field, by replacing the {@link PersistentHashMap} it holds, so that readers never need to
+ * synchronize.
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 final class AtomicMapFieldUpdater<C, K, V> {
@@ -47,7 +49,7 @@ final class AtomicMapFieldUpdater<C, K, V> {
     }
 
     public void clear(C instance) {
-        updater.set(instance, Collections.<K, V>emptyMap());
+        updater.set(instance, PersistentHashMap.<K, V>empty());
     }
 
     public V get(C instance, Object key) {
@@ -60,28 +62,9 @@ final class AtomicMapFieldUpdater<C, K, V> {
         }
         for (;;) {
             final Map<K, V> oldMap = updater.get(instance);
-            final Map<K, V> newMap;
-            final V oldValue;
-            final int oldSize = oldMap.size();
-            if (oldSize == 0) {
-                oldValue = null;
-                newMap = Collections.singletonMap(key, value);
-            } else if (oldSize == 1) {
-                final Map.Entry<K, V> entry = oldMap.entrySet().iterator().next();
-                final K oldKey = entry.getKey();
-                if (oldKey.equals(key)) {
-                    newMap = Collections.singletonMap(key, value);
-                    oldValue = entry.getValue();
-                } else {
-                    newMap = new FastCopyHashMap<K, V>(oldMap);
-                    oldValue = newMap.put(key, value);
-                }
-            } else {
-                newMap = new FastCopyHashMap<K, V>(oldMap);
-                oldValue = newMap.put(key, value);
-            }
-            final boolean result = updater.compareAndSet(instance, oldMap, newMap);
-            if (result) {
+            final PersistentHashMap<K, V> map = PersistentHashMap.of(oldMap);
+            final V oldValue = map.get(key);
+            if (updater.compareAndSet(instance, oldMap, map.plus(key, value))) {
                 return oldValue;
             }
         }
@@ -100,24 +83,12 @@ final class AtomicMapFieldUpdater<C, K, V> {
         if (key == null) {
             throw NamingLogger.ROOT_LOGGER.nullVar("key");
         }
-        final Map<K, V> newMap;
-        final int oldSize = snapshot.size();
-        if (oldSize == 0) {
-            newMap = Collections.singletonMap(key, value);
-        } else if (oldSize == 1) {
-            final Map.Entry<K, V> entry = snapshot.entrySet().iterator().next();
-            final K oldKey = entry.getKey();
-            if (oldKey.equals(key)) {
-                return entry.getValue();
-            } else {
-                newMap = new FastCopyHashMap<K, V>(snapshot);
-                newMap.put(key, value);
-            }
-        } else {
-            newMap = new FastCopyHashMap<K, V>(snapshot);
-            newMap.put(key, value);
+        final PersistentHashMap<K, V> map = PersistentHashMap.of(snapshot);
+        final V existing = map.get(key);
+        if (existing != null) {
+            return existing;
         }
-        if (updater.compareAndSet(instance, snapshot, newMap)) {
+        if (updater.compareAndSet(instance, snapshot, map.plus(key, value))) {
             return null;
         } else {
             return value;
@@ -130,27 +101,12 @@ final class AtomicMapFieldUpdater<C, K, V> {
         }
         for (;;) {
             final Map<K, V> oldMap = updater.get(instance);
-            final Map<K, V> newMap;
-            final int oldSize = oldMap.size();
-            if (oldSize == 0) {
-                newMap = Collections.singletonMap(key, value);
-            } else if (oldSize == 1) {
-                final Map.Entry<K, V> entry = oldMap.entrySet().iterator().next();
-                final K oldKey = entry.getKey();
-                if (oldKey.equals(key)) {
-                    return entry.getValue();
-                } else {
-                    newMap = new FastCopyHashMap<K, V>(oldMap);
-                    newMap.put(key, value);
-                }
-            } else {
-                if (oldMap.containsKey(key)) {
-                    return oldMap.get(key);
-                }
-                newMap = new FastCopyHashMap<K, V>(oldMap);
-                newMap.put(key, value);
+            final PersistentHashMap<K, V> map = PersistentHashMap.of(oldMap);
+            final V existing = map.get(key);
+            if (existing != null) {
+                return existing;
             }
-            if (updater.compareAndSet(instance, oldMap, newMap)) {
+            if (updater.compareAndSet(instance, oldMap, map.plus(key, value))) {
                 return null;
             }
         }
@@ -162,40 +118,12 @@ final class AtomicMapFieldUpdater<C, K, V> {
         }
         for (;;) {
             final Map<K, V> oldMap = updater.get(instance);
-            final Map<K, V> newMap;
-            final V oldValue;
-            final int oldSize = oldMap.size();
-            if (oldSize == 0) {
+            final PersistentHashMap<K, V> map = PersistentHashMap.of(oldMap);
+            final V oldValue = map.get(key);
+            if (oldValue == null && !map.containsKey(key)) {
                 return null;
-            } else if (oldSize == 1) {
-                final Map.Entry<K, V> entry = oldMap.entrySet().iterator().next();
-                if (entry.getKey().equals(key)) {
-                    newMap = Collections.emptyMap();
-                    oldValue = entry.getValue();
-                } else {
-                    return null;
-                }
-            } else if (oldSize == 2) {
-                final Iterator<Map.Entry<K,V>> i = oldMap.entrySet().iterator();
-                final Map.Entry<K, V> entry = i.next();
-                final Map.Entry<K, V> next = i.next();
-                if (entry.getKey().equals(key)) {
-                    newMap = Collections.singletonMap(next.getKey(), next.getValue());
-                    oldValue = entry.getValue();
-                } else if (next.getKey().equals(key)) {
-                    newMap = Collections.singletonMap(entry.getKey(), entry.getValue());
-                    oldValue = next.getValue();
-                } else {
-                    return null;
-                }
-            } else {
-                if (! oldMap.containsKey(key)) {
-                    return null;
-                }
-                newMap = new FastCopyHashMap<K, V>(oldMap);
-                oldValue = newMap.remove(key);
             }
-            if (updater.compareAndSet(instance, oldMap, newMap)) {
+            if (updater.compareAndSet(instance, oldMap, map.minus(key))) {
                 return oldValue;
             }
         }
@@ -207,6 +135,6 @@ final class AtomicMapFieldUpdater<C, K, V> {
 
     public Map<K, V> getReadOnly(final C subregistry) {
         final Map<K, V> snapshot = updater.get(subregistry);
-        return snapshot instanceof FastCopyHashMap ? Collections.unmodifiableMap(snapshot) : snapshot;
+        return snapshot instanceof PersistentHashMap ? snapshot : Collections.unmodifiableMap(snapshot);
     }
 }
@@ -1,6 +1,11 @@
 package org.jboss.as.naming;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 
 /**
  * Managed reference that creates an instance from the constructor.
@@ -9,14 +14,33 @@ import java.lang.reflect.Constructor;
  */
 public class ConstructorManagedReferenceFactory implements ManagedReferenceFactory {
 
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+
     private final Constructor<?> constructor;
 
+    /**
+     * A handle of the constructor, which is cheaper to invoke than the constructor itself, or {@code null} if the
+     * constructor can only be invoked reflectively
+     */
+    private final MethodHandle handle;
+
     public ConstructorManagedReferenceFactory(Constructor<?> constructor) {
         this.constructor = constructor;
+        this.handle = unreflect(constructor);
     }
 
     @Override
     public ManagedReference getReference() {
+        if (handle != null) {
+            final Object instance;
+            try {
+                instance = handle.invokeExact();
+            } catch (Throwable t) {
+                // report exceptions thrown by the constructor the same way Constructor.newInstance() does
+                throw new RuntimeException(new InvocationTargetException(t));
+            }
+            return new ImmediateManagedReference(instance);
+        }
         try {
             return new ImmediateManagedReference(constructor.newInstance());
         } catch (Exception e) {
@@ -24,4 +48,15 @@ public class ConstructorManagedReferenceFactory implements ManagedReferenceFacto
         }
     }
 
+    private static MethodHandle unreflect(final Constructor<?> constructor) {
+        if (constructor.getParameterCount() != 0 || Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflectConstructor(constructor).asType(FACTORY_TYPE);
+        } catch (IllegalAccessException | SecurityException e) {
+            // leave the access checks, and their failures, to Constructor.newInstance()
+            return null;
+        }
+    }
 }
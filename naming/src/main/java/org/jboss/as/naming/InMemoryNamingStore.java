@@ -32,7 +32,6 @@ import static org.jboss.as.naming.util.NamingUtils.nameNotFoundException;
 import static org.jboss.as.naming.util.NamingUtils.notAContextException;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +52,7 @@ import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.spi.ResolveResult;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.PersistentHashMap;
 
 /**
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
@@ -299,7 +299,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
     private static final AtomicMapFieldUpdater<ContextNode, String, TreeNode> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, Map.class, "children"));
 
     private class ContextNode extends TreeNode {
-        volatile Map<String, TreeNode> children = Collections.emptyMap();
+        volatile Map<String, TreeNode> children = PersistentHashMap.empty();
         protected final String name;
         protected final ContextNode parentNode;
 
@@ -311,7 +311,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         private void addChild(final String childName, final TreeNode childNode) throws NamingException {
             if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
-                throw nameAlreadyBoundException(fullName.add(childName));
+                throw nameAlreadyBoundException(((Name) fullName.clone()).add(childName));
             }
         }
 
@@ -362,14 +362,13 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
     private abstract class NodeTraversingVisitor<T> implements NodeVisitor<T> {
         private final boolean createIfMissing;
-        private Name currentName;
-        private Name traversedName;
+        // index of the next component of the target name to traverse, so that no intermediate names are created
+        private int position;
         protected final Name targetName;
 
         protected NodeTraversingVisitor(final boolean createIfMissing, final Name targetName) {
             this.createIfMissing = createIfMissing;
-            this.targetName = currentName = targetName;
-            this.traversedName = new CompositeName();
+            this.targetName = targetName;
         }
 
         protected NodeTraversingVisitor(final Name targetName) {
@@ -377,24 +376,23 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
 
         public final T visit(final BindingNode bindingNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isRemainingNameEmpty()) {
                 return found(bindingNode);
             }
             return foundReferenceInsteadOfContext(bindingNode);
         }
 
         public final T visit(final ContextNode contextNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isRemainingNameEmpty()) {
                 return found(contextNode);
             }
-            final String childName = currentName.get(0);
-            traversedName.add(childName);
-            currentName = currentName.getSuffix(1);
+            final String childName = targetName.get(position++);
             final TreeNode node = contextNode.children.get(childName);
             if (node == null) {
                 if (createIfMissing) {
+                    final Name traversedName = targetName.getPrefix(position);
                     final NamingContext subContext = new NamingContext((Name)traversedName.clone(), InMemoryNamingStore.this, new Hashtable<String, Object>());
-                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, (Name)traversedName.clone(), subContext)).accept(this);
+                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, traversedName, subContext)).accept(this);
                 } else {
                     throw nameNotFoundException(childName, contextNode.fullName);
                 }
@@ -402,13 +400,18 @@ public class InMemoryNamingStore implements WritableNamingStore {
             return node.accept(this);
         }
 
+        private boolean isRemainingNameEmpty() {
+            final int remaining = targetName.size() - position;
+            return remaining == 0 || (remaining == 1 && "".equals(targetName.get(position)));
+        }
+
         protected abstract T found(ContextNode contextNode) throws NamingException;
 
         protected abstract T found(BindingNode bindingNode) throws NamingException;
 
         protected T foundReferenceInsteadOfContext(BindingNode bindingNode) throws NamingException {
             final Object object = bindingNode.binding.getObject();
-            checkReferenceForContinuation(currentName, object);
+            checkReferenceForContinuation(targetName.getSuffix(position), object);
             throw notAContextException(bindingNode.fullName);
         }
     }
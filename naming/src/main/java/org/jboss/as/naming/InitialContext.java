@@ -40,6 +40,7 @@ import javax.naming.spi.ObjectFactory;
 
 import org.jboss.as.naming.context.NamespaceContextSelector;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.ImmutableCompositeName;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -206,10 +207,10 @@ public class InitialContext extends InitialLdapContext {
                         remaining = getNameParser(theRest).parse(theRest);
                     } else if (theRest.equals("jboss") && name.size() > 1 && name.get(1).equals("exported")) {
                         namespace = "jboss/exported";
-                        remaining = name.getSuffix(2);
+                        remaining = (name instanceof ImmutableCompositeName) ? ((ImmutableCompositeName) name).getImmutableSuffix(2) : name.getSuffix(2);
                     } else {
                         namespace = theRest;
-                        remaining = name.getSuffix(1);
+                        remaining = (name instanceof ImmutableCompositeName) ? ((ImmutableCompositeName) name).getNamespaceSuffix() : name.getSuffix(1);
                     }
                 } else {
                     namespace = null;
@@ -54,6 +54,7 @@ import javax.naming.spi.ResolveResult;
 import org.jboss.as.naming.JndiPermission.Action;
 import org.jboss.as.naming.context.ObjectFactoryBuilder;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.ImmutableCompositeName;
 import org.jboss.as.naming.util.NameParser;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -520,7 +521,9 @@ public class NamingContext implements EventContext {
     }
 
     private Name parseName(final String name) throws NamingException {
-        return getNameParser(name).parse(name);
+        final NameParser parser = getNameParser(name);
+        // the names are only read by this context and the naming stores, so they can be shared
+        return (parser == NameParser.INSTANCE) ? NameParser.INSTANCE.parseImmutable(name) : parser.parse(name);
     }
 
     private Name getAbsoluteName(final Name name) throws NamingException {
@@ -530,13 +533,14 @@ public class NamingContext implements EventContext {
         final String firstComponent = name.get(0);
         if(firstComponent.startsWith("java:")) {
             final String cleaned = firstComponent.substring(5);
-            final Name suffix = name.getSuffix(1);
             if(cleaned.isEmpty()) {
-                return suffix;
+                return (name instanceof ImmutableCompositeName) ? ((ImmutableCompositeName) name).getNamespaceSuffix() : name.getSuffix(1);
             }
-            return suffix.add(0, cleaned);
+            return name.getSuffix(1).add(0, cleaned);
         } else if(firstComponent.isEmpty()) {
-            return name.getSuffix(1);
+            return (name instanceof ImmutableCompositeName) ? ((ImmutableCompositeName) name).getNamespaceSuffix() : name.getSuffix(1);
+        } else if(prefix.isEmpty() && name instanceof ImmutableCompositeName) {
+            return name;
         } else {
             return composeName(name, prefix);
         }
@@ -24,7 +24,7 @@ package org.jboss.as.naming;
 
 import java.security.PrivilegedAction;
 import java.util.concurrent.ThreadFactory;
-import org.jboss.as.naming.util.FastCopyHashMap;
+import org.jboss.as.naming.util.PersistentHashMap;
 
 import javax.naming.Binding;
 import javax.naming.Name;
@@ -34,10 +34,8 @@ import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.event.ObjectChangeListener;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
@@ -54,8 +52,8 @@ import static java.security.AccessController.doPrivileged;
  * @author John E. Bailey
  */
 public class NamingEventCoordinator {
-    private volatile Map<TargetScope, List<ListenerHolder>> holdersByTarget = Collections.emptyMap();
-    private volatile Map<NamingListener, ListenerHolder> holdersByListener = Collections.emptyMap();
+    private volatile PersistentHashMap<TargetScope, List<ListenerHolder>> holdersByTarget = PersistentHashMap.empty();
+    private volatile PersistentHashMap<NamingListener, ListenerHolder> holdersByListener = PersistentHashMap.empty();
 
     private final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
         public JBossThreadFactory run() {
@@ -81,9 +79,7 @@ public class NamingEventCoordinator {
         ListenerHolder holder = holdersByListener.get(namingListener);
         if (holder == null) {
             holder = new ListenerHolder(namingListener, targetScope);
-            final Map<NamingListener, ListenerHolder> byListenerCopy = new FastCopyHashMap<NamingListener, ListenerHolder>(holdersByListener);
-            byListenerCopy.put(namingListener, holder);
-            holdersByListener = byListenerCopy;
+            holdersByListener = holdersByListener.plus(namingListener, holder);
         } else {
             holder.addTarget(targetScope);
         }
@@ -91,9 +87,7 @@ public class NamingEventCoordinator {
         List<ListenerHolder> holdersForTarget = holdersByTarget.get(targetScope);
         if (holdersForTarget == null) {
             holdersForTarget = new CopyOnWriteArrayList<ListenerHolder>();
-            final Map<TargetScope, List<ListenerHolder>> byTargetCopy = new FastCopyHashMap<TargetScope, List<ListenerHolder>>(holdersByTarget);
-            byTargetCopy.put(targetScope, holdersForTarget);
-            holdersByTarget = byTargetCopy;
+            holdersByTarget = holdersByTarget.plus(targetScope, holdersForTarget);
         }
         holdersForTarget.add(holder);
     }
@@ -111,19 +105,17 @@ public class NamingEventCoordinator {
             return;
         }
 
-        final Map<NamingListener, ListenerHolder> byListenerCopy = new FastCopyHashMap<NamingListener, ListenerHolder>(holdersByListener);
-        byListenerCopy.remove(namingListener);
-        holdersByListener = byListenerCopy;
+        holdersByListener = holdersByListener.minus(namingListener);
 
-        final Map<TargetScope, List<ListenerHolder>> byTargetCopy = new FastCopyHashMap<TargetScope, List<ListenerHolder>>(holdersByTarget);
+        PersistentHashMap<TargetScope, List<ListenerHolder>> byTarget = holdersByTarget;
         for (TargetScope targetScope : holder.targets) {
-            final List<ListenerHolder> holders = holdersByTarget.get(targetScope);
+            final List<ListenerHolder> holders = byTarget.get(targetScope);
             holders.remove(holder);
             if (holders.isEmpty()) {
-                byTargetCopy.remove(targetScope);
+                byTarget = byTarget.minus(targetScope);
             }
         }
-        holdersByTarget = byTargetCopy;
+        holdersByTarget = byTarget;
     }
 
     /**
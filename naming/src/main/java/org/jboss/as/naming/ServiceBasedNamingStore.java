@@ -30,7 +30,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -47,6 +51,7 @@ import javax.naming.spi.ResolveResult;
 
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.ImmutableCompositeName;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
@@ -58,6 +63,12 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    // upper bound of the resolved binding cache, so that lookups of generated names cannot exhaust the heap
+    private static final int MAX_RESOLVED_BINDINGS = 1024;
+
+    private static final LongAdder RESOLVED_BINDING_HITS = new LongAdder();
+    private static final LongAdder RESOLVED_BINDING_MISSES = new LongAdder();
+
     private final Name EMPTY_NAME = new CompositeName();
     private Name baseName;
     private final ServiceRegistry serviceRegistry;
@@ -65,6 +76,10 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    // lookups that resolved to a binding of this store, invalidated as a whole whenever a binding is added or removed
+    private final ConcurrentMap<Name, ResolvedBinding> resolvedBindings = new ConcurrentHashMap<Name, ResolvedBinding>();
+    private final AtomicInteger bindingsVersion = new AtomicInteger();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -79,8 +94,22 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        if (dereference) {
+            final ResolvedBinding resolved = resolvedBindings.get(name);
+            if (resolved != null && resolved.version == bindingsVersion.get()) {
+                RESOLVED_BINDING_HITS.increment();
+                try {
+                    return resolved.getInstance();
+                } catch (Throwable t) {
+                    throw NamingLogger.ROOT_LOGGER.lookupError(t, name.toString());
+                }
+            }
+            RESOLVED_BINDING_MISSES.increment();
+        }
+        final int version = bindingsVersion.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        final ServiceController<?> controller = getService(name.toString(), lookupName);
+        Object obj = lookup(name.toString(), controller, dereference);
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
@@ -105,10 +134,61 @@ public class ServiceBasedNamingStore implements NamingStore {
             }
             throw new NameNotFoundException(name.toString() + " -- " + lookupName);
         }
-
+        if (dereference) {
+            cache(name, controller, obj, version);
+        }
         return obj;
     }
 
+    private void cache(final Name name, final ServiceController<?> controller, final Object instance, final int version) {
+        final Object value;
+        try {
+            value = controller.getValue();
+        } catch (IllegalStateException e) {
+            // the binding went away in the meantime
+            return;
+        }
+        final ResolvedBinding resolved;
+        if (value instanceof ManagedReferenceFactory) {
+            if (value instanceof ImmediateManagedReferenceFactory
+                    || (value instanceof ValueManagedReferenceFactory && ((ValueManagedReferenceFactory) value).isImmediate())) {
+                // the instance never changes while the binding exists
+                resolved = new ResolvedBinding(null, instance, version);
+            } else {
+                resolved = new ResolvedBinding((ManagedReferenceFactory) value, null, version);
+            }
+        } else {
+            resolved = new ResolvedBinding(null, value, version);
+        }
+        if (resolvedBindings.size() >= MAX_RESOLVED_BINDINGS) {
+            resolvedBindings.clear();
+        }
+        // immutable names can be shared as is
+        resolvedBindings.put((name instanceof ImmutableCompositeName) ? name : (Name) name.clone(), resolved);
+    }
+
+    /**
+     * Discards all resolved bindings, needed whenever the value of a binding changes.
+     */
+    protected void invalidateResolvedBindings() {
+        bindingsVersion.incrementAndGet();
+        resolvedBindings.clear();
+    }
+
+    /**
+     * @return the number of lookups, over all service based naming stores, that were served by a previously resolved binding
+     */
+    public static long getResolvedBindingHitCount() {
+        return RESOLVED_BINDING_HITS.sum();
+    }
+
+    /**
+     * @return the number of lookups, over all service based naming stores, that had to resolve the binding
+     */
+    public static long getResolvedBindingMissCount() {
+        return RESOLVED_BINDING_MISSES.sum();
+    }
+
     private void checkReferenceForContinuation(final Name name, final Object object) throws CannotProceedException {
         if (object instanceof Reference) {
             if (((Reference) object).get("nns") != null) {
@@ -125,24 +205,27 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, getService(name, lookupName), dereference);
+    }
+
+    private ServiceController<?> getService(final String name, final ServiceName lookupName) throws NamingException {
+        try {
+            return serviceRegistry.getService(lookupName);
+        } catch (IllegalStateException e) {
+            NameNotFoundException n = new NameNotFoundException(name);
+            n.initCause(e);
+            throw n;
+        } catch (Throwable t) {
+            throw NamingLogger.ROOT_LOGGER.lookupError(t, name);
+        }
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
-                    if(WildFlySecurityManager.isChecking()) {
-                        //WFLY-3487 JNDI lookups should be executed in a clean access control context
-                        return AccessController.doPrivileged(new PrivilegedAction<Object>() {
-                            @Override
-                            public Object run() {
-                                final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
-                                return managedReference != null ? managedReference.getInstance() : null;
-                            }
-                        });
-                    } else {
-                        final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
-                        return managedReference != null ? managedReference.getInstance() : null;
-                    }
+                    return getInstance(ManagedReferenceFactory.class.cast(object));
                 } else {
                     return object;
                 }
@@ -158,6 +241,22 @@ public class ServiceBasedNamingStore implements NamingStore {
         }
     }
 
+    private static Object getInstance(final ManagedReferenceFactory factory) {
+        if(WildFlySecurityManager.isChecking()) {
+            //WFLY-3487 JNDI lookups should be executed in a clean access control context
+            return AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                @Override
+                public Object run() {
+                    final ManagedReference managedReference = factory.getReference();
+                    return managedReference != null ? managedReference.getInstance() : null;
+                }
+            });
+        } else {
+            final ManagedReference managedReference = factory.getReference();
+            return managedReference != null ? managedReference.getInstance() : null;
+        }
+    }
+
     public List<NameClassPair> list(final Name name) throws NamingException {
         final ServiceName lookupName = buildServiceName(name);
         final ServiceName floor = boundServices.floor(lookupName);
@@ -255,6 +354,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidateResolvedBindings();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -269,13 +369,18 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidateResolvedBindings();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidateResolvedBindings();
     }
 
     protected ServiceName buildServiceName(final Name name) {
+        if (name instanceof ImmutableCompositeName) {
+            return ((ImmutableCompositeName) name).toServiceName(serviceNameBase);
+        }
         final Enumeration<String> parts = name.getAll();
         ServiceName current = serviceNameBase;
         while (parts.hasMoreElements()) {
@@ -365,4 +470,20 @@ public class ServiceBasedNamingStore implements NamingStore {
         }
         return new CompositeName();
     }
+
+    private static final class ResolvedBinding {
+        private final ManagedReferenceFactory factory;
+        private final Object instance;
+        private final int version;
+
+        ResolvedBinding(final ManagedReferenceFactory factory, final Object instance, final int version) {
+            this.factory = factory;
+            this.instance = instance;
+            this.version = version;
+        }
+
+        Object getInstance() {
+            return (factory != null) ? ServiceBasedNamingStore.getInstance(factory) : instance;
+        }
+    }
 }
@@ -24,6 +24,7 @@ package org.jboss.as.naming;
 
 import java.io.Serializable;
 
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.msc.value.Value;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -51,6 +52,13 @@ public final class ValueManagedReferenceFactory implements ContextListAndJndiVie
         return new ValueManagedReference(value.getValue());
     }
 
+    /**
+     * @return {@code true} if every reference holds the same instance, which may then be cached by the naming store
+     */
+    boolean isImmediate() {
+        return value instanceof ImmediateValue;
+    }
+
     @Override
     public String getInstanceClassName() {
         final Object instance = value != null ? value.getValue() : null;
@@ -591,4 +591,13 @@ public interface NamingLogger extends BasicLogger {
     @Message(id = 63, value = "%s service not started")
     IllegalStateException serviceNotStarted(ServiceName serviceName);
 
+    /**
+     * Creates an exception indicating an attempt to modify a name shared by the naming contexts.
+     *
+     * @param name the name
+     *
+     * @return an {@link UnsupportedOperationException} for the error.
+     */
+    @Message(id = 64, value = "Name %s can not be modified")
+    UnsupportedOperationException immutableName(String name);
 }
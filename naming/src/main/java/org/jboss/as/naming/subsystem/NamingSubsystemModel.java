@@ -46,6 +46,9 @@ public interface NamingSubsystemModel {
 
     String REMOTE_NAMING = "remote-naming";
 
+    String RESOLVED_BINDING_HIT_COUNT = "resolved-binding-hit-count";
+    String RESOLVED_BINDING_MISS_COUNT = "resolved-binding-miss-count";
+
     String SIMPLE = "simple";
     String SERVICE = "service";
 
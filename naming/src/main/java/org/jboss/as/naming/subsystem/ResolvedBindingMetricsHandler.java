@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler for the metrics of the resolved binding cache of the {@link ServiceBasedNamingStore}s.
+ */
+public class ResolvedBindingMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final SimpleAttributeDefinition HIT_COUNT = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.RESOLVED_BINDING_HIT_COUNT, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition MISS_COUNT = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.RESOLVED_BINDING_MISS_COUNT, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final ResolvedBindingMetricsHandler INSTANCE = new ResolvedBindingMetricsHandler();
+
+    private ResolvedBindingMetricsHandler() {
+    }
+
+    void registerMetrics(final ManagementResourceRegistration registration) {
+        for (AttributeDefinition metric : new AttributeDefinition[] { HIT_COUNT, MISS_COUNT }) {
+            registration.registerMetric(metric, this);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        if (HIT_COUNT.getName().equals(attributeName)) {
+            context.getResult().set(ServiceBasedNamingStore.getResolvedBindingHitCount());
+        } else if (MISS_COUNT.getName().equals(attributeName)) {
+            context.getResult().set(ServiceBasedNamingStore.getResolvedBindingMissCount());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.util;
+
+import java.util.Arrays;
+import java.util.Enumeration;
+
+import javax.naming.CompositeName;
+import javax.naming.InvalidNameException;
+import javax.naming.Name;
+
+import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * A {@link CompositeName} that can not be modified, so that it may be shared by everyone parsing or looking up the
+ * same name. The components, hash code and string form are computed once, and the mapping to the {@link ServiceName}
+ * of the last naming store it was resolved against is remembered.
+ * <p/>
+ * {@link #clone()}, {@link #getPrefix(int)} and {@link #getSuffix(int)} return regular, modifiable names.
+ */
+public final class ImmutableCompositeName extends CompositeName {
+
+    private static final long serialVersionUID = -3420447950154356387L;
+
+    private final String[] components;
+    private final int hashCode;
+    private final String string;
+
+    private transient volatile ImmutableCompositeName namespaceSuffix;
+    private transient volatile ServiceNameMapping serviceNameMapping;
+
+    public ImmutableCompositeName(final String name) throws InvalidNameException {
+        super(name);
+        this.components = new String[this.size()];
+        for (int i = 0; i < this.components.length; i++) {
+            this.components[i] = this.get(i);
+        }
+        this.hashCode = super.hashCode();
+        this.string = super.toString();
+    }
+
+    private ImmutableCompositeName(final String[] components) {
+        super(new ComponentEnumeration(components));
+        this.components = components;
+        this.hashCode = super.hashCode();
+        this.string = super.toString();
+    }
+
+    /**
+     * Get the name without its first component, typically the {@code java:} namespace, as an immutable name.
+     *
+     * @return the suffix of this name starting at position 1
+     */
+    public ImmutableCompositeName getNamespaceSuffix() {
+        ImmutableCompositeName suffix = this.namespaceSuffix;
+        if (suffix == null) {
+            suffix = this.getImmutableSuffix(1);
+            this.namespaceSuffix = suffix;
+        }
+        return suffix;
+    }
+
+    /**
+     * Get a suffix of this name as an immutable name.
+     *
+     * @param position the index of the first component of the suffix
+     * @return the suffix of this name starting at {@code position}
+     */
+    public ImmutableCompositeName getImmutableSuffix(final int position) {
+        if (position < 0 || position > this.components.length) {
+            throw new ArrayIndexOutOfBoundsException(position);
+        }
+        return new ImmutableCompositeName(Arrays.copyOfRange(this.components, position, this.components.length));
+    }
+
+    /**
+     * Get the service name of the binding with this name in a naming store, skipping empty components.
+     *
+     * @param base the service name of the naming store
+     * @return the service name of the binding
+     */
+    public ServiceName toServiceName(final ServiceName base) {
+        final ServiceNameMapping mapping = this.serviceNameMapping;
+        if (mapping != null && mapping.base.equals(base)) {
+            return mapping.serviceName;
+        }
+        ServiceName serviceName = base;
+        for (String component : this.components) {
+            if (!component.isEmpty()) {
+                serviceName = serviceName.append(component);
+            }
+        }
+        this.serviceNameMapping = new ServiceNameMapping(base, serviceName);
+        return serviceName;
+    }
+
+    @Override
+    public Name add(final String comp) throws InvalidNameException {
+        throw NamingLogger.ROOT_LOGGER.immutableName(this.string);
+    }
+
+    @Override
+    public Name add(final int posn, final String comp) throws InvalidNameException {
+        throw NamingLogger.ROOT_LOGGER.immutableName(this.string);
+    }
+
+    @Override
+    public Name addAll(final Name suffix) throws InvalidNameException {
+        throw NamingLogger.ROOT_LOGGER.immutableName(this.string);
+    }
+
+    @Override
+    public Name addAll(final int posn, final Name n) throws InvalidNameException {
+        throw NamingLogger.ROOT_LOGGER.immutableName(this.string);
+    }
+
+    @Override
+    public Object remove(final int posn) throws InvalidNameException {
+        throw NamingLogger.ROOT_LOGGER.immutableName(this.string);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return this.string;
+    }
+
+    private Object writeReplace() {
+        // serialized as a regular composite name
+        return this.clone();
+    }
+
+    private static final class ServiceNameMapping {
+        final ServiceName base;
+        final ServiceName serviceName;
+
+        ServiceNameMapping(final ServiceName base, final ServiceName serviceName) {
+            this.base = base;
+            this.serviceName = serviceName;
+        }
+    }
+
+    private static final class ComponentEnumeration implements Enumeration<String> {
+        private final String[] components;
+        private int index;
+
+        ComponentEnumeration(final String[] components) {
+            this.components = components;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return this.index < this.components.length;
+        }
+
+        @Override
+        public String nextElement() {
+            return this.components[this.index++];
+        }
+    }
+}
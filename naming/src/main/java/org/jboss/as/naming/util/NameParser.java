@@ -22,6 +22,9 @@
 
 package org.jboss.as.naming.util;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.naming.CompositeName;
 import javax.naming.Name;
 import javax.naming.NamingException;
@@ -35,6 +38,11 @@ public class NameParser implements javax.naming.NameParser {
 
     public static final NameParser INSTANCE = new NameParser();
 
+    // upper bound of the parse cache, so that parsing of generated names cannot exhaust the heap
+    private static final int MAX_CACHED_NAMES = 4096;
+
+    private final ConcurrentMap<String, ImmutableCompositeName> cachedNames = new ConcurrentHashMap<String, ImmutableCompositeName>();
+
     private NameParser() {
     }
 
@@ -48,4 +56,24 @@ public class NameParser implements javax.naming.NameParser {
     public Name parse(String name) throws NamingException {
         return new CompositeName(name);
     }
+
+    /**
+     * Parse the string name into an immutable {@code javax.naming.Name} instance, which is shared with everyone else
+     * parsing the same string.
+     *
+     * @param name The name to parse
+     * @return The parsed name.
+     * @throws NamingException
+     */
+    public ImmutableCompositeName parseImmutable(String name) throws NamingException {
+        ImmutableCompositeName parsed = cachedNames.get(name);
+        if (parsed == null) {
+            parsed = new ImmutableCompositeName(name);
+            if (cachedNames.size() >= MAX_CACHED_NAMES) {
+                cachedNames.clear();
+            }
+            cachedNames.put(name, parsed);
+        }
+        return parsed;
+    }
 }
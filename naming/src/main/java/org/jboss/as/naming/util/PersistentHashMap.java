@@ -0,0 +1,441 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable hash map, implemented as a hash array mapped trie. Instead of modifying the map, {@link #plus(Object, Object)}
+ * and {@link #minus(Object)} return a new map which shares all but the path to the changed entry with this one, so that
+ * an update costs O(log n) instead of the O(n) of copying a hash map, while reads need no synchronization at all.
+ * <p/>
+ * Null keys are not supported.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final PersistentHashMap EMPTY = new PersistentHashMap(null, 0);
+
+    private final Node<K, V> root;
+    private final int size;
+
+    private PersistentHashMap(final Node<K, V> root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get a persistent map with the entries of the given map.
+     *
+     * @param map the map to copy
+     * @return the given map if it is a persistent map already, a copy otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> of(final Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            return (PersistentHashMap<K, V>) map;
+        }
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Get a map with the given mapping added to, or replaced in this map.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the new map, or this map if it contains the mapping already
+     */
+    public PersistentHashMap<K, V> plus(final K key, final V value) {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        final Leaf<K, V> leaf = new Leaf<K, V>(hash(key), key, value);
+        if (this.root == null) {
+            return new PersistentHashMap<K, V>(new BitmapNode<K, V>(bit(leaf.hash, 0), new Object[] { leaf }), 1);
+        }
+        final boolean[] added = new boolean[1];
+        final Node<K, V> root = this.root.put(leaf, 0, added);
+        return (root == this.root) ? this : new PersistentHashMap<K, V>(root, added[0] ? this.size + 1 : this.size);
+    }
+
+    /**
+     * Get a map without the mapping of the given key.
+     *
+     * @param key the key
+     * @return the new map, or this map if it does not contain the key
+     */
+    public PersistentHashMap<K, V> minus(final Object key) {
+        if (key == null || this.root == null) {
+            return this;
+        }
+        final Node<K, V> root = this.root.remove(key, hash(key), 0);
+        if (root == this.root) {
+            return this;
+        }
+        return (root == null) ? PersistentHashMap.<K, V>empty() : new PersistentHashMap<K, V>(root, this.size - 1);
+    }
+
+    @Override
+    public V get(final Object key) {
+        if (key == null || this.root == null) {
+            return null;
+        }
+        final Leaf<K, V> leaf = this.root.find(key, hash(key), 0);
+        return (leaf != null) ? leaf.getValue() : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return (key != null) && (this.root != null) && (this.root.find(key, hash(key), 0) != null);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<K, V>(PersistentHashMap.this.root);
+            }
+
+            @Override
+            public int size() {
+                return PersistentHashMap.this.size;
+            }
+        };
+    }
+
+    static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    static <K, V> Node<K, V> merge(final Leaf<K, V> leaf1, final Leaf<K, V> leaf2, final int shift) {
+        if (leaf1.hash == leaf2.hash) {
+            return new CollisionNode<K, V>(leaf1.hash, new Object[] { leaf1, leaf2 });
+        }
+        final int bit1 = bit(leaf1.hash, shift);
+        final int bit2 = bit(leaf2.hash, shift);
+        if (bit1 == bit2) {
+            return new BitmapNode<K, V>(bit1, new Object[] { merge(leaf1, leaf2, shift + BITS) });
+        }
+        return new BitmapNode<K, V>(bit1 | bit2, (bit1 < bit2) ? new Object[] { leaf1, leaf2 } : new Object[] { leaf2, leaf1 });
+    }
+
+    static Object[] replace(final Object[] array, final int index, final Object value) {
+        final Object[] result = array.clone();
+        result[index] = value;
+        return result;
+    }
+
+    static Object[] insert(final Object[] array, final int index, final Object value) {
+        final Object[] result = new Object[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    static Object[] delete(final Object[] array, final int index) {
+        final Object[] result = new Object[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    static final class Leaf<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
+        private static final long serialVersionUID = 5167926505939617064L;
+
+        final int hash;
+
+        Leaf(final int hash, final K key, final V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+    }
+
+    abstract static class Node<K, V> {
+        // either leaves or nodes
+        final Object[] array;
+
+        Node(final Object[] array) {
+            this.array = array;
+        }
+
+        abstract Leaf<K, V> find(Object key, int hash, int shift);
+
+        /**
+         * @return the new node, or this node if nothing changed
+         */
+        abstract Node<K, V> put(Leaf<K, V> leaf, int shift, boolean[] added);
+
+        /**
+         * @return the new node, this node if nothing changed, or {@code null} if the node is empty now
+         */
+        abstract Node<K, V> remove(Object key, int hash, int shift);
+    }
+
+    static final class BitmapNode<K, V> extends Node<K, V> {
+        private final int bitmap;
+
+        BitmapNode(final int bitmap, final Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Leaf<K, V> find(final Object key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+            final Object child = this.array[this.index(bit)];
+            if (child instanceof Leaf) {
+                final Leaf<K, V> leaf = (Leaf<K, V>) child;
+                return (leaf.hash == hash && key.equals(leaf.getKey())) ? leaf : null;
+            }
+            return ((Node<K, V>) child).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> put(final Leaf<K, V> leaf, final int shift, final boolean[] added) {
+            final int bit = bit(leaf.hash, shift);
+            final int index = this.index(bit);
+            if ((this.bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode<K, V>(this.bitmap | bit, insert(this.array, index, leaf));
+            }
+            final Object child = this.array[index];
+            if (child instanceof Leaf) {
+                final Leaf<K, V> existing = (Leaf<K, V>) child;
+                if (existing.hash == leaf.hash && existing.getKey().equals(leaf.getKey())) {
+                    if (existing.getValue() == leaf.getValue()) {
+                        return this;
+                    }
+                    return new BitmapNode<K, V>(this.bitmap, replace(this.array, index, leaf));
+                }
+                added[0] = true;
+                return new BitmapNode<K, V>(this.bitmap, replace(this.array, index, merge(existing, leaf, shift + BITS)));
+            }
+            final Node<K, V> node = (Node<K, V>) child;
+            final Node<K, V> updated = node.put(leaf, shift + BITS, added);
+            return (updated == node) ? this : new BitmapNode<K, V>(this.bitmap, replace(this.array, index, updated));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> remove(final Object key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = this.index(bit);
+            final Object child = this.array[index];
+            if (child instanceof Leaf) {
+                final Leaf<K, V> leaf = (Leaf<K, V>) child;
+                if (leaf.hash != hash || !key.equals(leaf.getKey())) {
+                    return this;
+                }
+                return (this.array.length == 1) ? null : new BitmapNode<K, V>(this.bitmap & ~bit, delete(this.array, index));
+            }
+            final Node<K, V> node = (Node<K, V>) child;
+            final Node<K, V> updated = node.remove(key, hash, shift + BITS);
+            if (updated == node) {
+                return this;
+            }
+            if (updated == null) {
+                return (this.array.length == 1) ? null : new BitmapNode<K, V>(this.bitmap & ~bit, delete(this.array, index));
+            }
+            if (updated.array.length == 1 && updated.array[0] instanceof Leaf) {
+                // pull a single remaining entry up, so that the trie stays as shallow as possible
+                return new BitmapNode<K, V>(this.bitmap, replace(this.array, index, updated.array[0]));
+            }
+            return new BitmapNode<K, V>(this.bitmap, replace(this.array, index, updated));
+        }
+    }
+
+    static final class CollisionNode<K, V> extends Node<K, V> {
+        private final int hash;
+
+        CollisionNode(final int hash, final Object[] leaves) {
+            super(leaves);
+            this.hash = hash;
+        }
+
+        private int index(final Object key) {
+            for (int i = 0; i < this.array.length; i++) {
+                if (key.equals(((Leaf<?, ?>) this.array[i]).getKey())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Leaf<K, V> find(final Object key, final int hash, final int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int index = this.index(key);
+            return (index < 0) ? null : (Leaf<K, V>) this.array[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node<K, V> put(final Leaf<K, V> leaf, final int shift, final boolean[] added) {
+            if (leaf.hash != this.hash) {
+                // the new entry only shares a prefix of the hash, so branch above this node
+                return new BitmapNode<K, V>(bit(this.hash, shift), new Object[] { this }).put(leaf, shift, added);
+            }
+            final int index = this.index(leaf.getKey());
+            if (index < 0) {
+                added[0] = true;
+                return new CollisionNode<K, V>(this.hash, insert(this.array, this.array.length, leaf));
+            }
+            if (((Leaf<K, V>) this.array[index]).getValue() == leaf.getValue()) {
+                return this;
+            }
+            return new CollisionNode<K, V>(this.hash, replace(this.array, index, leaf));
+        }
+
+        @Override
+        Node<K, V> remove(final Object key, final int hash, final int shift) {
+            if (hash != this.hash) {
+                return this;
+            }
+            final int index = this.index(key);
+            if (index < 0) {
+                return this;
+            }
+            if (this.array.length == 2) {
+                // the parent pulls the remaining entry up
+                return new BitmapNode<K, V>(bit(this.hash, shift), new Object[] { this.array[1 - index] });
+            }
+            return new CollisionNode<K, V>(this.hash, delete(this.array, index));
+        }
+    }
+
+    static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        // the arrays of the nodes on the path to the next entry, and the position within each of them
+        private final Object[][] arrays = new Object[8][];
+        private final int[] positions = new int[8];
+        private int depth = -1;
+        private Leaf<K, V> next;
+
+        EntryIterator(final Node<K, V> root) {
+            if (root != null) {
+                this.push(root);
+                this.advance();
+            }
+        }
+
+        private void push(final Node<K, V> node) {
+            this.depth++;
+            this.arrays[this.depth] = node.array;
+            this.positions[this.depth] = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (this.depth >= 0) {
+                final Object[] array = this.arrays[this.depth];
+                final int position = this.positions[this.depth];
+                if (position == array.length) {
+                    this.arrays[this.depth--] = null;
+                    continue;
+                }
+                this.positions[this.depth] = position + 1;
+                final Object child = array[position];
+                if (child instanceof Leaf) {
+                    this.next = (Leaf<K, V>) child;
+                    return;
+                }
+                this.push((Node<K, V>) child);
+            }
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            final Leaf<K, V> result = this.next;
+            if (result == null) {
+                throw new NoSuchElementException();
+            }
+            this.advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
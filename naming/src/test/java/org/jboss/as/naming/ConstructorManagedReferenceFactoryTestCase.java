@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class ConstructorManagedReferenceFactoryTestCase {
+
+    @Test
+    public void testPublicConstructor() throws Exception {
+        final ManagedReferenceFactory factory = new ConstructorManagedReferenceFactory(PublicBean.class.getDeclaredConstructor());
+        final Object first = factory.getReference().getInstance();
+        final Object second = factory.getReference().getInstance();
+        assertEquals(PublicBean.class, first.getClass());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testInaccessibleConstructor() throws Exception {
+        final ManagedReferenceFactory factory = new ConstructorManagedReferenceFactory(HiddenBean.class.getDeclaredConstructor());
+        try {
+            factory.getReference();
+            fail("Should have failed to invoke a private constructor");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalAccessException);
+        }
+    }
+
+    @Test
+    public void testConstructorFailure() throws Exception {
+        final ManagedReferenceFactory factory = new ConstructorManagedReferenceFactory(FailingBean.class.getDeclaredConstructor());
+        try {
+            factory.getReference();
+            fail("Should have propagated the failure of the constructor");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof InvocationTargetException);
+            assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public static class PublicBean {
+    }
+
+    public static class HiddenBean {
+        private HiddenBean() {
+        }
+    }
+
+    public static class FailingBean {
+        public FailingBean() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -44,6 +44,8 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.Values;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -98,6 +100,39 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupResolvedBinding() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        long hits = ServiceBasedNamingStore.getResolvedBindingHitCount();
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(hits + 1, ServiceBasedNamingStore.getResolvedBindingHitCount());
+
+        // any change to the bindings invalidates the resolved ones
+        store.add(ServiceName.JBOSS.append("foo", "baz"));
+        final long misses = ServiceBasedNamingStore.getResolvedBindingMissCount();
+        assertSame(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(misses + 1, ServiceBasedNamingStore.getResolvedBindingMissCount());
+
+        // references are still created per lookup, unless they are immediate
+        final ServiceName factoryBindingName = ServiceName.JBOSS.append("foo", "factory");
+        bindFactory(factoryBindingName, new ManagedReferenceFactory() {
+            @Override
+            public ManagedReference getReference() {
+                return new ImmediateManagedReference(new Object());
+            }
+        });
+        final Object first = store.lookup(new CompositeName("foo/factory"));
+        hits = ServiceBasedNamingStore.getResolvedBindingHitCount();
+        final Object second = store.lookup(new CompositeName("foo/factory"));
+        assertEquals(hits + 1, ServiceBasedNamingStore.getResolvedBindingHitCount());
+        assertNotNull(second);
+        assertNotSame(first, second);
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -399,6 +434,10 @@ public class ServiceBasedNamingStoreTestCase {
     }
 
     private void bindObject(final ServiceName serviceName, final Object value) throws Exception {
+        bindFactory(serviceName, new ValueManagedReferenceFactory(Values.immediateValue(value)));
+    }
+
+    private void bindFactory(final ServiceName serviceName, final ManagedReferenceFactory factory) throws Exception {
         final CountDownLatch latch = new CountDownLatch(1);
         container.addService(serviceName, new Service<ManagedReferenceFactory>() {
             public void start(StartContext context) throws StartException {
@@ -410,7 +449,7 @@ public class ServiceBasedNamingStoreTestCase {
             }
 
             public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
-                return new ValueManagedReferenceFactory(Values.immediateValue(value));
+                return factory;
             }
         }).install();
         latch.await();
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+
+import org.jboss.msc.service.ServiceName;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ImmutableCompositeName}
+ */
+public class ImmutableCompositeNameTestCase {
+
+    @Test
+    public void testParseImmutable() throws Exception {
+        final ImmutableCompositeName name = NameParser.INSTANCE.parseImmutable("java:comp/env/jdbc/X");
+        assertSame(name, NameParser.INSTANCE.parseImmutable("java:comp/env/jdbc/X"));
+
+        final CompositeName expected = new CompositeName("java:comp/env/jdbc/X");
+        assertEquals(expected, name);
+        assertEquals(name, expected);
+        assertEquals(expected.hashCode(), name.hashCode());
+        assertEquals(expected.toString(), name.toString());
+        assertEquals(expected.getSuffix(1), name.getNamespaceSuffix());
+        assertEquals(expected.getSuffix(1).hashCode(), name.getNamespaceSuffix().hashCode());
+        assertSame(name.getNamespaceSuffix(), name.getNamespaceSuffix());
+        assertEquals(expected.getSuffix(2), name.getImmutableSuffix(2));
+    }
+
+    @Test
+    public void testModification() throws Exception {
+        final ImmutableCompositeName name = NameParser.INSTANCE.parseImmutable("foo/bar");
+        try {
+            name.add("baz");
+            fail("Shared names must not be modified");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            name.remove(0);
+            fail("Shared names must not be modified");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        final Name copy = (Name) name.clone();
+        copy.add("baz");
+        assertEquals(new CompositeName("foo/bar/baz"), copy);
+        final Name suffix = name.getSuffix(1);
+        suffix.add(0, "foo");
+        assertEquals(new CompositeName("foo/bar"), suffix);
+        assertEquals(new CompositeName("foo/bar"), name);
+    }
+
+    @Test
+    public void testServiceName() throws Exception {
+        final ImmutableCompositeName name = NameParser.INSTANCE.parseImmutable("foo//bar");
+        assertEquals(ServiceName.JBOSS.append("foo", "bar"), name.toServiceName(ServiceName.JBOSS));
+        assertSame(name.toServiceName(ServiceName.JBOSS), name.toServiceName(ServiceName.JBOSS));
+        assertEquals(ServiceName.of("other", "foo", "bar"), name.toServiceName(ServiceName.of("other")));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final ImmutableCompositeName name = NameParser.INSTANCE.parseImmutable("foo/bar");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(name);
+        output.close();
+        final Object result = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertFalse(result instanceof ImmutableCompositeName);
+        assertTrue(result instanceof CompositeName);
+        assertEquals(name, result);
+    }
+}
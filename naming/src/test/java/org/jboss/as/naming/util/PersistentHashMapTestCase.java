@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link PersistentHashMap}
+ */
+public class PersistentHashMapTestCase {
+
+    @Test
+    public void testPlusMinus() {
+        final PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+        final PersistentHashMap<String, Integer> one = empty.plus("one", 1);
+        final PersistentHashMap<String, Integer> two = one.plus("two", 2);
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertEquals(2, two.size());
+        assertNull(one.get("two"));
+        assertEquals(Integer.valueOf(2), two.get("two"));
+        assertSame(two, two.plus("two", two.get("two")));
+        assertSame(two, two.minus("three"));
+
+        final PersistentHashMap<String, Integer> replaced = two.plus("two", 22);
+        assertEquals(2, replaced.size());
+        assertEquals(Integer.valueOf(22), replaced.get("two"));
+        assertEquals(Integer.valueOf(2), two.get("two"));
+
+        assertEquals(one, two.minus("two"));
+        assertTrue(one.minus("one").isEmpty());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(42);
+        final Map<Key, Integer> expected = new HashMap<Key, Integer>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100000; i++) {
+            // a small range of hash codes, so that there are plenty of collisions
+            final Key key = new Key(random.nextInt(5000), random.nextInt(200));
+            if (random.nextInt(3) == 0) {
+                final PersistentHashMap<Key, Integer> previous = map;
+                map = map.minus(key);
+                assertEquals(expected.remove(key) != null, map != previous);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        int count = 0;
+        for (Map.Entry<Key, Integer> entry : map.entrySet()) {
+            assertEquals(expected.get(entry.getKey()), entry.getValue());
+            count++;
+        }
+        assertEquals(expected.size(), count);
+
+        for (Key key : expected.keySet()) {
+            assertTrue(map.containsKey(key));
+            map = map.minus(key);
+        }
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    private static final class Key {
+        private final int id;
+        private final int hash;
+
+        Key(final int id, final int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return (object instanceof Key) && ((Key) object).id == this.id && ((Key) object).hash == this.hash;
+        }
+    }
+}
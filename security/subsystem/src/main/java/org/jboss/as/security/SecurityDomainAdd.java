@@ -134,6 +134,8 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
 
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         SecurityDomainResourceDefinition.CACHE_TYPE.validateAndSet(operation, model);
+        SecurityDomainResourceDefinition.CACHE_MAX_SIZE.validateAndSet(operation, model);
+        SecurityDomainResourceDefinition.CACHE_LIFESPAN.validateAndSet(operation, model);
     }
 
     protected void performRuntime(OperationContext context, ModelNode operation, final ModelNode model) {
@@ -156,9 +158,11 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
         final ApplicationPolicy applicationPolicy = createApplicationPolicy(context, securityDomain, model);
         final JSSESecurityDomain jsseSecurityDomain = createJSSESecurityDomain(context, securityDomain, model);
         final String cacheType = getAuthenticationCacheType(model);
+        final int cacheMaxSize = SecurityDomainResourceDefinition.CACHE_MAX_SIZE.resolveModelAttribute(context, model).asInt();
+        final long cacheLifespan = SecurityDomainResourceDefinition.CACHE_LIFESPAN.resolveModelAttribute(context, model).asLong();
 
         final SecurityDomainService securityDomainService = new SecurityDomainService(securityDomain,
-                applicationPolicy, jsseSecurityDomain, cacheType);
+                applicationPolicy, jsseSecurityDomain, cacheType, cacheMaxSize, cacheLifespan);
         final ServiceTarget target = context.getServiceTarget();
         // some login modules may require the TransactionManager
         final Injector<TransactionManager> transactionManagerInjector = new Injector<TransactionManager>() {
@@ -22,12 +22,14 @@
 package org.jboss.as.security;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.security.Principal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
@@ -43,10 +45,15 @@ import org.jboss.as.controller.access.constraint.ApplicationTypeConfig;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.org.jboss.as.security.lru.TinyLFUCache;
+import org.jboss.as.security.plugins.AuthenticationCacheFlushes;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -66,6 +73,32 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    public static final SimpleAttributeDefinition CACHE_MAX_SIZE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(1000))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_LIFESPAN = new SimpleAttributeDefinitionBuilder(Constants.CACHE_LIFESPAN, ModelType.LONG, true)
+            .setDefaultValue(new ModelNode(0L))
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HIT_RATIO = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HIT_RATIO, ModelType.DOUBLE, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTION_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_AVERAGE_LOAD_TIME = new SimpleAttributeDefinitionBuilder(Constants.CACHE_AVERAGE_LOAD_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -83,6 +116,14 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+        resourceRegistration.registerReadWriteAttribute(CACHE_MAX_SIZE, null, new SecurityDomainReloadWriteHandler(CACHE_MAX_SIZE));
+        resourceRegistration.registerReadWriteAttribute(CACHE_LIFESPAN, null, new SecurityDomainReloadWriteHandler(CACHE_LIFESPAN));
+
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HIT_RATIO, CacheMetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_EVICTION_COUNT, CacheMetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_AVERAGE_LOAD_TIME, CacheMetricsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -181,6 +222,7 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
                     manager.flushCache(new SimplePrincipal(principal));
                 else
                     manager.flushCache();
+                AuthenticationCacheFlushes.flushed();
             } else {
                 throw SecurityLogger.ROOT_LOGGER.noAuthenticationCacheAvailable(securityDomain);
             }
@@ -189,6 +231,38 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads the statistics of the default authentication cache. The metrics are undefined while the security domain
+     * is not started or uses another cache type.
+     */
+    static final class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheMetricsHandler INSTANCE = new CacheMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+            final String securityDomain = address.getLastElement().getValue();
+            final String attributeName = operation.require(NAME).asString();
+
+            final ServiceController<?> controller = context.getServiceRegistry(false)
+                    .getService(SecurityDomainService.SERVICE_NAME.append(securityDomain));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final TinyLFUCache<?, ?> cache = ((SecurityDomainService) controller.getService()).getAuthenticationCache();
+                if (cache != null) {
+                    final ModelNode result = context.getResult();
+                    if (Constants.CACHE_HIT_RATIO.equals(attributeName)) {
+                        result.set(cache.getHitRatio());
+                    } else if (Constants.CACHE_EVICTION_COUNT.equals(attributeName)) {
+                        result.set(cache.getEvictionCount());
+                    } else if (Constants.CACHE_AVERAGE_LOAD_TIME.equals(attributeName)) {
+                        result.set(cache.getAverageLoadTime(TimeUnit.MILLISECONDS));
+                    }
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     /**
      * Wait for the required service to start up and fail otherwise. This method is necessary when a runtime operation
      * uses a service that might have been created within a composite operation.
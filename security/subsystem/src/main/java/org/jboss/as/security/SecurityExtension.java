@@ -60,10 +60,12 @@ import org.jboss.as.controller.transform.PathAddressTransformer;
 import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.ResourceTransformer;
 import org.jboss.as.controller.transform.TransformationContext;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescription;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceName;
 
@@ -81,7 +83,7 @@ import org.jboss.msc.service.ServiceName;
 
     private static final String RESOURCE_NAME = SecurityExtension.class.getPackage().getName() + ".LocalDescriptions";
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 3, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 4, 0);
 
     private static final SecuritySubsystemParser PARSER = SecuritySubsystemParser.getInstance();
     static final PathElement ACL_PATH = PathElement.pathElement(Constants.ACL, Constants.CLASSIC);
@@ -157,6 +159,7 @@ import org.jboss.msc.service.ServiceName;
     private void registerTransformers(SubsystemRegistration subsystemRegistration) {
         registerTransformers_1_1_0(subsystemRegistration);
         registerTransformers_1_2_0(subsystemRegistration);
+        registerTransformers_1_3_0(subsystemRegistration);
     }
 
     private void registerTransformers_1_1_0(SubsystemRegistration subsystemRegistration) {
@@ -164,6 +167,7 @@ import org.jboss.msc.service.ServiceName;
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SecuritySubsystemRootResourceDefinition.DEEP_COPY_SUBJECT_MODE);
         final ResourceTransformationDescriptionBuilder securityDomain = builder.addChildResource(SECURITY_DOMAIN_PATH);
         securityDomain.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SecurityDomainResourceDefinition.CACHE_TYPE).end();
+        rejectAuthenticationCacheSizing(securityDomain);
 
         final ModulesToAttributeTransformer authClassicLoginModule = new ModulesToAttributeTransformer(Constants.LOGIN_MODULE, Constants.LOGIN_MODULES);
         registerModuleTransformer(securityDomain, PATH_CLASSIC_AUTHENTICATION, authClassicLoginModule,
@@ -226,6 +230,7 @@ import org.jboss.msc.service.ServiceName;
         ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
 
         ResourceTransformationDescriptionBuilder securityDomain = builder.addChildResource(SECURITY_DOMAIN_PATH);
+        rejectAuthenticationCacheSizing(securityDomain);
 
         // Transform any add op that includes the module list attribute into a compsosite of an add w/o that + write-attribute
         AttributeToModulesTransformer loginModule = new AttributeToModulesTransformer(Constants.LOGIN_MODULES);
@@ -256,6 +261,21 @@ import org.jboss.msc.service.ServiceName;
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, ModelVersion.create(1, 2, 0));
     }
 
+    private void registerTransformers_1_3_0(SubsystemRegistration subsystemRegistration) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        rejectAuthenticationCacheSizing(builder.addChildResource(SECURITY_DOMAIN_PATH));
+        TransformationDescription.Tools.register(builder.build(), subsystemRegistration, ModelVersion.create(1, 3, 0));
+    }
+
+    private static void rejectAuthenticationCacheSizing(ResourceTransformationDescriptionBuilder securityDomain) {
+        // the size and lifespan of the default authentication cache were fixed before 1.4.0, so only those values can be discarded
+        securityDomain.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_MAX_ENTRIES)), SecurityDomainResourceDefinition.CACHE_MAX_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0L)), SecurityDomainResourceDefinition.CACHE_LIFESPAN)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN)
+                .end();
+    }
+
     private ResourceTransformationDescriptionBuilder registerModuleTransformer(final ResourceTransformationDescriptionBuilder parent, final PathElement childPath,
                                                                                final ModulesToAttributeTransformer transformer, final ChildResourceTransformersRegistrar childRegistrar) {
         final OperationTransformer addOrWriteTransformer = new OperationTransformer() {
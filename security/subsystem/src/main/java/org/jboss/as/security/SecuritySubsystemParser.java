@@ -39,6 +39,8 @@ import static org.jboss.as.security.Constants.AUDIT;
 import static org.jboss.as.security.Constants.AUTHENTICATION;
 import static org.jboss.as.security.Constants.AUTHORIZATION;
 import static org.jboss.as.security.Constants.AUTH_MODULE;
+import static org.jboss.as.security.Constants.CACHE_LIFESPAN;
+import static org.jboss.as.security.Constants.CACHE_MAX_SIZE;
 import static org.jboss.as.security.Constants.CACHE_TYPE;
 import static org.jboss.as.security.Constants.CLASSIC;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST;
@@ -191,6 +193,8 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                 writer.writeAttribute(Attribute.NAME.getLocalName(), policy.getName());
                 ModelNode policyDetails = policy.getValue();
                 SecurityDomainResourceDefinition.CACHE_TYPE.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_MAX_SIZE.marshallAsAttribute(policyDetails, writer);
+                SecurityDomainResourceDefinition.CACHE_LIFESPAN.marshallAsAttribute(policyDetails, writer);
                 writeSecurityDomainContent(writer, policyDetails);
                 writer.writeEndElement();
             }
@@ -220,6 +224,8 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         Set<String> keys = policyDetails.keys();
         keys.remove(NAME);
         keys.remove(CACHE_TYPE);
+        keys.remove(CACHE_MAX_SIZE);
+        keys.remove(CACHE_LIFESPAN);
 
         for (String key : keys) {
             Element element = Element.forName(key);
@@ -448,6 +454,14 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     SecurityDomainResourceDefinition.CACHE_TYPE.parseAndSetParameter(value, op, reader);
                     break;
                 }
+                case CACHE_MAX_SIZE: {
+                    SecurityDomainResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_LIFESPAN: {
+                    SecurityDomainResourceDefinition.CACHE_LIFESPAN.parseAndSetParameter(value, op, reader);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
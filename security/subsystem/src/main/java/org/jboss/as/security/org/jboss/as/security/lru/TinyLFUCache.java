@@ -0,0 +1,559 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache that decides which entries to keep based on how often they are used.
+ * <p/>
+ * <p>New entries go to a small LRU admission window. An entry leaving the window is only admitted to the
+ * main segment if a {@link FrequencySketch} estimates it has been used more often than the entry the main
+ * segment would evict in exchange, which keeps a burst of one-off keys from flushing the frequently used
+ * ones. The main segment is a segmented LRU: entries hit while on probation are promoted to the protected
+ * part, which takes up most of its capacity.</p>
+ * <p/>
+ * <p>Lookups never block: the policy is only updated on a hit if its lock is free. Updates serialize on that
+ * lock. Entries can optionally expire a fixed time after they were written.</p>
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+
+    /**
+     * Max active entries that are present in the cache.
+     */
+    private final int maxEntries;
+    private final int windowMax;
+    private final int protectedMax;
+    /**
+     * Time in nanoseconds an entry stays valid after it was written, or 0 if entries do not expire.
+     */
+    private final long lifespan;
+
+    private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+    private final RemoveCallback<K, V> removeCallback;
+
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final Node<K, V> window = new Node<>();
+    private final Node<K, V> probation = new Node<>();
+    private final Node<K, V> protectedSegment = new Node<>();
+    private int windowSize;
+    private int protectedSize;
+    private int policySize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, 0, null);
+    }
+
+    /**
+     * @param maxEntries     the maximum number of entries
+     * @param lifespan       milliseconds an entry stays in the cache after it was written, 0 or less for no limit
+     * @param removeCallback notified of removed and replaced values, may be {@code null}
+     */
+    public TinyLFUCache(int maxEntries, long lifespan, RemoveCallback<K, V> removeCallback) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries");
+        }
+        this.maxEntries = maxEntries;
+        this.windowMax = Math.max(1, maxEntries / 100);
+        this.protectedMax = (int) ((maxEntries - windowMax) * 0.8);
+        this.lifespan = lifespan > 0 ? TimeUnit.MILLISECONDS.toNanos(lifespan) : 0;
+        this.removeCallback = removeCallback;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    public V get(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.get(key);
+        if (node == null || isExpired(node)) {
+            if (node != null) {
+                expire(node);
+            }
+            misses.increment();
+            recordAccess(key, null);
+            pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+            return null;
+        }
+        hits.increment();
+        recordAccess(key, node);
+        return node.value;
+    }
+
+    public V put(K key, V newValue) {
+        return put(key, newValue, false);
+    }
+
+    public V put(K key, V newValue, boolean ifAbsent) {
+        if (key == null || newValue == null) {
+            throw new NullPointerException();
+        }
+        List<Node<K, V>> removed = null;
+        V old = null;
+        boolean added = false;
+        policyLock.lock();
+        try {
+            Node<K, V> node = cache.get(key);
+            if (node != null && isExpired(node)) {
+                removed = new ArrayList<>(1);
+                removed.add(node);
+                cache.remove(key);
+                unlink(node);
+                node = null;
+            }
+            if (node == null) {
+                node = new Node<>(key, newValue, expiresAt());
+                cache.put(key, node);
+                link(window, node, WINDOW);
+                sketch.increment(key);
+                removed = evict(removed);
+                added = true;
+            } else {
+                old = node.value;
+                if (!ifAbsent) {
+                    node.value = newValue;
+                    node.expiresAt = expiresAt();
+                    sketch.increment(key);
+                    onHit(node);
+                }
+            }
+        } finally {
+            policyLock.unlock();
+        }
+        if (added) {
+            completeLoad(key);
+        }
+        notifyRemoved(removed);
+        return old;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    public V replace(K key, V newValue) {
+        V old;
+        policyLock.lock();
+        try {
+            Node<K, V> node = cache.get(key);
+            if (node == null || isExpired(node)) {
+                return null;
+            }
+            old = node.value;
+            node.value = newValue;
+            onHit(node);
+        } finally {
+            policyLock.unlock();
+        }
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, old);
+        }
+        return old;
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        policyLock.lock();
+        try {
+            Node<K, V> node = cache.get(key);
+            if (node == null || node.value != oldValue || isExpired(node)) {
+                return false;
+            }
+            node.value = newValue;
+            onHit(node);
+        } finally {
+            policyLock.unlock();
+        }
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, oldValue);
+        }
+        return true;
+    }
+
+    public boolean remove(Object key, Object value) {
+        policyLock.lock();
+        try {
+            @SuppressWarnings("SuspiciousMethodCalls")
+            Node<K, V> node = cache.get(key);
+            if (node == null || node.value != value || !cache.remove(key, node)) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public V remove(Object key) {
+        Node<K, V> node;
+        policyLock.lock();
+        try {
+            node = cache.remove(key);
+            if (node == null) {
+                return null;
+            }
+            unlink(node);
+        } finally {
+            policyLock.unlock();
+        }
+        if (removeCallback != null) {
+            removeCallback.afterRemove(node.key, node.value);
+        }
+        return node.value;
+    }
+
+    public void clear() {
+        List<Node<K, V>> removed;
+        policyLock.lock();
+        try {
+            removed = new ArrayList<>(cache.values());
+            cache.clear();
+            for (Node<K, V> node : removed) {
+                unlink(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+        notifyRemoved(removed);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new WrappedEntrySet();
+    }
+
+    /**
+     * Returns the number of lookups that found a live entry.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find a live entry.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that found a live entry, or 0 if there were no lookups yet.
+     */
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Returns the number of entries removed to keep the cache within its maximum size.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the average time between a lookup missing and the same thread adding the entry for that key.
+     */
+    public long getAverageLoadTime(TimeUnit unit) {
+        long count = loads.sum();
+        return count == 0 ? 0 : unit.convert(totalLoadTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordAccess(Object key, Node<K, V> node) {
+        // a contended lock only costs this access its effect on the policy
+        if (policyLock.tryLock()) {
+            try {
+                sketch.increment(key);
+                if (node != null) {
+                    onHit(node);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void completeLoad(K key) {
+        PendingLoad load = pendingLoad.get();
+        if (load != null) {
+            pendingLoad.remove();
+            if (load.key.equals(key)) {
+                loads.increment();
+                totalLoadTime.add(System.nanoTime() - load.start);
+            }
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return lifespan != 0 && System.nanoTime() - node.expiresAt > 0;
+    }
+
+    private long expiresAt() {
+        return lifespan == 0 ? 0 : System.nanoTime() + lifespan;
+    }
+
+    private void expire(Node<K, V> node) {
+        policyLock.lock();
+        try {
+            if (!cache.remove(node.key, node)) {
+                return;
+            }
+            unlink(node);
+        } finally {
+            policyLock.unlock();
+        }
+        notifyRemoved(Collections.singletonList(node));
+    }
+
+    private void notifyRemoved(Collection<Node<K, V>> removed) {
+        if (removeCallback != null && removed != null) {
+            for (Node<K, V> node : removed) {
+                removeCallback.afterRemove(node.key, node.value);
+            }
+        }
+    }
+
+    // The methods below must be called while holding the policy lock
+
+    private void onHit(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                moveToTail(window, node);
+                break;
+            case PROBATION:
+                unlink(node);
+                link(protectedSegment, node, PROTECTED);
+                if (protectedSize > protectedMax) {
+                    Node<K, V> demoted = protectedSegment.next;
+                    unlink(demoted);
+                    link(probation, demoted, PROBATION);
+                }
+                break;
+            case PROTECTED:
+                moveToTail(protectedSegment, node);
+                break;
+            default:
+                // already removed
+        }
+    }
+
+    private List<Node<K, V>> evict(List<Node<K, V>> removed) {
+        while (windowSize > windowMax) {
+            Node<K, V> node = window.next;
+            unlink(node);
+            link(probation, node, PROBATION);
+        }
+        while (policySize > maxEntries) {
+            // the entry that just left the window competes with the one the main segment would evict
+            Node<K, V> candidate = probation.prev;
+            Node<K, V> victim = probation.next;
+            if (victim == probation) {
+                victim = protectedSegment.next != protectedSegment ? protectedSegment.next : window.next;
+            } else if (candidate != victim && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                victim = candidate;
+            }
+            unlink(victim);
+            if (cache.remove(victim.key, victim)) {
+                evictions.increment();
+                if (removed == null) {
+                    removed = new ArrayList<>(1);
+                }
+                removed.add(victim);
+            }
+        }
+        return removed;
+    }
+
+    private void link(Node<K, V> queue, Node<K, V> node, int queueType) {
+        node.prev = queue.prev;
+        node.next = queue;
+        queue.prev.next = node;
+        queue.prev = node;
+        node.queue = queueType;
+        policySize++;
+        if (queueType == WINDOW) {
+            windowSize++;
+        } else if (queueType == PROTECTED) {
+            protectedSize++;
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.queue == NONE) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        policySize--;
+        if (node.queue == WINDOW) {
+            windowSize--;
+        } else if (node.queue == PROTECTED) {
+            protectedSize--;
+        }
+        node.queue = NONE;
+    }
+
+    private void moveToTail(Node<K, V> queue, Node<K, V> node) {
+        int queueType = node.queue;
+        unlink(node);
+        link(queue, node, queueType);
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile long expiresAt;
+
+        // guarded by the policy lock
+        Node<K, V> prev;
+        Node<K, V> next;
+        int queue = NONE;
+
+        Node() {
+            // sentinel of a circular queue
+            this.key = null;
+            this.prev = this;
+            this.next = this;
+        }
+
+        Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class PendingLoad {
+        final Object key;
+        final long start;
+
+        PendingLoad(Object key, long start) {
+            this.key = key;
+            this.start = start;
+        }
+    }
+
+    private class WrappedEntrySet extends AbstractSet<Entry<K, V>> {
+
+        public Iterator<Entry<K, V>> iterator() {
+            final Iterator<Node<K, V>> iterator = cache.values().iterator();
+            return new Iterator<Entry<K, V>>() {
+                private Node<K, V> last;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    final Node<K, V> node = iterator.next();
+                    last = node;
+                    return new Entry<K, V>() {
+                        @Override
+                        public K getKey() {
+                            return node.key;
+                        }
+
+                        @Override
+                        public V getValue() {
+                            return node.value;
+                        }
+
+                        @Override
+                        public V setValue(V value) {
+                            V old = node.value;
+                            node.value = value;
+                            return old;
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException("next() not called");
+                    }
+                    TinyLFUCache.this.remove(last.key);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?,?> e = (Entry<?,?>)o;
+            Node<K, V> node = cache.get(e.getKey());
+            return node != null && node.value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?,?> e = (Entry<?,?>)o;
+            return TinyLFUCache.this.remove(e.getKey()) != null;
+        }
+
+        public boolean isEmpty() {
+            return TinyLFUCache.this.isEmpty();
+        }
+
+        public void clear() {
+            TinyLFUCache.this.clear();
+        }
+    }
+}
@@ -23,10 +23,9 @@
 package org.jboss.as.security.plugins;
 
 import java.security.Principal;
-import java.util.concurrent.ConcurrentMap;
 
-import org.jboss.as.security.org.jboss.as.security.lru.LRUCache;
 import org.jboss.as.security.org.jboss.as.security.lru.RemoveCallback;
+import org.jboss.as.security.org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 
 /**
@@ -36,13 +35,32 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+    private final long lifespan;
+    private volatile TinyLFUCache<Principal, DomainInfo> lastCache;
+
+    public DefaultAuthenticationCacheFactory() {
+        this(DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * @param maxEntries the maximum number of cached principals
+     * @param lifespan   milliseconds a principal stays cached after it was authenticated, 0 for no limit
+     */
+    public DefaultAuthenticationCacheFactory(int maxEntries, long lifespan) {
+        this.maxEntries = maxEntries;
+        this.lifespan = lifespan;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
-    public ConcurrentMap<Principal, DomainInfo> getCache() {
-        ConcurrentMap<Principal, DomainInfo> map = new LRUCache<>(1000,  new RemoveCallback<Principal, DomainInfo>() {
+    public TinyLFUCache<Principal, DomainInfo> getCache() {
+        TinyLFUCache<Principal, DomainInfo> cache = new TinyLFUCache<>(maxEntries, lifespan, new RemoveCallback<Principal, DomainInfo>() {
             @Override
             public void afterRemove(Principal key, DomainInfo value) {
                 if (value != null) {
@@ -50,6 +68,16 @@ public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFac
                 }
             }
         });
-        return map;
+        lastCache = cache;
+        return cache;
+    }
+
+    /**
+     * Returns the cache most recently created by this factory, so that its statistics can be exposed.
+     *
+     * @return the cache or {@code null} if none was created yet
+     */
+    public TinyLFUCache<Principal, DomainInfo> getLastCreatedCache() {
+        return lastCache;
     }
 }
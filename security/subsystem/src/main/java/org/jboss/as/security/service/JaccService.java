@@ -23,6 +23,7 @@
 package org.jboss.as.security.service;
 
 import java.security.Policy;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.security.jacc.PolicyConfiguration;
 import javax.security.jacc.PolicyConfigurationFactory;
@@ -47,6 +48,8 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
 
     public static final ServiceName SERVICE_NAME = SecurityExtension.JBOSS_SECURITY.append("jacc");
 
+    private static final AtomicInteger POLICY_GENERATION = new AtomicInteger();
+
     private final String contextId;
 
     private final T metaData;
@@ -98,6 +101,7 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
                 }
                 // Allow the policy to incorporate the policy configs
                 Policy.getPolicy().refresh();
+                POLICY_GENERATION.incrementAndGet();
             }
         } catch (Exception e) {
             throw SecurityLogger.ROOT_LOGGER.unableToStartException("JaccService", e);
@@ -117,6 +121,17 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
             SecurityLogger.ROOT_LOGGER.errorDeletingJACCPolicy(e);
         }
         policyConfiguration = null;
+        POLICY_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns a number that changes whenever a policy configuration is committed, linked or deleted, so that callers
+     * caching the decisions of the JACC policy can tell when to drop them.
+     *
+     * @return the current policy generation
+     */
+    public static int getPolicyGeneration() {
+        return POLICY_GENERATION.get();
     }
 
     /**
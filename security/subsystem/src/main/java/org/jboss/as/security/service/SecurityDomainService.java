@@ -22,11 +22,15 @@
 
 package org.jboss.as.security.service;
 
+import java.security.Principal;
+
 import javax.security.auth.login.Configuration;
 
 import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.as.security.plugins.AuthenticationCacheFactory;
+import org.jboss.as.security.plugins.AuthenticationCacheFlushes;
 import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.InfinispanAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
@@ -40,6 +44,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.ISecurityManagement;
 import org.jboss.security.JSSESecurityDomain;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 import org.jboss.security.config.ApplicationPolicy;
 import org.jboss.security.config.ApplicationPolicyRegistration;
 
@@ -68,12 +73,20 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final int cacheMaxSize;
+
+    private final long cacheLifespan;
+
+    private volatile DefaultAuthenticationCacheFactory defaultCacheFactory;
+
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
-            String cacheType) {
+            String cacheType, int cacheMaxSize, long cacheLifespan) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheLifespan = cacheLifespan;
     }
 
     /** {@inheritDoc} */
@@ -90,7 +103,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         if ("infinispan".equals(cacheType)) {
             cacheFactory = new InfinispanAuthenticationCacheFactory(cacheManagerValue.getValue(), name);
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            defaultCacheFactory = new DefaultAuthenticationCacheFactory(cacheMaxSize, cacheLifespan);
+            cacheFactory = defaultCacheFactory;
         }
         try {
             securityDomainContext = securityManagement.createSecurityDomainContext(name, cacheFactory);
@@ -114,6 +128,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         SecurityLogger.ROOT_LOGGER.debugf("Stopping security domain service %s", name);
         final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue.getValue();
         securityManagement.removeSecurityDomain(name);
+        defaultCacheFactory = null;
+        AuthenticationCacheFlushes.flushed();
         // TODO clear auth cache?
         final ApplicationPolicyRegistration applicationPolicyRegistration = (ApplicationPolicyRegistration) configurationValue
                 .getValue();
@@ -126,6 +142,16 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         return securityDomainContext;
     }
 
+    /**
+     * Returns the authentication cache of this domain if it uses the default cache type.
+     *
+     * @return the cache or {@code null}
+     */
+    public TinyLFUCache<Principal, DomainInfo> getAuthenticationCache() {
+        final DefaultAuthenticationCacheFactory factory = defaultCacheFactory;
+        return factory != null ? factory.getLastCreatedCache() : null;
+    }
+
     /**
      * Target {@code Injector}
      *
@@ -672,7 +672,13 @@ public class SecurityDomainModelv12UnitTestCase extends AbstractSubsystemBaseTes
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig();
 
         config.addFailedAttribute(subsystemAddress, new RejectExpressionsConfig(SecuritySubsystemRootResourceDefinition.DEEP_COPY_SUBJECT_MODE));
-        config.addFailedAttribute(securityDomain, new RejectExpressionsConfig(SecurityDomainResourceDefinition.CACHE_TYPE));
+        config.addFailedAttribute(securityDomain,
+                ChainedConfig.createBuilder(SecurityDomainResourceDefinition.CACHE_TYPE,
+                        SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN)
+                        .addConfig(new RejectExpressionsConfig(SecurityDomainResourceDefinition.CACHE_TYPE))
+                        .addConfig(new NewAttributesConfig(SecurityDomainResourceDefinition.CACHE_MAX_SIZE,
+                                SecurityDomainResourceDefinition.CACHE_LIFESPAN))
+                        .build());
         config.addFailedAttribute(securityDomainOther.append(SecurityExtension.JSSE_PATH), new RejectExpressionsConfig(JSSEResourceDefinition.ADDITIONAL_PROPERTIES));
         config.addFailedAttribute(subsystemAddress.append(SecurityExtension.VAULT_PATH), new RejectExpressionsConfig(VaultResourceDefinition.OPTIONS));
 
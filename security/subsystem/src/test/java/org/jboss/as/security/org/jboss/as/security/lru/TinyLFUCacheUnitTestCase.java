@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link TinyLFUCache}.
+ */
+public class TinyLFUCacheUnitTestCase {
+
+    @Test
+    public void testMaxSize() {
+        final List<Integer> removed = new ArrayList<>();
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100, 0, new RemoveCallback<Integer, Integer>() {
+            @Override
+            public void afterRemove(Integer key, Integer value) {
+                removed.add(key);
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.getEvictionCount());
+        assertEquals(900, removed.size());
+        for (Integer key : removed) {
+            assertNull(cache.get(key));
+        }
+    }
+
+    @Test
+    public void testFrequentKeysSurviveScan() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get(i) == null) {
+                    cache.put(i, i);
+                }
+            }
+        }
+        // a burst of keys that are only used once must not flush the ones used repeatedly
+        for (int i = 1000; i < 1300; i++) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+    }
+
+    @Test
+    public void testLifespan() throws Exception {
+        final List<Integer> removed = new ArrayList<>();
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(10, 50, new RemoveCallback<Integer, Integer>() {
+            @Override
+            public void afterRemove(Integer key, Integer value) {
+                removed.add(key);
+            }
+        });
+        cache.put(1, 1);
+        assertEquals(Integer.valueOf(1), cache.get(1));
+        Thread.sleep(100);
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+        assertEquals(1, removed.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(10);
+        assertEquals(0, cache.getHitRatio(), 0);
+        assertNull(cache.get(1));
+        Thread.sleep(20);
+        cache.put(1, 1);
+        assertEquals(Integer.valueOf(1), cache.get(1));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0);
+        assertTrue(cache.getAverageLoadTime(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        final List<Integer> removed = new ArrayList<>();
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(10, 0, new RemoveCallback<Integer, Integer>() {
+            @Override
+            public void afterRemove(Integer key, Integer value) {
+                removed.add(key);
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(Integer.valueOf(0), cache.remove(0));
+        assertEquals(4, cache.keySet().size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(5, removed.size());
+        cache.put(0, 0);
+        assertEquals(Integer.valueOf(0), cache.get(0));
+    }
+}
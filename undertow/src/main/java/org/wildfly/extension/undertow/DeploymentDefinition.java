@@ -39,6 +39,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -47,6 +48,7 @@ import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.DistributableSessionManagerStatistics;
 
 /**
  * @author Tomaz Cerar
@@ -57,6 +59,7 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
     public static final AttributeDefinition SERVER = new SimpleAttributeDefinitionBuilder("server", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition CONTEXT_ROOT = new SimpleAttributeDefinitionBuilder("context-root", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition VIRTUAL_HOST = new SimpleAttributeDefinitionBuilder("virtual-host", ModelType.STRING).setStorageRuntime().build();
+    public static final AttributeDefinition TRACKED_INSTANCES = new SimpleAttributeDefinitionBuilder("tracked-instances", ModelType.INT, false).setStorageRuntime().build();
 
     private DeploymentDefinition() {
         super(PathElement.pathElement(SUBSYSTEM, UndertowExtension.SUBSYSTEM_NAME),
@@ -72,6 +75,21 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         for (SessionStat stat : SessionStat.values()) {
             resourceRegistration.registerMetric(stat.definition, SessionManagerStatsHandler.getInstance());
         }
+        resourceRegistration.registerMetric(TRACKED_INSTANCES, TrackedInstancesHandler.INSTANCE);
+    }
+
+    private static UndertowDeploymentService getDeploymentService(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+
+        final Resource web = context.readResourceFromRoot(address.subAddress(0, address.size()), false);
+        final ModelNode subModel = web.getModel();
+
+        final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+        final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+        final String server = SERVER.resolveModelAttribute(context, subModel).asString();
+
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+        return (UndertowDeploymentService) controller.getService();
     }
 
     static class SessionManagerStatsHandler extends AbstractRuntimeOnlyHandler {
@@ -88,17 +106,7 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         @Override
         protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
 
-            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
-
-            final Resource web = context.readResourceFromRoot(address.subAddress(0, address.size()), false);
-            final ModelNode subModel = web.getModel();
-
-            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
-            final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
-            final String server = SERVER.resolveModelAttribute(context, subModel).asString();
-
-            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
-            final UndertowDeploymentService deploymentService = (UndertowDeploymentService) controller.getService();
+            final UndertowDeploymentService deploymentService = getDeploymentService(context, operation);
             Deployment deployment = deploymentService.getDeployment();
             SessionManager sessionManager = deployment.getSessionManager();
 
@@ -151,6 +159,27 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int)sms.getMaxSessionAliveTime());
                         }
                         break;
+                    case ATTRIBUTE_READ_MUTATIONS:
+                        if (sessionManager instanceof DistributableSessionManagerStatistics) {
+                            result.set(((DistributableSessionManagerStatistics) sessionManager).getAttributeReadMutationCount());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case EXPIRATION_BACKLOG:
+                        if (sessionManager instanceof DistributableSessionManagerStatistics) {
+                            result.set(((DistributableSessionManagerStatistics) sessionManager).getExpirationBacklog());
+                        } else {
+                            result.set(0);
+                        }
+                        break;
+                    case EXPIRATION_LAG:
+                        if (sessionManager instanceof DistributableSessionManagerStatistics) {
+                            result.set(((DistributableSessionManagerStatistics) sessionManager).getExpirationLag());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
                     case REJECTED_SESSIONS:
                         if(sms == null) {
                             result.set(0);
@@ -169,6 +198,21 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
 
     }
 
+    static class TrackedInstancesHandler extends AbstractRuntimeOnlyHandler {
+
+        static final TrackedInstancesHandler INSTANCE = new TrackedInstancesHandler();
+
+        private TrackedInstancesHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final UndertowDeploymentService deploymentService = getDeploymentService(context, operation);
+            context.getResult().set(deploymentService.getInjectionContainer().getTrackedInstanceCount());
+            context.stepCompleted();
+        }
+    }
+
     public enum SessionStat {
         ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("active-sessions", ModelType.INT, false).setStorageRuntime().build()),
         EXPIRED_SESSIONS(new SimpleAttributeDefinitionBuilder("expired-sessions", ModelType.INT, false).setStorageRuntime().build()),
@@ -177,7 +221,10 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         SESSION_AVG_ALIVE_TIME(new SimpleAttributeDefinitionBuilder("session-avg-alive-time", ModelType.INT, false).setStorageRuntime().build()),
         SESSION_MAX_ALIVE_TIME(new SimpleAttributeDefinitionBuilder("session-max-alive-time", ModelType.INT, false).setStorageRuntime().build()),
         REJECTED_SESSIONS(new SimpleAttributeDefinitionBuilder("rejected-sessions", ModelType.INT, false).setStorageRuntime().build()),
-        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT, false).setStorageRuntime().build());
+        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT, false).setStorageRuntime().build()),
+        ATTRIBUTE_READ_MUTATIONS(new SimpleAttributeDefinitionBuilder("attribute-read-mutations", ModelType.LONG, false).setStorageRuntime().build()),
+        EXPIRATION_BACKLOG(new SimpleAttributeDefinitionBuilder("expiration-backlog", ModelType.INT, false).setStorageRuntime().build()),
+        EXPIRATION_LAG(new SimpleAttributeDefinitionBuilder("expiration-lag", ModelType.LONG, false).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build());
 
         private static final Map<String, SessionStat> MAP = new HashMap<>();
 
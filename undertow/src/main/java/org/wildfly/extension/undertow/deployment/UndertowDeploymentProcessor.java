@@ -29,7 +29,9 @@ import io.undertow.servlet.core.InMemorySessionManagerFactory;
 import org.apache.jasper.Constants;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.ee.component.EEModuleClassDescription;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.weld.WeldDeploymentMarker;
 import org.jboss.as.security.deployment.AbstractSecurityDeployer;
 import org.jboss.as.security.deployment.SecurityAttachments;
 import org.jboss.as.security.plugins.SecurityDomainContext;
@@ -44,6 +46,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.ExplodedDeploymentMarker;
 import org.jboss.as.server.deployment.SetupAction;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.web.common.ExpressionFactoryWrapper;
 import org.jboss.as.web.common.ServletContextAttribute;
@@ -188,7 +191,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
             componentRegistry = new ComponentRegistry(null);
         }
 
-        final WebInjectionContainer injectionContainer = new WebInjectionContainer(module.getClassLoader(), componentRegistry);
+        final WebInjectionContainer injectionContainer = new WebInjectionContainer(module.getClassLoader(), componentRegistry, getReleasedClassNames(deploymentUnit));
 
         String jaccContextId = metaData.getJaccContextID();
 
@@ -279,6 +282,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
                 .setWebSocketDeploymentInfo(deploymentUnit.getAttachment(UndertowAttachments.WEB_SOCKET_DEPLOYMENT_INFO))
                 .setTempDir(warMetaData.getTempDir())
                 .setExternalResources(deploymentUnit.getAttachmentList(UndertowAttachments.EXTERNAL_RESOURCES))
+                .setInjectionContainer(injectionContainer)
                 .createUndertowDeploymentInfoService();
 
         final ServiceName deploymentInfoServiceName = deploymentServiceName.append(UndertowDeploymentInfoService.SERVICE_NAME);
@@ -329,7 +333,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
             infoBuilder.addDependency(deploymentUnit.getParent().getServiceName().append(SharedSessionManagerConfig.SHARED_SESSION_MANAGER_SERVICE_NAME), SessionManagerFactory.class, undertowDeploymentInfoService.getSessionManagerFactoryInjector());
             infoBuilder.addDependency(deploymentUnit.getParent().getServiceName().append(SharedSessionManagerConfig.SHARED_SESSION_IDENTIFIER_CODEC_SERVICE_NAME), SessionIdentifierCodec.class, undertowDeploymentInfoService.getSessionIdentifierCodecInjector());
         } else {
-            ServiceName sessionManagerFactoryServiceName = installSessionManagerFactory(serviceTarget, deploymentServiceName, deploymentName, module, metaData);
+            ServiceName sessionManagerFactoryServiceName = installSessionManagerFactory(serviceTarget, deploymentServiceName, deploymentName, module, metaData, deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX));
             infoBuilder.addDependency(sessionManagerFactoryServiceName, SessionManagerFactory.class, undertowDeploymentInfoService.getSessionManagerFactoryInjector());
 
             ServiceName sessionIdentifierCodecServiceName = installSessionIdentifierCodec(serviceTarget, deploymentServiceName, deploymentName, metaData);
@@ -392,12 +396,12 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
         processManagement(deploymentUnit, metaData);
     }
 
-    private static ServiceName installSessionManagerFactory(ServiceTarget target, ServiceName deploymentServiceName, String deploymentName, Module module, JBossWebMetaData metaData) {
+    private static ServiceName installSessionManagerFactory(ServiceTarget target, ServiceName deploymentServiceName, String deploymentName, Module module, JBossWebMetaData metaData, CompositeIndex index) {
         ServiceName name = deploymentServiceName.append("session");
         if (metaData.getDistributable() != null) {
             DistributableSessionManagerFactoryBuilder sessionManagerFactoryBuilder = new DistributableSessionManagerFactoryBuilderValue().getValue();
             if (sessionManagerFactoryBuilder != null) {
-                sessionManagerFactoryBuilder.build(target, name, new SimpleDistributableSessionManagerConfiguration(metaData, deploymentName, module))
+                sessionManagerFactoryBuilder.build(target, name, new SimpleDistributableSessionManagerConfiguration(metaData, index, deploymentName, module))
                         .setInitialMode(Mode.ON_DEMAND)
                         .install()
                 ;
@@ -426,6 +430,41 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
         return name;
     }
 
+    /**
+     * Returns the names of the classes visible to the deployment whose instances must be released when the web
+     * container destroys them, or {@code null} if every instance needs to be tracked.
+     */
+    private static Set<String> getReleasedClassNames(final DeploymentUnit deploymentUnit) {
+        if (WeldDeploymentMarker.isPartOfWeldDeployment(deploymentUnit)) {
+            // CDI may inject into any class, and the creational context must be released
+            return null;
+        }
+        final List<DeploymentUnit> visibleDeployments = deploymentUnit.getAttachmentList(Attachments.ACCESSIBLE_SUB_DEPLOYMENTS);
+        final Set<String> classNames = new HashSet<>();
+        boolean described = false;
+        for (DeploymentUnit visibleDeployment : visibleDeployments) {
+            final EEModuleDescription description = visibleDeployment.getAttachment(org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION);
+            if (description == null) {
+                continue;
+            }
+            described = true;
+            for (EEModuleClassDescription classDescription : description.getClassDescriptions()) {
+                if (!classDescription.getInjectionConfigurations().isEmpty()
+                        || classDescription.getInterceptorClassDescription().getPreDestroy() != null) {
+                    classNames.add(classDescription.getClassName());
+                }
+            }
+            // injections and lifecycle methods set up in deployment descriptors
+            classNames.addAll(description.getResourceInjectionClassNames());
+            for (String className : description.getInterceptorClassOverrideNames()) {
+                if (description.getInterceptorClassOverride(className).getPreDestroy() != null) {
+                    classNames.add(className);
+                }
+            }
+        }
+        return described ? classNames : null;
+    }
+
     static String pathNameOfDeployment(final DeploymentUnit deploymentUnit, final JBossWebMetaData metaData) {
         String pathName;
         if (metaData.getContextRoot() == null) {
@@ -168,6 +168,10 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
         return deploymentInfoInjectedValue;
     }
 
+    public WebInjectionContainer getInjectionContainer() {
+        return webInjectionContainer;
+    }
+
     public Deployment getDeployment(){
         return deploymentManager.getDeployment();
     }
@@ -25,6 +25,7 @@ package org.wildfly.extension.undertow.security.jacc;
 import java.security.CodeSource;
 import java.security.Principal;
 import java.security.ProtectionDomain;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -41,17 +42,46 @@ import io.undertow.servlet.api.Deployment;
 import io.undertow.servlet.api.ServletInfo;
 import io.undertow.servlet.api.SingleConstraintMatch;
 import io.undertow.servlet.api.TransportGuaranteeType;
+import org.jboss.as.security.service.JaccService;
+import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.security.SimplePrincipal;
 
 /**
  * <p>
  * An implementation of {@link AuthorizationManager} that uses JACC permissions to grant or deny access to web resources.
  * </p>
+ * <p>
+ * When created with the metadata of the deployment, the decisions of the JACC policy are cached by the url-pattern the
+ * request URI belongs to, as all the URIs of a pattern are granted the same permissions. The cache is dropped whenever a
+ * JACC policy configuration is committed, linked or deleted.
+ * </p>
  *
  * @author <a href="mailto:sguilhen@redhat.com">Stefan Guilhen</a>
  */
 public class JACCAuthorizationManager implements AuthorizationManager {
 
+    private final URLPatternMatcher urlPatterns;
+
+    private final JACCDecisionCache<Boolean> resourceDecisions = new JACCDecisionCache<Boolean>();
+
+    private final JACCDecisionCache<TransportGuaranteeType> userDataDecisions = new JACCDecisionCache<TransportGuaranteeType>();
+
+    public JACCAuthorizationManager() {
+        this.urlPatterns = null;
+    }
+
+    /**
+     * <p>
+     * Creates an authorization manager that caches the decisions of the JACC policy for the url-patterns of the
+     * security constraints of the deployment.
+     * </p>
+     *
+     * @param metaData the merged metadata of the web deployment.
+     */
+    public JACCAuthorizationManager(final JBossWebMetaData metaData) {
+        this.urlPatterns = new URLPatternMatcher(WarJACCService.qualifyURLPatterns(metaData).keySet());
+    }
+
     @Override
     public boolean isUserInRole(final String roleName, final Account account, final ServletInfo servletInfo, final HttpServletRequest request, final Deployment deployment) {
 
@@ -60,7 +90,7 @@ public class JACCAuthorizationManager implements AuthorizationManager {
 
         // create a protection domain with the user roles (or account principal if no roles are found)
         final Map<String, Set<String>> principalVersusRolesMap = deployment.getDeploymentInfo().getPrincipalVersusRolesMap();
-        final Principal[] principals = this.getPrincipals(account, principalVersusRolesMap);
+        final Principal[] principals = this.getPrincipals(account, this.getRoles(account, principalVersusRolesMap));
         final CodeSource codeSource = servletInfo.getServletClass().getProtectionDomain().getCodeSource();
         final ProtectionDomain protectionDomain = new ProtectionDomain(codeSource, null, null, principals);
 
@@ -71,12 +101,34 @@ public class JACCAuthorizationManager implements AuthorizationManager {
     @Override
     public boolean canAccessResource(List<SingleConstraintMatch> constraints, final Account account, final ServletInfo servletInfo, final HttpServletRequest request, Deployment deployment) {
 
+        final String canonicalURI = this.getCanonicalURI(request);
+        final String method = request.getMethod();
+        final Map<String, Set<String>> principalVersusRolesMap = deployment.getDeploymentInfo().getPrincipalVersusRolesMap();
+        final Set<String> roles = this.getRoles(account, principalVersusRolesMap);
+        final String pattern = this.urlPatterns != null ? this.urlPatterns.getPattern(canonicalURI) : null;
+        if (pattern == null) {
+            return this.canAccessResource(canonicalURI, method, account, roles, servletInfo);
+        }
+
+        // the policy only sees the roles of the caller, or its principal if it has none
+        final Object caller = (account == null || !roles.isEmpty()) ? roles : account.getPrincipal();
+        // read the generation before calling the policy, so that a concurrent relink discards the decision
+        final int generation = JaccService.getPolicyGeneration();
+        Boolean decision = this.resourceDecisions.get(pattern, method, servletInfo.getName(), caller, generation);
+        if (decision == null) {
+            decision = this.canAccessResource(canonicalURI, method, account, roles, servletInfo);
+            this.resourceDecisions.put(pattern, method, servletInfo.getName(), caller, generation, decision);
+        }
+        return decision;
+    }
+
+    private boolean canAccessResource(final String canonicalURI, final String method, final Account account, final Set<String> roles, final ServletInfo servletInfo) {
+
         // create the WebResourcePermission that will be used by JACC to determine if access to the resource should be granted or not.
-        final WebResourcePermission permission = new WebResourcePermission(this.getCanonicalURI(request), request.getMethod());
+        final WebResourcePermission permission = new WebResourcePermission(canonicalURI, method);
 
         // create a protection domain with the user roles (or account principal if no roles are found)
-        final Map<String, Set<String>> principalVersusRolesMap = deployment.getDeploymentInfo().getPrincipalVersusRolesMap();
-        final Principal[] principals = this.getPrincipals(account, principalVersusRolesMap);
+        final Principal[] principals = this.getPrincipals(account, roles);
         final CodeSource codeSource = servletInfo.getServletClass().getProtectionDomain().getCodeSource();
         final ProtectionDomain protectionDomain = new ProtectionDomain(codeSource, null, null, principals);
 
@@ -86,9 +138,26 @@ public class JACCAuthorizationManager implements AuthorizationManager {
     @Override
     public TransportGuaranteeType transportGuarantee(TransportGuaranteeType currentConnGuarantee, TransportGuaranteeType configuredRequiredGuarantee, final HttpServletRequest request) {
 
-        final ProtectionDomain domain = new ProtectionDomain(null, null, null, null);
-        final String[] httpMethod = new String[] {request.getMethod()};
         final String canonicalURI = this.getCanonicalURI(request);
+        final String method = request.getMethod();
+        final String pattern = this.urlPatterns != null ? this.urlPatterns.getPattern(canonicalURI) : null;
+        if (pattern == null) {
+            return this.transportGuarantee(currentConnGuarantee, canonicalURI, method);
+        }
+
+        final int generation = JaccService.getPolicyGeneration();
+        TransportGuaranteeType guarantee = this.userDataDecisions.get(pattern, method, null, currentConnGuarantee, generation);
+        if (guarantee == null) {
+            guarantee = this.transportGuarantee(currentConnGuarantee, canonicalURI, method);
+            this.userDataDecisions.put(pattern, method, null, currentConnGuarantee, generation, guarantee);
+        }
+        return guarantee;
+    }
+
+    private TransportGuaranteeType transportGuarantee(final TransportGuaranteeType currentConnGuarantee, final String canonicalURI, final String method) {
+
+        final ProtectionDomain domain = new ProtectionDomain(null, null, null, null);
+        final String[] httpMethod = new String[] {method};
 
         switch (currentConnGuarantee) {
             case NONE: {
@@ -146,34 +215,49 @@ public class JACCAuthorizationManager implements AuthorizationManager {
 
     /**
      * <p>
-     * Merges the roles found in the specified account parameter with the mapped roles in the second parameter and returns
-     * the resulting set as a {@link Principal} array.
+     * Merges the roles found in the specified account parameter with the mapped roles in the second parameter.
      * </p>
      *
      * @param account the authenticated user account.
      * @param principalVersusRolesMap the principal to roles map as configured in the deployment.
-     * @return a {@link Principal}[] containing the merged roles. If the specified account is {@code null}, this method
-     * returns {@code null}. If the account is not null but no roles can be associated with the account principal, then
-     * the account principal is returned.
+     * @return a {@link Set} containing the merged role names, empty if the specified account is {@code null}.
      */
-    private Principal[] getPrincipals(Account account, Map<String, Set<String>> principalVersusRolesMap) {
+    private Set<String> getRoles(Account account, Map<String, Set<String>> principalVersusRolesMap) {
 
         if (account == null)
-            return null;
+            return Collections.emptySet();
 
         final Set<String> mappedRoles = principalVersusRolesMap.get(account.getPrincipal().getName());
 
         // create a set that merges the account roles with deployment roles (if any)
-        final Set<Principal> roles = new HashSet<Principal>();
-        for (String role : account.getRoles())
-            roles.add(new SimplePrincipal(role));
-        if (mappedRoles != null) {
-            for (String role : mappedRoles)
-                roles.add(new SimplePrincipal(role));
-        }
+        final Set<String> roles = new HashSet<String>(account.getRoles());
+        if (mappedRoles != null)
+            roles.addAll(mappedRoles);
+        return roles;
+    }
+
+    /**
+     * <p>
+     * Returns the specified roles as a {@link Principal} array.
+     * </p>
+     *
+     * @param account the authenticated user account.
+     * @param roles the merged roles of the account.
+     * @return a {@link Principal}[] containing the roles. If the specified account is {@code null}, this method
+     * returns {@code null}. If the account is not null but no roles can be associated with the account principal, then
+     * the account principal is returned.
+     */
+    private Principal[] getPrincipals(Account account, Set<String> roles) {
+
+        if (account == null)
+            return null;
 
         if (roles.isEmpty())
             return new Principal[] {account.getPrincipal()};
-        return roles.toArray(new Principal[roles.size()]);
+        final Principal[] principals = new Principal[roles.size()];
+        int i = 0;
+        for (String role : roles)
+            principals[i++] = new SimplePrincipal(role);
+        return principals;
     }
 }
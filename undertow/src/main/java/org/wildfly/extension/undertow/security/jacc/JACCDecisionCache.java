@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.security.jacc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * A bounded cache of the decisions taken by the JACC policy for the web permissions of a deployment, keyed by the
+ * url-pattern and http method of the permission, the servlet it is checked for and whatever else the decision depends
+ * on, such as the roles of the caller. Decisions are only valid for the policy generation they were taken in, see
+ * {@link org.jboss.as.security.service.JaccService#getPolicyGeneration()}.
+ * </p>
+ *
+ * @param <V> the type of the decisions.
+ */
+final class JACCDecisionCache<V> {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private final ConcurrentMap<Key, Decision<V>> decisions = new ConcurrentHashMap<Key, Decision<V>>();
+
+    /**
+     * <p>
+     * Returns the decision cached for the specified permission, or {@code null} if none was taken in the generation.
+     * </p>
+     */
+    V get(final String pattern, final String method, final String servlet, final Object qualifier, final int generation) {
+        final Key key = new Key(pattern, method, servlet, qualifier);
+        final Decision<V> decision = decisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+        if (decision.generation != generation) {
+            decisions.remove(key, decision);
+            return null;
+        }
+        return decision.value;
+    }
+
+    /**
+     * <p>
+     * Caches the decision taken for the specified permission. The generation must be read before the policy is called.
+     * </p>
+     */
+    void put(final String pattern, final String method, final String servlet, final Object qualifier, final int generation, final V value) {
+        if (decisions.size() >= MAX_ENTRIES) {
+            // the callers' roles are unbounded, start over rather than track which entries are in use
+            decisions.clear();
+        }
+        decisions.put(new Key(pattern, method, servlet, qualifier), new Decision<V>(generation, value));
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    private static final class Decision<V> {
+        final int generation;
+        final V value;
+
+        Decision(final int generation, final V value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final String method;
+        private final String servlet;
+        private final Object qualifier;
+        private final int hashCode;
+
+        Key(final String pattern, final String method, final String servlet, final Object qualifier) {
+            this.pattern = pattern;
+            this.method = method;
+            this.servlet = servlet;
+            this.qualifier = qualifier;
+            int hashCode = 31 * pattern.hashCode() + method.hashCode();
+            hashCode = 31 * hashCode + (servlet != null ? servlet.hashCode() : 0);
+            this.hashCode = 31 * hashCode + (qualifier != null ? qualifier.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) object;
+            return hashCode == other.hashCode && pattern.equals(other.pattern) && method.equals(other.method)
+                    && (servlet != null ? servlet.equals(other.servlet) : other.servlet == null)
+                    && (qualifier != null ? qualifier.equals(other.qualifier) : other.qualifier == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
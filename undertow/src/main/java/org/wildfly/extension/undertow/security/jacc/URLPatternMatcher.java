@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.security.jacc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * Maps a canonical request URI to the url-pattern of the deployment whose qualified form is the one JACC permission
+ * pattern matching the URI.
+ * </p>
+ * <p>
+ * {@link WarJACCService} qualifies every pattern by the more specific patterns it matches, so each URI falls into
+ * exactly one qualified pattern: an exact pattern first, then the longest path prefix pattern, then an extension
+ * pattern and finally the default pattern. All URIs mapped to the same pattern are therefore granted the same web
+ * permissions.
+ * </p>
+ */
+final class URLPatternMatcher {
+
+    static final String DEFAULT_PATTERN = "/";
+
+    private final Set<String> exactPatterns = new HashSet<String>();
+
+    /** The path prefix patterns, longest first */
+    private final List<String> prefixPatterns = new ArrayList<String>();
+
+    private final List<String> extensionPatterns = new ArrayList<String>();
+
+    URLPatternMatcher(final Collection<String> patterns) {
+        for (String pattern : patterns) {
+            if (pattern.startsWith("*.")) {
+                extensionPatterns.add(pattern);
+            } else if (pattern.startsWith("/") && pattern.endsWith("/*")) {
+                prefixPatterns.add(pattern);
+            } else if (!pattern.equals(DEFAULT_PATTERN)) {
+                exactPatterns.add(pattern);
+            }
+        }
+        Collections.sort(prefixPatterns, new Comparator<String>() {
+            @Override
+            public int compare(final String pattern1, final String pattern2) {
+                return pattern2.length() - pattern1.length();
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Returns the url-pattern the specified URI belongs to.
+     * </p>
+     *
+     * @param canonicalURI the request URI minus the context path.
+     * @return the matching url-pattern, or {@code null} if the permissions granted for the URI can't be told from a
+     * single pattern, because it contains a qualifier separator or matches an ambiguous extension pattern.
+     */
+    String getPattern(final String canonicalURI) {
+        if (canonicalURI.indexOf(':') >= 0) {
+            return null;
+        }
+        if (exactPatterns.contains(canonicalURI)) {
+            return canonicalURI;
+        }
+        for (String pattern : prefixPatterns) {
+            final int length = pattern.length() - 2;
+            if (canonicalURI.regionMatches(0, pattern, 0, length) && (canonicalURI.length() == length || canonicalURI.charAt(length) == '/')) {
+                return pattern;
+            }
+        }
+        final int slash = canonicalURI.lastIndexOf('/');
+        if (canonicalURI.lastIndexOf('.') > slash) {
+            String match = null;
+            for (String pattern : extensionPatterns) {
+                final int length = pattern.length() - 1;
+                final int offset = canonicalURI.length() - length;
+                if (offset > slash && canonicalURI.regionMatches(offset, pattern, 1, length)) {
+                    // extensions spanning several dots are not qualified against the exact patterns they match
+                    if (match != null || pattern.lastIndexOf('.') > 1) {
+                        return null;
+                    }
+                    match = pattern;
+                }
+            }
+            if (match != null) {
+                return match;
+            }
+        }
+        return DEFAULT_PATTERN;
+    }
+}
@@ -21,6 +21,8 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.Set;
+
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
@@ -29,6 +31,30 @@ public interface DistributableSessionManagerConfiguration {
 
     ReplicationGranularity getGranularity();
 
+    /**
+     * Indicates whether session granularity replication should only replicate the attributes modified by a request.
+     * @return true, if only modified attributes should be replicated, false otherwise.
+     */
+    boolean isDeltaReplication();
+
+    /**
+     * Returns the names of additional session attribute classes whose instances are never mutated.
+     * @return a set of class names
+     */
+    Set<String> getImmutableClassNames();
+
+    /**
+     * Indicates whether sessions should be expired in batches, rather than individually.
+     * @return true, if sessions should be expired in batches, false otherwise.
+     */
+    boolean isBatchedExpiration();
+
+    /**
+     * Returns the names of the application classes that should be marshalled using a compact class index, rather than by name.
+     * @return a set of class names
+     */
+    Set<String> getIndexedClassNames();
+
     String getDeploymentName();
 
     Module getModule();
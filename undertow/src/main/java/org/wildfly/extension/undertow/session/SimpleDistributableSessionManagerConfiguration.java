@@ -21,6 +21,17 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.jboss.ReplicationConfig;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -32,24 +43,88 @@ import org.jboss.modules.Module;
  */
 public class SimpleDistributableSessionManagerConfiguration implements DistributableSessionManagerConfiguration {
 
+    /**
+     * Context parameter that enables delta replication of session attributes for {@link ReplicationGranularity#SESSION} granularity.
+     */
+    public static final String DELTA_REPLICATION_PARAM = "org.wildfly.clustering.web.session.delta-replication";
+
+    /**
+     * Context parameter listing, as comma separated class names, additional session attribute types whose instances are never mutated.
+     */
+    public static final String IMMUTABLE_CLASSES_PARAM = "org.wildfly.clustering.web.session.immutable-classes";
+
+    /**
+     * Context parameter that enables batched expiration of sessions.
+     */
+    public static final String BATCHED_EXPIRATION_PARAM = "org.wildfly.clustering.web.session.batched-expiration";
+
+    /**
+     * Context parameter that enables compact marshalling of session attributes, which writes the serializable classes of the deployment by index, rather than by name.
+     */
+    public static final String COMPACT_MARSHALLING_PARAM = "org.wildfly.clustering.web.session.compact-marshalling";
+
+    private static final DotName SERIALIZABLE = DotName.createSimple(Serializable.class.getName());
+
     private final Integer maxActiveSessions;
     private final ReplicationConfig replicationConfig;
     private final String deploymentName;
     private final Module module;
+    private final boolean deltaReplication;
+    private final Set<String> immutableClassNames;
+    private final boolean batchedExpiration;
+    private final Set<String> indexedClassNames;
 
-    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module);
+    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, CompositeIndex index, String deploymentName, Module module) {
+        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module, Boolean.parseBoolean(findContextParam(metaData.getContextParams(), DELTA_REPLICATION_PARAM)), parseClassNames(findContextParam(metaData.getContextParams(), IMMUTABLE_CLASSES_PARAM)), Boolean.parseBoolean(findContextParam(metaData.getContextParams(), BATCHED_EXPIRATION_PARAM)), Boolean.parseBoolean(findContextParam(metaData.getContextParams(), COMPACT_MARSHALLING_PARAM)) ? findSerializableClassNames(index) : Collections.<String>emptySet());
     }
 
     public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String deploymentName, Module module) {
-        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module);
+        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module, false, Collections.<String>emptySet(), false, Collections.<String>emptySet());
     }
 
-    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module) {
+    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module, boolean deltaReplication, Set<String> immutableClassNames, boolean batchedExpiration, Set<String> indexedClassNames) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
         this.deploymentName = deploymentName;
         this.module = module;
+        this.deltaReplication = deltaReplication;
+        this.immutableClassNames = immutableClassNames;
+        this.batchedExpiration = batchedExpiration;
+        this.indexedClassNames = indexedClassNames;
+    }
+
+    private static String findContextParam(List<ParamValueMetaData> params, String name) {
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (name.equals(param.getParamName())) {
+                    return param.getParamValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> parseClassNames(String value) {
+        if (value == null) return Collections.emptySet();
+        Set<String> classNames = new HashSet<>();
+        for (String className : value.split(",")) {
+            String name = className.trim();
+            if (!name.isEmpty()) {
+                classNames.add(name);
+            }
+        }
+        return Collections.unmodifiableSet(classNames);
+    }
+
+    private static Set<String> findSerializableClassNames(CompositeIndex index) {
+        if (index == null) return Collections.emptySet();
+        Set<String> classNames = new HashSet<>();
+        for (ClassInfo info : index.getAllKnownImplementors(SERIALIZABLE)) {
+            if (!Modifier.isInterface(info.flags())) {
+                classNames.add(info.name().toString());
+            }
+        }
+        return Collections.unmodifiableSet(classNames);
     }
 
     @Override
@@ -62,6 +137,26 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
         return ((this.replicationConfig != null) && (this.replicationConfig.getReplicationGranularity() != null)) ? this.replicationConfig.getReplicationGranularity() : ReplicationGranularity.SESSION;
     }
 
+    @Override
+    public boolean isDeltaReplication() {
+        return this.deltaReplication;
+    }
+
+    @Override
+    public Set<String> getImmutableClassNames() {
+        return this.immutableClassNames;
+    }
+
+    @Override
+    public boolean isBatchedExpiration() {
+        return this.batchedExpiration;
+    }
+
+    @Override
+    public Set<String> getIndexedClassNames() {
+        return this.indexedClassNames;
+    }
+
     @Override
     public String getDeploymentName() {
         return this.deploymentName;
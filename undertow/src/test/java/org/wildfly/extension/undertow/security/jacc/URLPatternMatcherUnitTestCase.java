@@ -0,0 +1,48 @@
+package org.wildfly.extension.undertow.security.jacc;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class URLPatternMatcherUnitTestCase {
+
+    private final URLPatternMatcher matcher = new URLPatternMatcher(Arrays.asList("/secured/*", "/secured/admin/*",
+            "/secured/public.html", "*.jsp", "*.tar.gz", "/index.html"));
+
+    @Test
+    public void testExactPatternsComeFirst() {
+        Assert.assertEquals("/secured/public.html", matcher.getPattern("/secured/public.html"));
+        Assert.assertEquals("/index.html", matcher.getPattern("/index.html"));
+    }
+
+    @Test
+    public void testLongestPrefixWins() {
+        Assert.assertEquals("/secured/*", matcher.getPattern("/secured"));
+        Assert.assertEquals("/secured/*", matcher.getPattern("/secured/page.jsp"));
+        Assert.assertEquals("/secured/admin/*", matcher.getPattern("/secured/admin"));
+        Assert.assertEquals("/secured/admin/*", matcher.getPattern("/secured/admin/users"));
+        Assert.assertEquals("/", matcher.getPattern("/securedother"));
+    }
+
+    @Test
+    public void testExtensionAndDefaultPatterns() {
+        Assert.assertEquals("*.jsp", matcher.getPattern("/pages/page.jsp"));
+        Assert.assertEquals("/", matcher.getPattern("/page.jsp/other"));
+        Assert.assertEquals("/", matcher.getPattern("/other.html"));
+        Assert.assertEquals("/", matcher.getPattern(""));
+    }
+
+    @Test
+    public void testUncacheableURIs() {
+        Assert.assertNull(matcher.getPattern("/archive.tar.gz"));
+        Assert.assertNull(matcher.getPattern("/secured:/other"));
+    }
+
+    @Test
+    public void testPathPrefixMatchingEverything() {
+        final URLPatternMatcher matcher = new URLPatternMatcher(Arrays.asList("/*", "*.jsp", "/"));
+        Assert.assertEquals("/*", matcher.getPattern(""));
+        Assert.assertEquals("/*", matcher.getPattern("/page.jsp"));
+    }
+}
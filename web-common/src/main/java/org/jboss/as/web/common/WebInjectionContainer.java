@@ -21,13 +21,19 @@
  */
 package org.jboss.as.web.common;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
-import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.NamingException;
 
 import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.naming.ImmediateManagedReference;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
 
@@ -38,22 +44,41 @@ import org.jboss.as.naming.ManagedReferenceFactory;
  */
 public class WebInjectionContainer {
 
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+
     private final ClassLoader classloader;
     private final ComponentRegistry componentRegistry;
-    private final Map<Object, ManagedReference> instanceMap;
+    private final Set<String> releasedClassNames;
+    private final Map<Class<?>, Boolean> trackedClasses = new ConcurrentHashMap<>();
+    private final Stripe[] stripes = new Stripe[STRIPES];
 
     public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry) {
+        this(classloader, componentRegistry, null);
+    }
+
+    /**
+     * @param releasedClassNames the names of the classes whose instances need to be released when destroyed, because
+     *                           they declare a pre-destroy method or have resources injected. Instances of any other
+     *                           class are not tracked. If this is {@code null} all instances are tracked.
+     */
+    public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry, final Set<String> releasedClassNames) {
         this.classloader = classloader;
         this.componentRegistry = componentRegistry;
-        this.instanceMap = new ConcurrentReferenceHashMap<Object, ManagedReference>
-                (256, ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR,
-                        Runtime.getRuntime().availableProcessors(), ConcurrentReferenceHashMap.ReferenceType.STRONG,
-                        ConcurrentReferenceHashMap.ReferenceType.WEAK, EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
+        this.releasedClassNames = releasedClassNames;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
 
     public void destroyInstance(Object instance) {
-        final ManagedReference reference = instanceMap.remove(instance);
+        final Stripe stripe = stripe(instance);
+        final ManagedReference reference;
+        synchronized (stripe) {
+            stripe.expunge();
+            TrackedReference tracked = stripe.references.remove(instance);
+            reference = (tracked != null) ? tracked.get() : null;
+        }
         if (reference != null) {
             reference.release();
         }
@@ -67,7 +92,7 @@ public class WebInjectionContainer {
         final ManagedReferenceFactory factory = componentRegistry.createInstanceFactory(clazz);
         ManagedReference reference = factory.getReference();
         if (reference != null) {
-            instanceMap.put(reference.getInstance(), reference);
+            track(reference.getInstance(), reference);
             return reference.getInstance();
         }
         return clazz.newInstance();
@@ -76,7 +101,7 @@ public class WebInjectionContainer {
     public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
         final ManagedReference reference = componentRegistry.createInstance(arg0);
         if (reference != null) {
-            instanceMap.put(arg0, reference);
+            track(arg0, reference);
         }
     }
 
@@ -87,4 +112,80 @@ public class WebInjectionContainer {
     public ComponentRegistry getComponentRegistry() {
         return componentRegistry;
     }
+
+    /**
+     * Returns the number of instances that are waiting to be destroyed.
+     */
+    public int getTrackedInstanceCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.expunge();
+                count += stripe.references.size();
+            }
+        }
+        return count;
+    }
+
+    private void track(Object instance, ManagedReference reference) {
+        // an immediate reference has nothing to release
+        if (reference.getClass() == ImmediateManagedReference.class || !isTracked(instance.getClass())) {
+            return;
+        }
+        final Stripe stripe = stripe(instance);
+        synchronized (stripe) {
+            stripe.expunge();
+            stripe.references.put(instance, new TrackedReference(instance, reference, stripe.queue));
+        }
+    }
+
+    private boolean isTracked(Class<?> clazz) {
+        if (releasedClassNames == null) {
+            return true;
+        }
+        Boolean tracked = trackedClasses.get(clazz);
+        if (tracked == null) {
+            tracked = Boolean.FALSE;
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                if (releasedClassNames.contains(c.getName())) {
+                    tracked = Boolean.TRUE;
+                    break;
+                }
+            }
+            trackedClasses.put(clazz, tracked);
+        }
+        return tracked;
+    }
+
+    private Stripe stripe(Object instance) {
+        int hash = System.identityHashCode(instance);
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Identity map of tracked instances, guarded by its own monitor.
+     * Managed references are held weakly, so instances that are never destroyed are eventually no longer tracked.
+     */
+    private static final class Stripe {
+        final Map<Object, TrackedReference> references = new IdentityHashMap<>();
+        final ReferenceQueue<ManagedReference> queue = new ReferenceQueue<>();
+
+        void expunge() {
+            Reference<? extends ManagedReference> reference = queue.poll();
+            while (reference != null) {
+                TrackedReference tracked = (TrackedReference) reference;
+                references.remove(tracked.instance, tracked);
+                reference = queue.poll();
+            }
+        }
+    }
+
+    private static final class TrackedReference extends WeakReference<ManagedReference> {
+        final Object instance;
+
+        TrackedReference(Object instance, ManagedReference reference, ReferenceQueue<ManagedReference> queue) {
+            super(reference, queue);
+            this.instance = instance;
+        }
+    }
 }
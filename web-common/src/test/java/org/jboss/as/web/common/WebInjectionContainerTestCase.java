@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.ee.component.EEClassIntrospector;
+import org.jboss.as.naming.ImmediateManagedReference;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link WebInjectionContainer}.
+ */
+public class WebInjectionContainerTestCase {
+
+    private final AtomicInteger released = new AtomicInteger();
+    // Tracked references are held weakly by the container, so tests that expect them to be released must retain them
+    private final List<ManagedReference> references = new ArrayList<>();
+
+    @Test
+    public void releasedInstancesAreTracked() throws Exception {
+        WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry(true), Collections.singleton(Released.class.getName()));
+        Object first = container.newInstance(Released.class);
+        Object second = container.newInstance(ReleasedSubclass.class);
+        assertEquals(2, container.getTrackedInstanceCount());
+        container.destroyInstance(first);
+        container.destroyInstance(second);
+        assertEquals(0, container.getTrackedInstanceCount());
+        assertEquals(2, released.get());
+        // destroying an instance twice must not release it again
+        container.destroyInstance(first);
+        assertEquals(2, released.get());
+    }
+
+    @Test
+    public void otherInstancesAreNotTracked() throws Exception {
+        WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry(true), Collections.singleton(Released.class.getName()));
+        Object instance = container.newInstance(Plain.class);
+        container.newInstance(new Plain());
+        assertEquals(0, container.getTrackedInstanceCount());
+        container.destroyInstance(instance);
+        assertEquals(0, released.get());
+    }
+
+    @Test
+    public void immediateReferencesAreNotTracked() throws Exception {
+        WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry(false), null);
+        Object instance = container.newInstance(Released.class);
+        assertTrue(instance instanceof Released);
+        assertEquals(0, container.getTrackedInstanceCount());
+    }
+
+    @Test
+    public void everythingIsTrackedByDefault() throws Exception {
+        WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry(true));
+        for (int i = 0; i < 100; i++) {
+            container.newInstance(Plain.class);
+        }
+        assertEquals(100, container.getTrackedInstanceCount());
+    }
+
+    @Test
+    public void undestroyedInstancesAreReclaimed() throws Exception {
+        WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry(true, false));
+        for (int i = 0; i < 100; i++) {
+            container.newInstance(Plain.class);
+        }
+        long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((container.getTrackedInstanceCount() > 0) && (System.nanoTime() < timeout)) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, container.getTrackedInstanceCount());
+        assertEquals(0, released.get());
+    }
+
+    private ComponentRegistry registry(boolean releasable) {
+        return registry(releasable, true);
+    }
+
+    private ComponentRegistry registry(final boolean releasable, final boolean retain) {
+        ComponentRegistry registry = new ComponentRegistry(null);
+        registry.getClassIntrospectorInjectedValue().setValue(new ImmediateValue<EEClassIntrospector>(new EEClassIntrospector() {
+            @Override
+            public ManagedReferenceFactory createFactory(final Class<?> clazz) {
+                return new ManagedReferenceFactory() {
+                    @Override
+                    public ManagedReference getReference() {
+                        try {
+                            return createInstance(clazz.newInstance());
+                        } catch (ReflectiveOperationException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public ManagedReference createInstance(final Object instance) {
+                if (!releasable) {
+                    return new ImmediateManagedReference(instance);
+                }
+                ManagedReference reference = new ManagedReference() {
+                    @Override
+                    public void release() {
+                        released.incrementAndGet();
+                    }
+
+                    @Override
+                    public Object getInstance() {
+                        return instance;
+                    }
+                };
+                if (retain) {
+                    references.add(reference);
+                }
+                return reference;
+            }
+        }));
+        return registry;
+    }
+
+    public static class Released {
+    }
+
+    public static class ReleasedSubclass extends Released {
+    }
+
+    public static class Plain {
+    }
+}